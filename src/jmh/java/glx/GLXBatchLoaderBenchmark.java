@@ -0,0 +1,78 @@
+package glx;
+
+import glx.mesh.Mesh;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A generated corpus of GLX files loaded one after another and as one batch
+ * on the default parallelism. Time per corpus, divide by files for files/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class GLXBatchLoaderBenchmark {
+    @Param({ "camera.json" })
+    public String sample;
+
+    @Param({ "400" })
+    public int files;
+
+    @Param({ "40" })
+    public int copies;
+
+    private Path directory;
+    private final List<Path> corpus = new ArrayList<>();
+    private final GLXBatchLoader loader = new GLXBatchLoader();
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Mesh> source = GLXReader.loadFromFile(sample);
+        List<Mesh> scene = new ArrayList<>();
+        for (int i = 0; i < copies; i++) {
+            for (Mesh mesh : source) {
+                Mesh copy = mesh.duplicate(mesh.getName() + " " + i);
+                copy.setPositionX(mesh.getPositionX() + i);
+                scene.add(copy);
+            }
+        }
+
+        directory = Files.createTempDirectory("glx-corpus");
+        for (int i = 0; i < files; i++) {
+            Path file = directory.resolve("scene" + i + ".json");
+            GLXWriter.saveToFile(scene, file.toString(), true);
+            corpus.add(file);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (Path file : corpus) {
+            Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int sequential() throws IOException {
+        int meshes = 0;
+        for (Path file : corpus) {
+            meshes += GLXReader.loadFromFile(file.toString()).size();
+        }
+        return meshes;
+    }
+
+    @Benchmark
+    public List<GLXBatchLoader.Result> batch() throws InterruptedException {
+        return loader.loadAll(corpus);
+    }
+}
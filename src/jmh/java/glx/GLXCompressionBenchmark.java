@@ -0,0 +1,66 @@
+package glx;
+
+import glx.mesh.Mesh;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving and loading a sample scene, repeated to a few thousand meshes, as
+ * plain pretty JSON and as zstd and lz4 archives of it, all in memory so the
+ * disk is not measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GLXCompressionBenchmark {
+    @Param({ "NONE", "ZSTD", "LZ4" })
+    public GLXCompression compression;
+
+    @Param({ "camera.json" })
+    public String sample;
+
+    @Param({ "1000" })
+    public int copies;
+
+    private List<Mesh> scene;
+    private byte[] saved;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Mesh> source = GLXReader.loadFromFile(sample);
+        scene = new ArrayList<>(source.size() * copies);
+        for (int i = 0; i < copies; i++) {
+            for (Mesh mesh : source) {
+                Mesh copy = mesh.duplicate(mesh.getName() + " " + i);
+                copy.setPositionX(mesh.getPositionX() + i);
+                scene.add(copy);
+            }
+        }
+        saved = save();
+    }
+
+    @Benchmark
+    public byte[] save() throws IOException {
+        out.reset();
+        try (OutputStream compressed = compression.compress(Channels.newChannel(out))) {
+            GLXWriter.write(scene, compressed, true);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public List<Mesh> load() throws IOException {
+        return GLXReader.loadFromBytes(saved);
+    }
+}
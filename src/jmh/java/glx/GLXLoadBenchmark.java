@@ -0,0 +1,72 @@
+package glx;
+
+import glx.mesh.Mesh;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a sample scene, repeated to a few thousand meshes, from JSON and
+ * from the binary format, and only opening the binary file. Run with
+ * -prof gc for the bytes each load allocates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GLXLoadBenchmark {
+    @Param({ "camera.json", "speaker.json", "webcam.json" })
+    public String sample;
+
+    @Param({ "1000" })
+    public int copies;
+
+    private Path json;
+    private Path binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Mesh> source = GLXReader.loadFromFile(sample);
+        List<Mesh> scene = new ArrayList<>(source.size() * copies);
+        for (int i = 0; i < copies; i++) {
+            for (Mesh mesh : source) {
+                Mesh copy = mesh.duplicate(mesh.getName() + " " + i);
+                copy.setPositionX(mesh.getPositionX() + i);
+                scene.add(copy);
+            }
+        }
+
+        json = Files.createTempFile("glx", ".json");
+        binary = Files.createTempFile("glx", ".glxb");
+        GLXWriter.saveToFile(scene, json.toString(), false);
+        GLXBinaryWriter.saveToFile(scene, binary.toString());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(json);
+        Files.deleteIfExists(binary);
+    }
+
+    @Benchmark
+    public List<Mesh> loadJSON() throws IOException {
+        return GLXReader.loadFromFile(json.toString());
+    }
+
+    @Benchmark
+    public List<Mesh> loadBinary() throws IOException {
+        return GLXBinaryReader.loadFromFile(binary.toString());
+    }
+
+    @Benchmark
+    public int openBinary() throws IOException {
+        return GLXBinaryReader.open(binary).getMeshCount();
+    }
+}
@@ -0,0 +1,83 @@
+package glx.render;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One ring of circle vertices from the shared tables against per-vertex
+ * Math.cos/Math.sin, as the round primitives computed them before. Rotated
+ * rings are what CircleShape emits, plain ones what CylinderMesh and
+ * DonutMesh emit. The table lookup is part of each call, as in the meshes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CircleTableBenchmark {
+    @Param({ "16", "32", "64" })
+    public int segments;
+
+    public float radius = 0.15f;
+    public float rotation = 30.0f;
+
+    private float[] x;
+    private float[] y;
+
+    @Setup
+    public void setUp() {
+        x = new float[segments + 1];
+        y = new float[segments + 1];
+    }
+
+    @Benchmark
+    public void perVertexTrig(Blackhole blackhole) {
+        for (int i = 0; i <= segments; i++) {
+            double angle = 2 * Math.PI * i / segments;
+            x[i] = radius * (float) Math.cos(angle);
+            y[i] = radius * (float) Math.sin(angle);
+        }
+        blackhole.consume(x);
+        blackhole.consume(y);
+    }
+
+    @Benchmark
+    public void table(Blackhole blackhole) {
+        CircleTable circle = CircleTable.of(segments);
+        for (int i = 0; i <= segments; i++) {
+            x[i] = radius * circle.cos(i);
+            y[i] = radius * circle.sin(i);
+        }
+        blackhole.consume(x);
+        blackhole.consume(y);
+    }
+
+    @Benchmark
+    public void perVertexTrigRotated(Blackhole blackhole) {
+        double offset = Math.toRadians(rotation);
+        for (int i = 0; i <= segments; i++) {
+            double angle = 2 * Math.PI * i / segments + offset;
+            x[i] = radius * (float) Math.cos(angle);
+            y[i] = radius * (float) Math.sin(angle);
+        }
+        blackhole.consume(x);
+        blackhole.consume(y);
+    }
+
+    @Benchmark
+    public void tableRotated(Blackhole blackhole) {
+        CircleTable circle = CircleTable.of(segments);
+        double offset = Math.toRadians(rotation);
+        float cosOffset = (float) Math.cos(offset);
+        float sinOffset = (float) Math.sin(offset);
+        for (int i = 0; i <= segments; i++) {
+            x[i] = radius * circle.cos(i, cosOffset, sinOffset);
+            y[i] = radius * circle.sin(i, cosOffset, sinOffset);
+        }
+        blackhole.consume(x);
+        blackhole.consume(y);
+    }
+}
@@ -0,0 +1,61 @@
+package glx.render;
+
+import glx.GLXReader;
+import glx.mesh.Mesh;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optimizing the indexed meshes of a sample scene and generating their levels
+ * of detail, uncached, against serving them from an OptimizedGeometryCache.
+ * Triangle counts and cache statistics are covered by GeometryOptimizerTest.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GeometryOptimizerBenchmark {
+    @Param({ "camera.json", "speaker.json", "webcam.json" })
+    public String sample;
+
+    private List<Mesh> meshes;
+    private final List<IndexedGeometry> geometries = new ArrayList<>();
+    private final OptimizedGeometryCache cache = new OptimizedGeometryCache();
+
+    @Setup
+    public void setUp() throws IOException {
+        meshes = GLXReader.loadFromFile(sample);
+        for (Mesh mesh : meshes) {
+            geometries.add(mesh.getIndexedGeometry());
+            cache.getOptimized(mesh);
+        }
+    }
+
+    @Benchmark
+    public void optimize(Blackhole blackhole) {
+        for (IndexedGeometry geometry : geometries) {
+            blackhole.consume(GeometryOptimizer.optimize(geometry));
+        }
+    }
+
+    @Benchmark
+    public void generateLevels(Blackhole blackhole) {
+        for (IndexedGeometry geometry : geometries) {
+            blackhole.consume(GeometryOptimizer.generateLevels(geometry, LevelOfDetail.LEVELS));
+        }
+    }
+
+    @Benchmark
+    public void cached(Blackhole blackhole) {
+        for (Mesh mesh : meshes) {
+            blackhole.consume(cache.getOptimized(mesh));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package glx.render;
+
+import glx.GLXReader;
+import glx.mesh.Mesh;
+import glx.shape.PlaneShape;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A sample scene repeated to thousands of meshes, tessellated on pools of 1
+ * to N workers. Every invocation gets fresh meshes so their caches start
+ * empty. Compare the threads against 1 for the speedup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SceneTessellatorBenchmark {
+    @Param({ "camera.json" })
+    public String sample;
+
+    @Param({ "2000" })
+    public int copies;
+
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    private List<Mesh> source;
+    private List<Mesh> scene;
+    private ForkJoinPool pool;
+    private SceneTessellator tessellator;
+
+    @Setup
+    public void setUp() throws IOException {
+        source = GLXReader.loadFromFile(sample);
+        pool = new ForkJoinPool(threads);
+        tessellator = new SceneTessellator(pool);
+    }
+
+    @Setup(Level.Invocation)
+    public void copyScene() {
+        scene = new ArrayList<>(source.size() * copies);
+        for (int i = 0; i < copies; i++) {
+            for (Mesh mesh : source) {
+                Mesh copy = mesh.duplicate(mesh.getName() + " " + i);
+                for (PlaneShape shape : mesh.getShapes()) {
+                    copy.addShape(shape);
+                }
+                scene.add(copy);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<Mesh> tessellate() {
+        tessellator.tessellate(scene);
+        return scene;
+    }
+}
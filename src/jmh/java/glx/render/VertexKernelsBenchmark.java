@@ -0,0 +1,72 @@
+package glx.render;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The scalar and the Vector API kernels on the same inputs, one benchmark per
+ * kernel. The forks are started with --add-modules jdk.incubator.vector, the
+ * vector parameter fails fast if the module is missing anyway.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class VertexKernelsBenchmark {
+    @Param({ "scalar", "vector" })
+    public String kernels;
+
+    @Param({ "65536" })
+    public int count;
+
+    private VertexKernels selected;
+    private PointArrays points;
+    private PointArrays out;
+    private final float[] model = new float[16];
+    private final float[] bounds = new float[4];
+    private final Camera camera = new Camera();
+    private final CircleTable major = CircleTable.of(512);
+    private final CircleTable minor = CircleTable.of(256);
+
+    @Setup
+    public void setUp() {
+        selected = "scalar".equals(kernels) ? VertexKernels.scalar() : VertexKernels.get();
+        if (!"scalar".equals(kernels) && selected == VertexKernels.scalar()) {
+            throw new IllegalStateException("Vector kernels unavailable, run with --add-modules jdk.incubator.vector");
+        }
+
+        Random random = new Random(1);
+        points = new PointArrays(count);
+        points.count = count;
+        for (int i = 0; i < count; i++) {
+            points.x[i] = random.nextFloat() * 10 - 5;
+            points.y[i] = random.nextFloat() * 10 - 5;
+            points.z[i] = random.nextFloat() * 10 - 5;
+        }
+        out = new PointArrays(Math.max(count, (major.segments + 1) * (minor.segments + 1)));
+
+        InstanceBatcher.modelMatrix(1, 2, 3, 30, 45, 60, model, 0);
+        camera.update(30, 45, 12, 1600, 900);
+    }
+
+    @Benchmark
+    public PointArrays torus() {
+        selected.torus(0.5f, 0.2f, major, minor, out);
+        return out;
+    }
+
+    @Benchmark
+    public PointArrays transform() {
+        selected.transform(model, points, out);
+        return out;
+    }
+
+    @Benchmark
+    public int projectBounds() {
+        return selected.projectBounds(camera.viewProjection, points, 1600, 900, bounds);
+    }
+}
@@ -0,0 +1,55 @@
+package glx.render;
+
+import glx.GLXReader;
+import glx.mesh.CubeMesh;
+import glx.mesh.CylinderMesh;
+import glx.mesh.DonutMesh;
+import glx.mesh.Mesh;
+import glx.mesh.TriangleMesh;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Welding the captured surfaces of the default meshes and a sample scene into
+ * indexed geometry, with the default crease angle and by position only, which
+ * is what flat shaded surfaces like cube faces need to share their corners.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class VertexWelderBenchmark {
+    @Param({ "camera.json", "speaker.json", "webcam.json" })
+    public String sample;
+
+    @Param({ "45", "180" })
+    public float creaseAngle;
+
+    private final List<MeshGeometry> geometries = new ArrayList<>();
+    private Tessellator tessellator;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Mesh> meshes = new ArrayList<>(List.of(
+                new CubeMesh("Cube"), new CylinderMesh("Cylinder"), new DonutMesh("Donut"), new TriangleMesh("Triangle")));
+        meshes.addAll(GLXReader.loadFromFile(sample));
+        for (Mesh mesh : meshes) {
+            geometries.add(mesh.getGeometry());
+        }
+        tessellator = new Tessellator(creaseAngle);
+    }
+
+    @Benchmark
+    public void weld(Blackhole blackhole) {
+        for (MeshGeometry geometry : geometries) {
+            blackhole.consume(tessellator.build(geometry));
+        }
+    }
+}
@@ -156,12 +156,14 @@ public class Functions {
     public void addShapeToMesh(Mesh mesh, PlaneShape shape) {
         if (mesh != null) {
             mesh.addShape(shape);
+            scene.requestRedraw();
         }
     }
 
     public void removeShapeFromMesh(Mesh mesh, PlaneShape shape) {
         if (mesh != null) {
             mesh.removeShape(shape);
+            scene.requestRedraw();
         }
     }
 
@@ -22,14 +22,18 @@ public class GLX {
     private Functions functions;
     private JFrame controlFrame;
     private Frame glfwFrame;
-    private double lastMouseX;
-    private double lastMouseY;
-    private boolean isDragging = false;
-    private boolean isGizmoDragging = false;
+    private WindowInput input;
+
+    // When true the loop sleeps until the scene requests a redraw instead of drawing every vsync
+    public boolean renderOnDemand = true;
+    // Longest time the loop waits without drawing, in seconds. Infinite by default so an
+    // idle window produces no frames; a finite value adds a periodic redraw
+    public double maxIdleSeconds = Double.POSITIVE_INFINITY;
 
     public void run() {
         scene = new Scene();
         functions = new Functions(scene);
+        input = new WindowInput(scene);
 
         SwingUtilities.invokeLater(this::createControlPanel);
 
@@ -91,68 +95,28 @@ public class GLX {
             throw new RuntimeException("Failed to create the GLFW window");
         }
 
-        glfwSetMouseButtonCallback(window, (win, button, action, mods) -> {
-            if (button == GLFW_MOUSE_BUTTON_LEFT) {
-                if (action == GLFW_PRESS) {
-                    double[] xpos = new double[1];
-                    double[] ypos = new double[1];
-                    glfwGetCursorPos(window, xpos, ypos);
-
-                    int[] width = new int[1];
-                    int[] height = new int[1];
-                    glfwGetWindowSize(window, width, height);
-
-                    int hitAxis = scene.checkGizmoHit(xpos[0], ypos[0], width[0], height[0]);
-
-                    if (hitAxis != -1) {
-                        isGizmoDragging = true;
-                        scene.draggedAxis = hitAxis;
-                        scene.dragStartX = (float)xpos[0];
-                        scene.dragStartY = (float)ypos[0];
-
-                        if (scene.getSelectedMesh() != null) {
-                            scene.meshStartX = scene.getSelectedMesh().getPositionX();
-                            scene.meshStartY = scene.getSelectedMesh().getPositionY();
-                            scene.meshStartZ = scene.getSelectedMesh().getPositionZ();
-                        }
-                    } else {
-                        isDragging = true;
-                        lastMouseX = xpos[0];
-                        lastMouseY = ypos[0];
-                    }
-                } else if (action == GLFW_RELEASE) {
-                    isDragging = false;
-                    isGizmoDragging = false;
-                    scene.draggedAxis = -1;
-                }
-            }
-        });
-
-        glfwSetCursorPosCallback(window, (win, xpos, ypos) -> {
-            if (isGizmoDragging) {
-                int[] width = new int[1];
-                int[] height = new int[1];
-                glfwGetWindowSize(window, width, height);
-
-                scene.updateMeshPosition(xpos, ypos, width[0], height[0]);
-            } else if (isDragging) {
-                double deltaX = xpos - lastMouseX;
-                double deltaY = ypos - lastMouseY;
-
-                scene.cameraRotationY += (float) deltaX * 0.5f;
-                scene.cameraRotationX += (float) deltaY * 0.5f;
-
-                scene.cameraRotationX = Math.max(-89.0f, Math.min(89.0f, scene.cameraRotationX));
-
-                lastMouseX = xpos;
-                lastMouseY = ypos;
-            }
-        });
-
-        glfwSetScrollCallback(window, (win, xoffset, yoffset) -> {
-            scene.cameraDistance -= (float) yoffset * 0.5f;
-            scene.cameraDistance = Math.max(3.0f, Math.min(15.0f, scene.cameraDistance));
-        });
+        int[] width = new int[1];
+        int[] height = new int[1];
+        glfwGetWindowSize(window, width, height);
+        input.onWindowSize(width[0], height[0]);
+        glfwGetFramebufferSize(window, width, height);
+        input.onFramebufferSize(width[0], height[0]);
+
+        double[] xpos = new double[1];
+        double[] ypos = new double[1];
+        glfwGetCursorPos(window, xpos, ypos);
+        input.onCursorPos(xpos[0], ypos[0]);
+
+        glfwSetWindowSizeCallback(window, (win, w, h) -> input.onWindowSize(w, h));
+        glfwSetFramebufferSizeCallback(window, (win, w, h) -> input.onFramebufferSize(w, h));
+        glfwSetWindowRefreshCallback(window, win -> scene.requestRedraw());
+        glfwSetMouseButtonCallback(window, (win, button, action, mods) -> input.onMouseButton(button, action));
+        glfwSetCursorPosCallback(window, (win, x, y) -> input.onCursorPos(x, y));
+        glfwSetScrollCallback(window, (win, xoffset, yoffset) -> input.onScroll(yoffset));
+
+        // Swing edits happen on the EDT, wake the loop from glfwWaitEvents when they
+        // change the scene
+        scene.setRedrawListener(GLFW::glfwPostEmptyEvent);
 
         glfwShowWindow(window);
 
@@ -167,23 +131,44 @@ public class GLX {
     }
 
     private void loop() {
-        while (!glfwWindowShouldClose(window)) {
-            int[] width = new int[1];
-            int[] height = new int[1];
-            glfwGetFramebufferSize(window, width, height);
+        double lastFrameTime = 0;
 
-            scene.render(width[0], height[0]);
+        while (!glfwWindowShouldClose(window)) {
+            boolean requested = scene.consumeRedrawRequest();
+            double idle = glfwGetTime() - lastFrameTime;
+
+            if (shouldRender(requested, idle)) {
+                scene.render(input.getFramebufferWidth(), input.getFramebufferHeight());
+                glfwSwapBuffers(window);
+                lastFrameTime = glfwGetTime();
+                idle = 0;
+            }
 
-            glfwSwapBuffers(window);
-            glfwPollEvents();
+            if (!renderOnDemand) {
+                glfwPollEvents();
+            } else if (Double.isInfinite(maxIdleSeconds)) {
+                glfwWaitEvents();
+            } else {
+                glfwWaitEventsTimeout(Math.max(maxIdleSeconds - idle, 0.001));
+            }
         }
     }
 
+    /**
+     * Whether the loop draws a frame, given a pending redraw request and the idle seconds
+     */
+    boolean shouldRender(boolean requested, double idle) {
+        return !renderOnDemand || requested || idle >= maxIdleSeconds;
+    }
+
     private void cleanup() {
         if (controlFrame != null) {
             SwingUtilities.invokeLater(() -> controlFrame.dispose());
         }
 
+        scene.setRedrawListener(null);
+        scene.dispose();
+
         glfwFreeCallbacks(window);
         glfwDestroyWindow(window);
         glfwTerminate();
@@ -0,0 +1,228 @@
+package glx;
+
+import glx.mesh.Mesh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads many GLX files concurrently. Every file is read on its own virtual
+ * thread; parsing is CPU bound and limited to a fixed number of files at once,
+ * as is the number of files held in memory between reading and parsing.
+ * Files may be JSON, zstd or lz4 archives or binary GLX.
+ */
+public class GLXBatchLoader {
+    /**
+     * Called from the loading threads after each file, in completion order
+     */
+    public interface ProgressListener {
+        void onFileLoaded(Result result, int completed, int total);
+    }
+
+    /**
+     * The meshes of one file, or why they could not be loaded
+     */
+    public static class Result {
+        public final Path path;
+        public final List<Mesh> meshes;
+        public final Exception error;
+
+        Result(Path path, List<Mesh> meshes, Exception error) {
+            this.path = path;
+            this.meshes = meshes;
+            this.error = error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        @Override
+        public String toString() {
+            return isSuccess()
+                    ? path + ": " + meshes.size() + " meshes"
+                    : path + ": " + error;
+        }
+    }
+
+    /**
+     * A running batch
+     */
+    public static class Job {
+        private final Result[] results;
+        private final CountDownLatch done;
+        private final AtomicInteger completed = new AtomicInteger();
+        private final ProgressListener listener;
+        // One virtual thread per file
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private volatile boolean cancelled = false;
+
+        private Job(int size, ProgressListener listener) {
+            this.results = new Result[size];
+            this.done = new CountDownLatch(size);
+            this.listener = listener;
+        }
+
+        /**
+         * Stop the batch. Files not finished yet complete with a CancellationException.
+         */
+        public void cancel() {
+            cancelled = true;
+            for (Runnable task : executor.shutdownNow()) {
+                ((Task) task).finish(new CancellationException());
+            }
+        }
+
+        public boolean isCancelled() { return cancelled; }
+        public boolean isDone() { return done.getCount() == 0; }
+        public int getCompletedCount() { return completed.get(); }
+
+        /**
+         * Wait for every file and return the results in the order the files were given
+         */
+        public List<Result> await() throws InterruptedException {
+            done.await();
+            synchronized (results) {
+                return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(results)));
+            }
+        }
+
+        private void finish(int index, Result result) {
+            synchronized (results) {
+                results[index] = result;
+            }
+            int count = completed.incrementAndGet();
+            try {
+                if (listener != null) {
+                    listener.onFileLoaded(result, count, results.length);
+                }
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    /**
+     * Loading of one file
+     */
+    private static class Task implements Runnable {
+        final Job job;
+        final int index;
+        final Path path;
+        final Semaphore pending;
+        final Semaphore parsing;
+
+        Task(Job job, int index, Path path, Semaphore pending, Semaphore parsing) {
+            this.job = job;
+            this.index = index;
+            this.path = path;
+            this.pending = pending;
+            this.parsing = parsing;
+        }
+
+        @Override
+        public void run() {
+            job.finish(index, load());
+        }
+
+        void finish(Exception error) {
+            job.finish(index, new Result(path, null, error));
+        }
+
+        private Result load() {
+            try {
+                pending.acquire();
+                try {
+                    checkCancelled();
+                    byte[] data = Files.readAllBytes(path);
+
+                    parsing.acquire();
+                    try {
+                        checkCancelled();
+                        return new Result(path, GLXReader.loadFromBytes(data), null);
+                    } finally {
+                        parsing.release();
+                    }
+                } finally {
+                    pending.release();
+                }
+            } catch (InterruptedException e) {
+                return new Result(path, null, new CancellationException());
+            } catch (IOException e) {
+                // Reads interrupted by cancel() end with ClosedByInterruptException
+                return new Result(path, null, job.cancelled ? new CancellationException() : e);
+            } catch (Exception e) {
+                return new Result(path, null, e);
+            }
+        }
+
+        private void checkCancelled() {
+            if (job.cancelled) {
+                throw new CancellationException();
+            }
+        }
+    }
+
+    private final int parseParallelism;
+    private final int maxPendingFiles;
+
+    public GLXBatchLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public GLXBatchLoader(int parseParallelism) {
+        this(parseParallelism, parseParallelism * 4);
+    }
+
+    /**
+     * parseParallelism files are parsed at once, at most maxPendingFiles are read
+     * into memory and not parsed yet
+     */
+    public GLXBatchLoader(int parseParallelism, int maxPendingFiles) {
+        if (parseParallelism < 1 || maxPendingFiles < parseParallelism) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parseParallelism + ", " + maxPendingFiles);
+        }
+        this.parseParallelism = parseParallelism;
+        this.maxPendingFiles = maxPendingFiles;
+    }
+
+    /**
+     * Load the files and wait for all of them
+     */
+    public List<Result> loadAll(List<Path> files) throws InterruptedException {
+        return start(files, null).await();
+    }
+
+    /**
+     * Start loading the files and return at once; listener may be null
+     */
+    public Job start(List<Path> files, ProgressListener listener) {
+        Job job = new Job(files.size(), listener);
+        Semaphore pending = new Semaphore(maxPendingFiles);
+        Semaphore parsing = new Semaphore(parseParallelism);
+
+        for (int i = 0; i < files.size(); i++) {
+            Task task = new Task(job, i, files.get(i), pending, parsing);
+            try {
+                job.executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // The job was cancelled while files were being submitted
+                task.finish(new CancellationException());
+            }
+        }
+        job.executor.shutdown();
+        return job;
+    }
+}
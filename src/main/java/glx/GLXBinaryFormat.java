@@ -0,0 +1,105 @@
+package glx;
+
+import glx.mesh.CubeMesh;
+import glx.mesh.CylinderMesh;
+import glx.mesh.DonutMesh;
+import glx.mesh.Mesh;
+import glx.mesh.TriangleMesh;
+
+/**
+ * Layout of the binary GLX container, little-endian throughout:
+ *
+ * <pre>
+ * header   32 bytes   magic "GLXB", u16 version, u16 flags, u32 meshCount, u32 shapeCount,
+ *                     u32 stringCount, u64 stringTableOffset, u32 reserved
+ * meshes   64 bytes   u8 type, 3 pad, u32 name, u32 firstShape, u32 shapeCount,
+ *                     f32 position xyz, rotation xyz, width, length, height, param0, param1, u32 id
+ * shapes   48 bytes   u32 mesh, u32 name, u32 plane, u8 kind, u8 flags, 2 pad,
+ *                     f32 x, y, width, height, radius, rotation, depth, pad
+ * strings             u32 offsets[stringCount + 1] relative to the end of the offsets, UTF-8 bytes
+ * </pre>
+ *
+ * Shapes are stored grouped by mesh in mesh order, so a mesh's shapes are the
+ * contiguous range [firstShape, firstShape + shapeCount). Names and plane names
+ * are indices into the string table. Values are stored unrounded. A mesh id of 0,
+ * as written before ids existed, means the mesh gets a fresh id when read.
+ */
+final class GLXBinaryFormat {
+    static final int MAGIC = 'G' | 'L' << 8 | 'X' << 16 | 'B' << 24;
+    static final short VERSION = 1;
+
+    static final int HEADER_SIZE = 32;
+    static final int MESH_RECORD_SIZE = 64;
+    static final int SHAPE_RECORD_SIZE = 48;
+
+    // Header field offsets
+    static final int HEADER_VERSION = 4;
+    static final int HEADER_MESH_COUNT = 8;
+    static final int HEADER_SHAPE_COUNT = 12;
+    static final int HEADER_STRING_COUNT = 16;
+    static final int HEADER_STRING_TABLE = 20;
+
+    // Mesh record field offsets
+    static final int MESH_TYPE = 0;
+    static final int MESH_NAME = 4;
+    static final int MESH_FIRST_SHAPE = 8;
+    static final int MESH_SHAPE_COUNT = 12;
+    static final int MESH_POSITION = 16;
+    static final int MESH_ROTATION = 28;
+    static final int MESH_SIZE = 40;
+    static final int MESH_PARAMS = 52;
+    static final int MESH_ID = 60;
+
+    // Shape record field offsets
+    static final int SHAPE_MESH = 0;
+    static final int SHAPE_NAME = 4;
+    static final int SHAPE_PLANE = 8;
+    static final int SHAPE_KIND = 12;
+    static final int SHAPE_FLAGS = 13;
+    static final int SHAPE_VALUES = 16;
+
+    static final byte TYPE_CUBE = 0;
+    static final byte TYPE_CYLINDER = 1;
+    static final byte TYPE_DONUT = 2;
+    static final byte TYPE_TRIANGLE = 3;
+
+    static final byte KIND_SQUARE = 0;
+    static final byte KIND_CIRCLE = 1;
+
+    static final byte FLAG_INTRUDED = 1;
+    static final byte FLAG_EXTRUDED = 2;
+
+    private GLXBinaryFormat() {
+    }
+
+    static byte typeOf(Mesh mesh) {
+        if (mesh instanceof CubeMesh) return TYPE_CUBE;
+        if (mesh instanceof CylinderMesh) return TYPE_CYLINDER;
+        if (mesh instanceof DonutMesh) return TYPE_DONUT;
+        if (mesh instanceof TriangleMesh) return TYPE_TRIANGLE;
+        throw new IllegalArgumentException("Unsupported mesh type: " + mesh.getType());
+    }
+
+    /**
+     * The JSON node type for a mesh type code
+     */
+    static String typeName(byte type) {
+        switch (type) {
+            case TYPE_CUBE: return "Cube";
+            case TYPE_CYLINDER: return "Cylinder";
+            case TYPE_DONUT: return "Donut";
+            case TYPE_TRIANGLE: return "Triangle";
+            default: throw new IllegalArgumentException("Unknown mesh type code: " + type);
+        }
+    }
+
+    static Mesh create(byte type, String name) {
+        switch (type) {
+            case TYPE_CUBE: return new CubeMesh(name);
+            case TYPE_CYLINDER: return new CylinderMesh(name);
+            case TYPE_DONUT: return new DonutMesh(name);
+            case TYPE_TRIANGLE: return new TriangleMesh(name);
+            default: throw new IllegalArgumentException("Unknown mesh type code: " + type);
+        }
+    }
+}
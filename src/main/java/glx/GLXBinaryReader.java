@@ -0,0 +1,254 @@
+package glx;
+
+import glx.mesh.DonutMesh;
+import glx.mesh.Mesh;
+import glx.mesh.TriangleMesh;
+import glx.shape.CircleShape;
+import glx.shape.PlaneShape;
+import glx.shape.SquareShape;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static glx.GLXBinaryFormat.*;
+
+/**
+ * Reads the binary GLX container described in {@link GLXBinaryFormat} from a
+ * memory-mapped file. Opening only checks the header; mesh records, shapes and
+ * strings are decoded when a mesh is asked for, so large files can be browsed
+ * without materializing every mesh.
+ */
+public class GLXBinaryReader {
+    private final ByteBuffer data;
+    private final int meshCount;
+    private final int shapeCount;
+    private final int stringCount;
+    private final int stringOffsets;
+    private final int stringBytes;
+    private final int stringBytesLength;
+    private final String[] stringCache;
+
+    private GLXBinaryReader(ByteBuffer data) throws IOException {
+        this.data = data.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary GLX file");
+        }
+        short version = data.getShort(HEADER_VERSION);
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary GLX version: " + version);
+        }
+
+        meshCount = data.getInt(HEADER_MESH_COUNT);
+        shapeCount = data.getInt(HEADER_SHAPE_COUNT);
+        stringCount = data.getInt(HEADER_STRING_COUNT);
+        long stringTable = data.getLong(HEADER_STRING_TABLE);
+
+        long recordsEnd = HEADER_SIZE + (long) meshCount * MESH_RECORD_SIZE + (long) shapeCount * SHAPE_RECORD_SIZE;
+        long bytesStart = stringTable + 4L * (stringCount + 1L);
+        if (meshCount < 0 || shapeCount < 0 || stringCount < 0 ||
+                stringTable != recordsEnd || bytesStart > data.limit()) {
+            throw new IOException("Corrupt binary GLX header");
+        }
+        // The last offset is the length of the string bytes
+        int bytesLength = data.getInt((int) bytesStart - 4);
+        if (bytesLength < 0 || bytesLength > data.limit() - bytesStart) {
+            throw new IOException("Truncated binary GLX string table");
+        }
+
+        stringOffsets = (int) stringTable;
+        stringBytes = (int) bytesStart;
+        stringBytesLength = bytesLength;
+        stringCache = new String[stringCount];
+    }
+
+    /**
+     * Map a binary GLX file read-only. The mapping stays valid after the channel is closed.
+     */
+    public static GLXBinaryReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return open(channel);
+        }
+    }
+
+    static GLXBinaryReader open(FileChannel channel) throws IOException {
+        if (channel.size() > Integer.MAX_VALUE) {
+            throw new IOException("Binary GLX file too large to map: " + channel.size() + " bytes");
+        }
+        return new GLXBinaryReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+
+    /**
+     * Read a binary GLX image already in memory
+     */
+    public static GLXBinaryReader wrap(ByteBuffer buffer) throws IOException {
+        return new GLXBinaryReader(buffer.slice());
+    }
+
+    /**
+     * Load all meshes from a binary file
+     */
+    public static List<Mesh> loadFromFile(String filename) throws IOException {
+        return open(Paths.get(filename)).readAll();
+    }
+
+    /**
+     * Convert a binary GLX file to JSON
+     */
+    public static void convertToJSON(String binaryFile, String jsonFile, boolean pretty) throws IOException {
+        GLXWriter.saveToFile(loadFromFile(binaryFile), jsonFile, pretty);
+    }
+
+    /**
+     * Whether the file starts with the binary GLX magic number
+     */
+    public static boolean isBinaryFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    public int getMeshCount() { return meshCount; }
+    public int getShapeCount() { return shapeCount; }
+
+    /**
+     * Name of a mesh without decoding the rest of it
+     */
+    public String getMeshName(int index) throws IOException {
+        return string(data.getInt(meshRecord(index) + MESH_NAME));
+    }
+
+    /**
+     * Counts and mesh types from the header and the mesh records' type bytes,
+     * without decoding any mesh
+     */
+    public GLXReader.GLXInfo getInfo() throws IOException {
+        List<String> meshTypes = new ArrayList<>(meshCount);
+        for (int i = 0; i < meshCount; i++) {
+            try {
+                meshTypes.add(typeName(data.get(meshRecord(i) + MESH_TYPE)));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Mesh " + i + ": " + e.getMessage(), e);
+            }
+        }
+        return new GLXReader.GLXInfo(meshCount, shapeCount, meshTypes);
+    }
+
+    public List<Mesh> readAll() throws IOException {
+        List<Mesh> meshes = new ArrayList<>(meshCount);
+        for (int i = 0; i < meshCount; i++) {
+            meshes.add(readMesh(i));
+        }
+        return meshes;
+    }
+
+    /**
+     * Decode one mesh and its shapes
+     */
+    public Mesh readMesh(int index) throws IOException {
+        int record = meshRecord(index);
+        Mesh mesh;
+        try {
+            mesh = create(data.get(record + MESH_TYPE), string(data.getInt(record + MESH_NAME)));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Mesh " + index + ": " + e.getMessage(), e);
+        }
+
+        mesh.setPositionX(data.getFloat(record + MESH_POSITION));
+        mesh.setPositionY(data.getFloat(record + MESH_POSITION + 4));
+        mesh.setPositionZ(data.getFloat(record + MESH_POSITION + 8));
+        mesh.setRotationX(data.getFloat(record + MESH_ROTATION));
+        mesh.setRotationY(data.getFloat(record + MESH_ROTATION + 4));
+        mesh.setRotationZ(data.getFloat(record + MESH_ROTATION + 8));
+        mesh.setWidth(data.getFloat(record + MESH_SIZE));
+        mesh.setLength(data.getFloat(record + MESH_SIZE + 4));
+        mesh.setHeight(data.getFloat(record + MESH_SIZE + 8));
+
+        if (mesh instanceof DonutMesh) {
+            ((DonutMesh) mesh).setInnerRadius(data.getFloat(record + MESH_PARAMS));
+            ((DonutMesh) mesh).setOuterRadius(data.getFloat(record + MESH_PARAMS + 4));
+        } else if (mesh instanceof TriangleMesh) {
+            ((TriangleMesh) mesh).setSlopeFactor(data.getFloat(record + MESH_PARAMS));
+        }
+
+        int id = data.getInt(record + MESH_ID);
+        if (id > 0) {
+            mesh.setId(id);
+        }
+
+        int firstShape = data.getInt(record + MESH_FIRST_SHAPE);
+        int count = data.getInt(record + MESH_SHAPE_COUNT);
+        if (firstShape < 0 || count < 0 || (long) firstShape + count > shapeCount) {
+            throw new IOException("Mesh " + index + " has an invalid shape range");
+        }
+        for (int i = firstShape; i < firstShape + count; i++) {
+            mesh.addShape(readShape(i));
+        }
+        return mesh;
+    }
+
+    private PlaneShape readShape(int index) throws IOException {
+        int record = HEADER_SIZE + meshCount * MESH_RECORD_SIZE + index * SHAPE_RECORD_SIZE;
+        String name = string(data.getInt(record + SHAPE_NAME));
+        String plane = string(data.getInt(record + SHAPE_PLANE));
+
+        PlaneShape shape = data.get(record + SHAPE_KIND) == KIND_CIRCLE
+                ? new CircleShape(name, plane)
+                : new SquareShape(name, plane);
+
+        byte flags = data.get(record + SHAPE_FLAGS);
+        shape.intruded = (flags & FLAG_INTRUDED) != 0;
+        shape.extruded = (flags & FLAG_EXTRUDED) != 0;
+
+        int values = record + SHAPE_VALUES;
+        shape.x = data.getFloat(values);
+        shape.y = data.getFloat(values + 4);
+        shape.width = data.getFloat(values + 8);
+        shape.height = data.getFloat(values + 12);
+        shape.radius = data.getFloat(values + 16);
+        shape.rotation = data.getFloat(values + 20);
+        shape.depth = data.getFloat(values + 24);
+        return shape;
+    }
+
+    private int meshRecord(int index) {
+        if (index < 0 || index >= meshCount) {
+            throw new IndexOutOfBoundsException("Mesh " + index + " of " + meshCount);
+        }
+        return HEADER_SIZE + index * MESH_RECORD_SIZE;
+    }
+
+    /**
+     * Decode a string table entry once, repeated plane names share one String
+     */
+    private String string(int index) throws IOException {
+        if (index < 0 || index >= stringCount) {
+            throw new IOException("Corrupt binary GLX string reference: " + index + " of " + stringCount);
+        }
+        String value = stringCache[index];
+        if (value == null) {
+            int start = data.getInt(stringOffsets + 4 * index);
+            int end = data.getInt(stringOffsets + 4 * index + 4);
+            if (start < 0 || start > end || end > stringBytesLength) {
+                throw new IOException("Corrupt binary GLX string " + index + ": bytes " + start + " to " + end +
+                        " of " + stringBytesLength);
+            }
+            byte[] bytes = new byte[end - start];
+            data.get(stringBytes + start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            stringCache[index] = value;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,204 @@
+package glx;
+
+import glx.mesh.DonutMesh;
+import glx.mesh.Mesh;
+import glx.mesh.TriangleMesh;
+import glx.shape.CircleShape;
+import glx.shape.PlaneShape;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static glx.GLXBinaryFormat.*;
+
+/**
+ * Writes meshes in the binary GLX container described in {@link GLXBinaryFormat}.
+ * Records go through one reusable buffer, strings are deduplicated.
+ */
+public class GLXBinaryWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final Map<String, Integer> stringIndex = new HashMap<>();
+    private final List<byte[]> strings = new ArrayList<>();
+
+    private GLXBinaryWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Write meshes to a channel, which is left open
+     */
+    public static void write(List<Mesh> meshes, WritableByteChannel channel) throws IOException {
+        new GLXBinaryWriter(channel).writeScene(meshes);
+    }
+
+    public static void saveToFile(List<Mesh> meshes, String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(meshes, channel);
+        }
+    }
+
+    /**
+     * Convert a JSON GLX file to the binary format
+     */
+    public static void convertFromJSON(String jsonFile, String binaryFile) throws IOException {
+        saveToFile(GLXReader.loadFromFile(jsonFile), binaryFile);
+    }
+
+    private void writeScene(List<Mesh> meshes) throws IOException {
+        // Copy each shape list once so counts and records agree even if shapes change meanwhile,
+        // and intern every string up front so the header can carry the final count
+        List<List<PlaneShape>> shapes = new ArrayList<>(meshes.size());
+        int shapeCount = 0;
+        for (Mesh mesh : meshes) {
+            intern(mesh.getName());
+            List<PlaneShape> meshShapes = mesh.getShapes();
+            for (PlaneShape shape : meshShapes) {
+                intern(shape.name);
+                intern(shape.plane);
+            }
+            shapes.add(meshShapes);
+            shapeCount += meshShapes.size();
+        }
+
+        long stringTableOffset = HEADER_SIZE + (long) meshes.size() * MESH_RECORD_SIZE +
+                (long) shapeCount * SHAPE_RECORD_SIZE;
+
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(meshes.size());
+        buffer.putInt(shapeCount);
+        buffer.putInt(strings.size());
+        buffer.putLong(stringTableOffset);
+        buffer.putInt(0);
+
+        int firstShape = 0;
+        for (int i = 0; i < meshes.size(); i++) {
+            writeMesh(meshes.get(i), firstShape, shapes.get(i).size());
+            firstShape += shapes.get(i).size();
+        }
+        for (int i = 0; i < meshes.size(); i++) {
+            for (PlaneShape shape : shapes.get(i)) {
+                writeShape(shape, i);
+            }
+        }
+
+        writeStringTable();
+        flush();
+    }
+
+    private void writeMesh(Mesh mesh, int firstShape, int shapeCount) throws IOException {
+        ensureSpace(MESH_RECORD_SIZE);
+        buffer.put(typeOf(mesh));
+        buffer.put((byte) 0).put((byte) 0).put((byte) 0);
+        buffer.putInt(intern(mesh.getName()));
+        buffer.putInt(firstShape);
+        buffer.putInt(shapeCount);
+
+        buffer.putFloat(mesh.getPositionX());
+        buffer.putFloat(mesh.getPositionY());
+        buffer.putFloat(mesh.getPositionZ());
+        buffer.putFloat(mesh.getRotationX());
+        buffer.putFloat(mesh.getRotationY());
+        buffer.putFloat(mesh.getRotationZ());
+        buffer.putFloat(mesh.getWidth());
+        buffer.putFloat(mesh.getLength());
+        buffer.putFloat(mesh.getHeight());
+
+        float param0 = 0;
+        float param1 = 0;
+        if (mesh instanceof DonutMesh) {
+            param0 = ((DonutMesh) mesh).getInnerRadius();
+            param1 = ((DonutMesh) mesh).getOuterRadius();
+        } else if (mesh instanceof TriangleMesh) {
+            param0 = ((TriangleMesh) mesh).getSlopeFactor();
+        }
+        buffer.putFloat(param0);
+        buffer.putFloat(param1);
+        buffer.putInt(mesh.getId());
+    }
+
+    private void writeShape(PlaneShape shape, int meshIndex) throws IOException {
+        ensureSpace(SHAPE_RECORD_SIZE);
+        buffer.putInt(meshIndex);
+        buffer.putInt(intern(shape.name));
+        buffer.putInt(intern(shape.plane));
+        buffer.put(shape instanceof CircleShape ? KIND_CIRCLE : KIND_SQUARE);
+        buffer.put((byte) ((shape.intruded ? FLAG_INTRUDED : 0) | (shape.extruded ? FLAG_EXTRUDED : 0)));
+        buffer.put((byte) 0).put((byte) 0);
+
+        buffer.putFloat(shape.x);
+        buffer.putFloat(shape.y);
+        buffer.putFloat(shape.width);
+        buffer.putFloat(shape.height);
+        buffer.putFloat(shape.radius);
+        buffer.putFloat(shape.rotation);
+        buffer.putFloat(shape.depth);
+        buffer.putFloat(0);
+    }
+
+    private void writeStringTable() throws IOException {
+        int offset = 0;
+        for (int i = 0; i <= strings.size(); i++) {
+            ensureSpace(4);
+            buffer.putInt(offset);
+            if (i < strings.size()) {
+                offset += strings.get(i).length;
+            }
+        }
+
+        for (byte[] bytes : strings) {
+            int written = 0;
+            while (written < bytes.length) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int chunk = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, chunk);
+                written += chunk;
+            }
+        }
+    }
+
+    /**
+     * Index of a string in the table, null is stored as the empty string
+     */
+    private int intern(String value) {
+        String key = value != null ? value : "";
+        Integer index = stringIndex.get(key);
+        if (index == null) {
+            index = strings.size();
+            strings.add(key.getBytes(StandardCharsets.UTF_8));
+            stringIndex.put(key, index);
+        }
+        return index;
+    }
+
+    private void ensureSpace(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
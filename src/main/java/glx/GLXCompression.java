@@ -0,0 +1,99 @@
+package glx;
+
+import glx.io.LZ4FrameInputStream;
+import glx.io.LZ4FrameOutputStream;
+import glx.io.ZstdInputStream;
+import glx.io.ZstdOutputStream;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compression of GLX archives: zstd for files that are kept, lz4 for fast
+ * scratch saves. Archives are ordinary zstd or LZ4 frames around the JSON
+ * document and are recognised by their magic bytes, not by their name.
+ */
+public enum GLXCompression {
+    NONE,
+    ZSTD,
+    LZ4;
+
+    // Frame magic numbers, read little-endian from the first four bytes
+    private static final int ZSTD_MAGIC = 0xFD2FB528;
+    private static final int LZ4_MAGIC = 0x184D2204;
+
+    public static final int ZSTD_LEVEL = 9;
+    public static final int LZ4_LEVEL = 0;
+
+    /**
+     * Detect the compression of a file from its first bytes
+     */
+    public static GLXCompression detect(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+            }
+            return magic.hasRemaining() ? NONE : detect(magic.getInt(0));
+        }
+    }
+
+    public static GLXCompression detect(int magic) {
+        if (magic == ZSTD_MAGIC) return ZSTD;
+        if (magic == LZ4_MAGIC) return LZ4;
+        return NONE;
+    }
+
+    /**
+     * Compression for a file name when saving: *.zst is zstd, *.lz4 is lz4, anything else plain
+     */
+    public static GLXCompression forFileName(String filename) {
+        String name = filename.toLowerCase();
+        if (name.endsWith(".zst")) return ZSTD;
+        if (name.endsWith(".lz4")) return LZ4;
+        return NONE;
+    }
+
+    /**
+     * A stream compressing into the channel. Closing it ends the frame, the channel stays open.
+     */
+    public OutputStream compress(WritableByteChannel channel) throws IOException {
+        switch (this) {
+            case ZSTD: return new ZstdOutputStream(channel, ZSTD_LEVEL);
+            case LZ4: return new LZ4FrameOutputStream(channel, LZ4_LEVEL);
+            default:
+                // Keep the channel open like the compressing streams do
+                return new FilterOutputStream(Channels.newOutputStream(channel)) {
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        out.write(bytes, offset, length);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        flush();
+                    }
+                };
+        }
+    }
+
+    /**
+     * A stream decompressing from the channel. Closing it leaves the channel open.
+     */
+    public InputStream decompress(ReadableByteChannel channel) throws IOException {
+        switch (this) {
+            case ZSTD: return new ZstdInputStream(channel);
+            case LZ4: return new LZ4FrameInputStream(channel);
+            default: return Channels.newInputStream(channel);
+        }
+    }
+}
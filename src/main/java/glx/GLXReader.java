@@ -1,9 +1,9 @@
 package glx;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import glx.mesh.CubeMesh;
 import glx.mesh.CylinderMesh;
 import glx.mesh.DonutMesh;
@@ -13,24 +13,66 @@ import glx.shape.CircleShape;
 import glx.shape.PlaneShape;
 import glx.shape.SquareShape;
 
-import java.io.FileReader;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Reads GLX JSON format and reconstructs mesh objects
+ * Reads GLX JSON format and reconstructs mesh objects. Documents are read
+ * token by token: each mesh is built as soon as its node has been read, and
+ * only shape nodes that point at a mesh further down the file are held back.
  */
 public class GLXReader {
-    private static final Gson gson = new Gson();
-
     /**
-     * Load meshes from a JSON file
+     * Load meshes from a JSON file, or a zstd or lz4 archive of one
      */
     public static List<Mesh> loadFromFile(String filename) throws IOException {
-        try (FileReader reader = new FileReader(filename)) {
-            JsonObject root = gson.fromJson(reader, JsonObject.class);
-            return parseJSON(root);
+        Path path = Paths.get(filename);
+        GLXCompression compression = GLXCompression.detect(path);
+        if (compression == GLXCompression.NONE) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                return read(reader);
+            }
+        }
+
+        // Decompressed bytes are decoded as they are parsed, the document never exists as a whole
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             InputStream in = compression.decompress(channel)) {
+            return read(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Load meshes from the contents of a file: JSON, a zstd or lz4 archive of it, or binary GLX
+     */
+    public static List<Mesh> loadFromBytes(byte[] data) throws IOException {
+        int magic = data.length >= 4 ? ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getInt(0) : 0;
+        if (magic == GLXBinaryFormat.MAGIC) {
+            return GLXBinaryReader.wrap(ByteBuffer.wrap(data)).readAll();
+        }
+
+        GLXCompression compression = GLXCompression.detect(magic);
+        try (InputStream in = compression.decompress(Channels.newChannel(new ByteArrayInputStream(data)))) {
+            return read(new InputStreamReader(in, StandardCharsets.UTF_8));
         }
     }
 
@@ -38,51 +80,233 @@ public class GLXReader {
      * Load meshes from a JSON string
      */
     public static List<Mesh> loadFromString(String jsonString) {
-        JsonObject root = gson.fromJson(jsonString, JsonObject.class);
-        return parseJSON(root);
+        try {
+            return read(new StringReader(jsonString));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
-     * Parse the JSON structure and create mesh objects
+     * Load meshes from any character stream, the reader is not closed
      */
-    private static List<Mesh> parseJSON(JsonObject root) {
+    public static List<Mesh> read(Reader source) throws IOException {
+        JsonReader in = new JsonReader(source);
+        // Same tolerance as Gson.fromJson, which the tree-based reader used
+        in.setStrictness(Strictness.LENIENT);
+
         List<Mesh> meshes = new ArrayList<>();
+        // Meshes by the id they have in the file
+        Map<Integer, Mesh> meshesById = new HashMap<>();
+        // Shapes whose mesh has not been read yet, by 1-based mesh number or by mesh id
+        Map<Integer, List<Node>> pendingShapes = new HashMap<>();
+        Map<Integer, List<Node>> pendingById = new HashMap<>();
+        // Every shape that waited for a mesh id, in document order
+        List<Node> waitingForId = new ArrayList<>();
+        // Shapes with their mesh, added at the end so each mesh gets them in document order
+        // however late they were resolved
+        List<Attachment> attachments = new ArrayList<>();
+        int order = 0;
+        boolean hasNodes = false;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!in.nextName().equals("nodes")) {
+                in.skipValue();
+                continue;
+            }
+
+            hasNodes = true;
+            in.beginArray();
+            while (in.hasNext()) {
+                Node node = readNode(in);
+                node.order = order++;
+
+                if (isMeshType(node.type)) {
+                    Mesh mesh = parseMesh(node, meshes.size() + 1);
+                    meshes.add(mesh);
+                    attach(attachments, mesh, pendingShapes.remove(meshes.size()));
+
+                    // The first mesh with an id keeps it, later duplicates keep their fresh one
+                    if (node.id > 0 && !meshesById.containsKey(node.id)) {
+                        mesh.setId(node.id);
+                        meshesById.put(node.id, mesh);
+                        attach(attachments, mesh, pendingById.remove(node.id));
+                    }
+                } else if (isShapeType(node.type) && node.meshId > 0) {
+                    Mesh mesh = meshesById.get(node.meshId);
+                    if (mesh != null) {
+                        attachments.add(new Attachment(node.order, mesh, parseShape(node)));
+                    } else {
+                        pendingById.computeIfAbsent(node.meshId, k -> new ArrayList<>()).add(node);
+                        waitingForId.add(node);
+                    }
+                } else if (isShapeType(node.type) && node.target > 0) {
+                    if (node.target <= meshes.size()) {
+                        attachments.add(new Attachment(node.order, meshes.get(node.target - 1), parseShape(node)));
+                    } else {
+                        pendingShapes.computeIfAbsent(node.target, k -> new ArrayList<>()).add(node);
+                    }
+                }
+            }
+            in.endArray();
+        }
+        in.endObject();
+        if (in.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonSyntaxException("JSON document was not fully consumed.");
+        }
 
-        if (!root.has("nodes")) {
+        if (!hasNodes) {
             throw new IllegalArgumentException("Invalid GLX JSON: missing 'nodes' array");
         }
+        // Shapes naming an id no mesh has fall back to their node number
+        for (Node shape : waitingForId) {
+            if (!meshesById.containsKey(shape.meshId) && shape.target > 0 && shape.target <= meshes.size()) {
+                attachments.add(new Attachment(shape.order, meshes.get(shape.target - 1), parseShape(shape)));
+            }
+        }
+        // Shapes still pending point past the last mesh and are dropped, as before
+        attachments.sort((a, b) -> Integer.compare(a.order, b.order));
+        for (Attachment attachment : attachments) {
+            attachment.mesh.addShape(attachment.shape);
+        }
+        return meshes;
+    }
 
-        JsonArray nodes = root.getAsJsonArray("nodes");
+    private static void attach(List<Attachment> attachments, Mesh mesh, List<Node> shapes) {
+        if (shapes != null) {
+            for (Node shape : shapes) {
+                attachments.add(new Attachment(shape.order, mesh, parseShape(shape)));
+            }
+        }
+    }
+
+    /**
+     * A parsed shape and the mesh it goes to; order is its index in the nodes array
+     */
+    private static class Attachment {
+        final int order;
+        final Mesh mesh;
+        final PlaneShape shape;
+
+        Attachment(int order, Mesh mesh, PlaneShape shape) {
+            this.order = order;
+            this.mesh = mesh;
+            this.shape = shape;
+        }
+    }
 
-        // First pass: create all meshes
-        for (JsonElement nodeElement : nodes) {
-            JsonObject node = nodeElement.getAsJsonObject();
-            String type = node.get("type").getAsString();
+    /**
+     * One node's fields, the data sections are kept as raw primitive strings
+     */
+    private static class Node {
+        String type;
+        String plane;
+        // Mesh number the shape belongs to, positional
+        int target = 0;
+        // Id of a mesh node, or of the mesh a shape belongs to; 0 in files without ids
+        int id = 0;
+        int meshId = 0;
+        // Index in the nodes array
+        int order = 0;
+        final Map<String, Map<String, String>> data = new HashMap<>();
+
+        Map<String, String> section(String name) {
+            return data.get(name);
+        }
+    }
 
-            // Only create meshes, not shapes
-            if (isMeshType(type)) {
-                Mesh mesh = parseMesh(node, meshes.size() + 1);
-                meshes.add(mesh);
+    private static Node readNode(JsonReader in) throws IOException {
+        Node node = new Node();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type":
+                    node.type = readPrimitive(in);
+                    break;
+                case "plane":
+                    node.plane = readPrimitive(in);
+                    break;
+                case "node":
+                    String target = readPrimitive(in);
+                    node.target = target != null ? parseInt(target) : 0;
+                    break;
+                case "id":
+                    String id = readPrimitive(in);
+                    node.id = id != null ? parseInt(id) : 0;
+                    break;
+                case "meshId":
+                    String meshId = readPrimitive(in);
+                    node.meshId = meshId != null ? parseInt(meshId) : 0;
+                    break;
+                case "data":
+                    readData(in, node);
+                    break;
+                default:
+                    in.skipValue();
             }
         }
+        in.endObject();
 
-        // Second pass: add shapes to meshes
-        for (JsonElement nodeElement : nodes) {
-            JsonObject node = nodeElement.getAsJsonObject();
-            String type = node.get("type").getAsString();
+        if (node.type == null) {
+            throw new IllegalArgumentException("Invalid GLX JSON: node without 'type'");
+        }
+        return node;
+    }
 
-            // Only process shapes
-            if (isShapeType(type)) {
-                int nodeNumber = node.get("node").getAsInt();
-                if (nodeNumber > 0 && nodeNumber <= meshes.size()) {
-                    Mesh targetMesh = meshes.get(nodeNumber - 1);
-                    PlaneShape shape = parseShape(node);
-                    targetMesh.addShape(shape);
-                }
+    private static void readData(JsonReader in, Node node) throws IOException {
+        node.data.clear();
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return;
+        }
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                node.data.remove(name);
+                continue;
             }
+
+            Map<String, String> section = new HashMap<>();
+            in.beginObject();
+            while (in.hasNext()) {
+                section.put(in.nextName(), readPrimitive(in));
+            }
+            in.endObject();
+            node.data.put(name, section);
         }
+        in.endObject();
+    }
 
-        return meshes;
+    /**
+     * Text of a string, number or boolean value; null for null, objects and arrays
+     */
+    private static String readPrimitive(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case STRING:
+            case NUMBER:
+                return in.nextString();
+            case BOOLEAN:
+                return String.valueOf(in.nextBoolean());
+            default:
+                in.skipValue();
+                return null;
+        }
+    }
+
+    /**
+     * Integer conversion with the same fallbacks as Gson's getAsInt
+     */
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return new BigDecimal(value).intValue();
+        }
     }
 
     /**
@@ -107,9 +331,8 @@ public class GLXReader {
     /**
      * Parse a mesh node
      */
-    private static Mesh parseMesh(JsonObject node, int defaultId) {
-        String type = node.get("type").getAsString();
-        JsonObject data = node.getAsJsonObject("data");
+    private static Mesh parseMesh(Node node, int defaultId) {
+        String type = node.type;
 
         Mesh mesh = null;
         String name = type + "_" + defaultId;
@@ -133,17 +356,16 @@ public class GLXReader {
         }
 
         // Parse coordinates
-        if (data.has("coordinates")) {
-            JsonObject coords = data.getAsJsonObject("coordinates");
+        Map<String, String> coords = node.section("coordinates");
+        if (coords != null) {
             mesh.setPositionX(getFloat(coords, "x", 0));
             mesh.setPositionY(getFloat(coords, "y", 0));
             mesh.setPositionZ(getFloat(coords, "z", 0));
         }
 
         // Parse size
-        if (data.has("size")) {
-            JsonObject size = data.getAsJsonObject("size");
-
+        Map<String, String> size = node.section("size");
+        if (size != null) {
             if (mesh instanceof CubeMesh || mesh instanceof TriangleMesh) {
                 mesh.setHeight(getFloat(size, "h", 1));
                 mesh.setWidth(getFloat(size, "w", 1));
@@ -165,8 +387,8 @@ public class GLXReader {
         }
 
         // Parse rotation
-        if (data.has("rotation")) {
-            JsonObject rotation = data.getAsJsonObject("rotation");
+        Map<String, String> rotation = node.section("rotation");
+        if (rotation != null) {
             mesh.setRotationX(getFloat(rotation, "xRot", 0));
             mesh.setRotationY(getFloat(rotation, "yRot", 0));
             mesh.setRotationZ(getFloat(rotation, "zRot", 0));
@@ -178,13 +400,14 @@ public class GLXReader {
     /**
      * Parse a shape node
      */
-    private static PlaneShape parseShape(JsonObject node) {
-        String type = node.get("type").getAsString();
-        String plane = node.get("plane").getAsString();
-        JsonObject data = node.getAsJsonObject("data");
+    private static PlaneShape parseShape(Node node) {
+        String type = node.type;
+        if (node.plane == null) {
+            throw new IllegalArgumentException("Invalid GLX JSON: shape node without 'plane'");
+        }
 
         // Convert plane notation back to readable format
-        String planeName = convertPlaneNotation(plane);
+        String planeName = convertPlaneNotation(node.plane);
 
         // Determine shape type
         boolean isCircle = type.contains("Circle");
@@ -201,16 +424,15 @@ public class GLXReader {
         }
 
         // Parse coordinates
-        if (data.has("coordinates")) {
-            JsonObject coords = data.getAsJsonObject("coordinates");
+        Map<String, String> coords = node.section("coordinates");
+        if (coords != null) {
             shape.x = getFloat(coords, "x", 0);
             shape.y = getFloat(coords, "y", 0);
         }
 
         // Parse size
-        if (data.has("size")) {
-            JsonObject size = data.getAsJsonObject("size");
-
+        Map<String, String> size = node.section("size");
+        if (size != null) {
             if (isCircle) {
                 shape.radius = getFloat(size, "r", 0.15f);
             } else {
@@ -220,13 +442,13 @@ public class GLXReader {
         }
 
         // Parse depth and set intrude/extrude flags
-        if (isIntrude && data.has("intrude")) {
-            JsonObject intrude = data.getAsJsonObject("intrude");
+        Map<String, String> intrude = node.section("intrude");
+        Map<String, String> extrude = node.section("extrude");
+        if (isIntrude && intrude != null) {
             float depth = getFloat(intrude, "depth", 0);
             shape.depth = Math.abs(depth); // Store as positive
             shape.intruded = true;
-        } else if (isExtrude && data.has("extrude")) {
-            JsonObject extrude = data.getAsJsonObject("extrude");
+        } else if (isExtrude && extrude != null) {
             shape.depth = getFloat(extrude, "depth", 0);
             shape.extruded = true;
         }
@@ -250,88 +472,138 @@ public class GLXReader {
     }
 
     /**
-     * Safely get a float value from JSON object
+     * Safely get a float value from a data section
      */
-    private static float getFloat(JsonObject obj, String key, float defaultValue) {
-        if (obj.has(key)) {
-            JsonElement element = obj.get(key);
-            if (element.isJsonPrimitive()) {
-                return element.getAsFloat();
-            }
+    private static float getFloat(Map<String, String> section, String key, float defaultValue) {
+        String value = section.get(key);
+        if (value != null) {
+            return Float.parseFloat(value);
         }
         return defaultValue;
     }
 
     /**
-     * Validate a GLX JSON string
+     * Validate a GLX JSON string, see GLXValidator for the problems found
      */
     public static boolean validateJSON(String jsonString) {
+        return GLXValidator.validate(jsonString).isValid();
+    }
+
+    /**
+     * Get information about a GLX JSON document without fully loading it
+     */
+    public static GLXInfo getInfo(String jsonString) {
         try {
-            JsonObject root = gson.fromJson(jsonString, JsonObject.class);
+            return scanInfo(new StringReader(jsonString));
+        } catch (Exception e) {
+            return new GLXInfo(0, 0, new ArrayList<>());
+        }
+    }
 
-            // Check for required root structure
-            if (!root.has("nodes")) {
-                return false;
+    /**
+     * Get information about a GLX file without loading it. Binary files are answered
+     * from their header and mesh records, JSON and compressed archives are streamed
+     * through a scan that only looks at node types, so memory use does not grow
+     * with the file beyond the list of mesh types. Files that are not valid GLX
+     * give empty info, like getInfo(String).
+     */
+    public static GLXInfo getInfoFromFile(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
             }
+            int magic = header.hasRemaining() ? 0 : header.getInt(0);
+            channel.position(0);
 
-            JsonArray nodes = root.getAsJsonArray("nodes");
-
-            // Validate each node
-            for (JsonElement nodeElement : nodes) {
-                if (!nodeElement.isJsonObject()) {
-                    return false;
+            try {
+                if (magic == GLXBinaryFormat.MAGIC) {
+                    return GLXBinaryReader.open(channel).getInfo();
                 }
-
-                JsonObject node = nodeElement.getAsJsonObject();
-
-                // Check required fields
-                if (!node.has("type") || !node.has("data")) {
-                    return false;
-                }
-
-                String type = node.get("type").getAsString();
-
-                // Shape nodes need additional fields
-                if (isShapeType(type)) {
-                    if (!node.has("node") || !node.has("plane")) {
-                        return false;
-                    }
+                try (InputStream in = GLXCompression.detect(magic).decompress(channel)) {
+                    return scanInfo(new InputStreamReader(in, StandardCharsets.UTF_8));
                 }
+            } catch (IOException | RuntimeException e) {
+                // Only the file itself failing to open is reported
+                return new GLXInfo(0, 0, new ArrayList<>());
             }
-
-            return true;
-        } catch (Exception e) {
-            return false;
         }
     }
 
     /**
-     * Get information about a GLX JSON file without fully loading it
+     * Count mesh and shape nodes, reading only each node's type and skipping the rest
      */
-    public static GLXInfo getInfo(String jsonString) {
-        try {
-            JsonObject root = gson.fromJson(jsonString, JsonObject.class);
-            JsonArray nodes = root.getAsJsonArray("nodes");
-
-            int meshCount = 0;
-            int shapeCount = 0;
-            List<String> meshTypes = new ArrayList<>();
+    private static GLXInfo scanInfo(Reader source) throws IOException {
+        JsonReader in = new JsonReader(source);
+        in.setStrictness(Strictness.LENIENT);
+
+        int meshCount = 0;
+        int shapeCount = 0;
+        List<String> meshTypes = new ArrayList<>();
+        boolean hasNodes = false;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!in.nextName().equals("nodes")) {
+                in.skipValue();
+                continue;
+            }
 
-            for (JsonElement nodeElement : nodes) {
-                JsonObject node = nodeElement.getAsJsonObject();
-                String type = node.get("type").getAsString();
+            // A repeated nodes array replaces the earlier one, as it did in the tree
+            meshCount = 0;
+            shapeCount = 0;
+            meshTypes.clear();
+            hasNodes = true;
 
+            in.beginArray();
+            while (in.hasNext()) {
+                String type = readNodeType(in);
                 if (isMeshType(type)) {
                     meshCount++;
-                    meshTypes.add(type);
+                    meshTypes.add(meshTypeConstant(type));
                 } else if (isShapeType(type)) {
                     shapeCount++;
                 }
             }
+            in.endArray();
+        }
+        in.endObject();
+        if (in.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonSyntaxException("JSON document was not fully consumed.");
+        }
 
-            return new GLXInfo(meshCount, shapeCount, meshTypes);
-        } catch (Exception e) {
-            return new GLXInfo(0, 0, new ArrayList<>());
+        if (!hasNodes) {
+            throw new IllegalArgumentException("Invalid GLX JSON: missing 'nodes' array");
+        }
+        return new GLXInfo(meshCount, shapeCount, meshTypes);
+    }
+
+    private static String readNodeType(JsonReader in) throws IOException {
+        String type = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("type")) {
+                type = readPrimitive(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (type == null) {
+            throw new IllegalArgumentException("Invalid GLX JSON: node without 'type'");
+        }
+        return type;
+    }
+
+    /**
+     * The shared literal for a mesh type, so a long list of types holds no copies
+     */
+    private static String meshTypeConstant(String type) {
+        switch (type) {
+            case "Cube": return "Cube";
+            case "Cylinder": return "Cylinder";
+            case "Donut": return "Donut";
+            default: return "Triangle";
         }
     }
 
@@ -384,5 +656,12 @@ public class GLXReader {
         // Example: Get info
         GLXInfo info = GLXReader.getInfo(testJson);
         System.out.println(info);
+
+        // Example: Get info from a file without loading its meshes
+        try {
+            System.out.println(GLXReader.getInfoFromFile("output.json"));
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,535 @@
+package glx;
+
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks a GLX JSON document in one streaming pass and reports every problem
+ * with its line, column and node index. Besides the structure it checks node
+ * types, that the numbers GLXReader reads are numbers, the plane notation of
+ * shapes, that mesh ids are unique and that each shape's "meshId" and "node"
+ * refer to an existing mesh.
+ *
+ * Memory is not bounded by the document size in two places: the set of mesh
+ * ids seen so far, one entry per mesh with an id, and the shapes referring to
+ * a mesh further down, kept until that mesh is read. Files written by
+ * GLXWriter put shapes after their mesh, so only the ids grow with them. All
+ * else is bounded by the maximum number of errors.
+ */
+public class GLXValidator {
+    public static final int DEFAULT_MAX_ERRORS = 100;
+
+    private static final Pattern LOCATION = Pattern.compile(" at line (\\d+) column (\\d+)");
+
+    private static final Set<String> MESH_TYPES = new HashSet<>(Arrays.asList(
+            "Cube", "Cylinder", "Donut", "Triangle"));
+    private static final Set<String> SHAPE_TYPES = new HashSet<>(Arrays.asList(
+            "Plane-Square", "Plane-Circle",
+            "Cut-Intrude-Square", "Cut-Intrude-Circle",
+            "Cut-Extrude-Square", "Cut-Extrude-Circle"));
+    private static final Set<String> PLANES = new HashSet<>(Arrays.asList(
+            "+X", "-X", "+Y", "-Y", "+Z", "-Z"));
+    // Data values GLXReader parses as floats
+    private static final Set<String> NUMERIC_KEYS = new HashSet<>(Arrays.asList(
+            "x", "y", "z", "w", "h", "l", "r", "slopeFactor", "innerR", "outerR",
+            "xRot", "yRot", "zRot", "depth"));
+
+    /**
+     * A problem at a position in the document; node is the index in the nodes
+     * array, or -1 for problems outside of it
+     */
+    public static class Problem {
+        public final int line;
+        public final int column;
+        public final int node;
+        public final String message;
+
+        public Problem(int line, int column, int node, String message) {
+            this.line = line;
+            this.column = column;
+            this.node = node;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            String where = "line " + line + ", column " + column;
+            return node >= 0 ? where + ", node " + node + ": " + message : where + ": " + message;
+        }
+    }
+
+    /**
+     * Outcome of a validation. Counts cover the part of the document that was read.
+     */
+    public static class Result {
+        public final List<Problem> errors;
+        public final int meshCount;
+        public final int shapeCount;
+        // More errors were found than were recorded
+        public final boolean truncated;
+
+        public Result(List<Problem> errors, int meshCount, int shapeCount, boolean truncated) {
+            this.errors = errors;
+            this.meshCount = meshCount;
+            this.shapeCount = shapeCount;
+            this.truncated = truncated;
+        }
+
+        public boolean isValid() {
+            return errors.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            if (isValid()) {
+                return String.format("Valid GLX: %d meshes, %d shapes", meshCount, shapeCount);
+            }
+            StringBuilder text = new StringBuilder(String.format("Invalid GLX: %d error%s%s",
+                    errors.size(), errors.size() == 1 ? "" : "s", truncated ? " (more not shown)" : ""));
+            for (Problem problem : errors) {
+                text.append("\n  ").append(problem);
+            }
+            return text.toString();
+        }
+    }
+
+    /**
+     * A shape pointing past the meshes read so far, resolved once enough meshes follow
+     */
+    private static class Reference {
+        final int target;
+        final int line;
+        final int column;
+        final int node;
+
+        Reference(int target, int line, int column, int node) {
+            this.target = target;
+            this.line = line;
+            this.column = column;
+            this.node = node;
+        }
+    }
+
+    private final JsonReader in;
+    private final int maxErrors;
+    private final List<Problem> errors = new ArrayList<>();
+    private final PriorityQueue<Reference> forwardReferences =
+            new PriorityQueue<>((a, b) -> Integer.compare(a.target, b.target));
+    private final Set<Integer> meshIds = new HashSet<>();
+    // Shapes naming a mesh id not seen yet, by that id
+    private final Map<Integer, List<Reference>> idReferences = new HashMap<>();
+    private boolean truncated = false;
+    private int meshCount = 0;
+    private int shapeCount = 0;
+    private int nodeIndex = -1;
+
+    private GLXValidator(Reader source, int maxErrors) {
+        this.in = new JsonReader(source);
+        // Accept what GLXReader accepts
+        this.in.setStrictness(Strictness.LENIENT);
+        this.maxErrors = maxErrors;
+    }
+
+    public static Result validate(String jsonString) {
+        try {
+            return validate(new StringReader(jsonString), DEFAULT_MAX_ERRORS);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Validate a character stream, which is not closed. Syntax errors are reported
+     * as problems; only failures of the stream itself are thrown.
+     */
+    public static Result validate(Reader source, int maxErrors) throws IOException {
+        GLXValidator validator = new GLXValidator(source, maxErrors);
+        validator.run();
+        return validator.result();
+    }
+
+    /**
+     * Validate a JSON file or a zstd or lz4 archive of one
+     */
+    public static Result validateFile(String filename) throws IOException {
+        Path path = Paths.get(filename);
+        GLXCompression compression = GLXCompression.detect(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             InputStream stream = compression.decompress(channel)) {
+            return validate(new InputStreamReader(stream, StandardCharsets.UTF_8), DEFAULT_MAX_ERRORS);
+        }
+    }
+
+    private Result result() {
+        // Unresolved references are only known at the end, report everything in document order
+        errors.sort((a, b) -> a.line != b.line ? Integer.compare(a.line, b.line) : Integer.compare(a.column, b.column));
+        return new Result(Collections.unmodifiableList(errors), meshCount, shapeCount, truncated);
+    }
+
+    private void run() throws IOException {
+        try {
+            validateDocument();
+        } catch (EOFException e) {
+            syntaxError(e);
+        } catch (IOException e) {
+            // Gson reports malformed JSON as an IOException subclass with its location
+            // in the message
+            if (!LOCATION.matcher(String.valueOf(e.getMessage())).find()) {
+                throw e;
+            }
+            syntaxError(e);
+        } catch (IllegalStateException | NumberFormatException e) {
+            syntaxError(e);
+        }
+    }
+
+    private void validateDocument() throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            error("Document must be an object, found " + describe(in.peek()));
+            return;
+        }
+
+        boolean hasNodes = false;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (!name.equals("nodes")) {
+                in.skipValue();
+                continue;
+            }
+            if (hasNodes) {
+                error("Duplicate 'nodes' array");
+            }
+            hasNodes = true;
+
+            if (in.peek() != JsonToken.BEGIN_ARRAY) {
+                error("'nodes' must be an array, found " + describe(in.peek()));
+                in.skipValue();
+                continue;
+            }
+            validateNodes();
+        }
+        in.endObject();
+
+        if (in.peek() != JsonToken.END_DOCUMENT) {
+            error("Unexpected content after the document");
+        }
+        if (!hasNodes) {
+            error("Missing 'nodes' array");
+        }
+
+        for (Reference reference : forwardReferences) {
+            addError(new Problem(reference.line, reference.column, reference.node,
+                    "Shape refers to mesh " + reference.target + " but the document has " +
+                            meshCount + " mesh" + (meshCount == 1 ? "" : "es")));
+        }
+        forwardReferences.clear();
+
+        for (List<Reference> references : idReferences.values()) {
+            for (Reference reference : references) {
+                addError(new Problem(reference.line, reference.column, reference.node,
+                        "Shape refers to mesh id " + reference.target + ", which no mesh has"));
+            }
+        }
+        idReferences.clear();
+    }
+
+    private void validateNodes() throws IOException {
+        int index = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            nodeIndex = index++;
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                error("Node must be an object, found " + describe(in.peek()));
+                in.skipValue();
+                continue;
+            }
+            validateNode();
+        }
+        nodeIndex = -1;
+        in.endArray();
+    }
+
+    private void validateNode() throws IOException {
+        String type = null;
+        boolean hasData = false;
+        boolean hasTarget = false;
+        boolean hasPlane = false;
+        boolean hasMeshId = false;
+        int target = 0;
+        int[] targetAt = null;
+        int id = 0;
+        int[] idAt = null;
+        int meshId = 0;
+        int[] meshIdAt = null;
+        // Fields may come in any order, so the type is only known for sure at the end
+        List<Problem> shapeOnly = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type":
+                    if (in.peek() != JsonToken.STRING) {
+                        error("'type' must be a string, found " + describe(in.peek()));
+                        in.skipValue();
+                    } else {
+                        type = in.nextString();
+                        if (!MESH_TYPES.contains(type) && !SHAPE_TYPES.contains(type)) {
+                            error("Unknown node type '" + type + "'");
+                        }
+                    }
+                    break;
+                case "data":
+                    hasData = true;
+                    validateData();
+                    break;
+                // Locations are only taken for values that may turn out wrong, finding
+                // them is not cheap
+                case "node":
+                    hasTarget = true;
+                    target = readPositiveInt("node");
+                    if (target > meshCount) {
+                        targetAt = location();
+                    }
+                    break;
+                case "id":
+                    id = readPositiveInt("id");
+                    if (meshIds.contains(id)) {
+                        idAt = location();
+                    }
+                    break;
+                case "meshId":
+                    hasMeshId = true;
+                    meshId = readPositiveInt("meshId");
+                    if (meshId > 0 && !meshIds.contains(meshId)) {
+                        meshIdAt = location();
+                    }
+                    break;
+                case "plane":
+                    hasPlane = true;
+                    if (in.peek() != JsonToken.STRING) {
+                        error("'plane' must be a string, found " + describe(in.peek()));
+                        in.skipValue();
+                        break;
+                    }
+                    String plane = in.nextString();
+                    if (!PLANES.contains(plane)) {
+                        int[] at = location();
+                        if (shapeOnly == null) {
+                            shapeOnly = new ArrayList<>(1);
+                        }
+                        shapeOnly.add(new Problem(at[0], at[1], nodeIndex,
+                                "Invalid plane '" + plane + "', expected one of +X, -X, +Y, -Y, +Z, -Z"));
+                    }
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (type == null) {
+            error("Node without 'type'");
+        }
+        if (!hasData) {
+            error("Node without 'data'");
+        }
+
+        if (type != null && SHAPE_TYPES.contains(type)) {
+            shapeCount++;
+            if (shapeOnly != null) {
+                for (Problem problem : shapeOnly) {
+                    addError(problem);
+                }
+            }
+            if (!hasTarget && !hasMeshId) {
+                error("Shape without 'node' or 'meshId'");
+            }
+            if (target > meshCount) {
+                forwardReferences.add(new Reference(target, targetAt[0], targetAt[1], nodeIndex));
+            }
+            if (meshId > 0 && !meshIds.contains(meshId)) {
+                idReferences.computeIfAbsent(meshId, k -> new ArrayList<>())
+                        .add(new Reference(meshId, meshIdAt[0], meshIdAt[1], nodeIndex));
+            }
+            if (!hasPlane) {
+                error("Shape without 'plane'");
+            }
+        } else if (type != null && MESH_TYPES.contains(type)) {
+            meshCount++;
+            while (!forwardReferences.isEmpty() && forwardReferences.peek().target <= meshCount) {
+                forwardReferences.poll();
+            }
+            if (id > 0) {
+                if (!meshIds.add(id)) {
+                    addError(new Problem(idAt[0], idAt[1], nodeIndex, "Duplicate mesh id " + id));
+                }
+                idReferences.remove(id);
+            }
+        }
+    }
+
+    /**
+     * A mesh number or id; reports and returns 0 for anything else. Converted like
+     * GLXReader does, which accepts "2" and 2.0 as well.
+     */
+    private int readPositiveInt(String field) throws IOException {
+        if (in.peek() != JsonToken.NUMBER && in.peek() != JsonToken.STRING) {
+            error("'" + field + "' must be a positive integer, found " + describe(in.peek()));
+            in.skipValue();
+            return 0;
+        }
+        String value = in.nextString();
+        int result;
+        try {
+            result = new BigDecimal(value).intValue();
+        } catch (NumberFormatException e) {
+            result = 0;
+        }
+        if (result < 1) {
+            error("'" + field + "' must be a positive integer, found " + value);
+            return 0;
+        }
+        return result;
+    }
+
+    private void validateData() throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            error("'data' must be an object, found " + describe(in.peek()));
+            in.skipValue();
+            return;
+        }
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String section = in.nextName();
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                continue;
+            }
+
+            in.beginObject();
+            while (in.hasNext()) {
+                String key = in.nextName();
+                if (!NUMERIC_KEYS.contains(key)) {
+                    in.skipValue();
+                    continue;
+                }
+                validateNumber(section, key);
+            }
+            in.endObject();
+        }
+        in.endObject();
+    }
+
+    /**
+     * A value GLXReader parses with Float.parseFloat; null means use the default
+     */
+    private void validateNumber(String section, String key) throws IOException {
+        switch (in.peek()) {
+            case NUMBER:
+                in.skipValue();
+                return;
+            case NULL:
+                in.nextNull();
+                return;
+            case STRING:
+                String value = in.nextString();
+                try {
+                    Float.parseFloat(value);
+                } catch (NumberFormatException e) {
+                    error("'" + section + "." + key + "' is not a number: '" + value + "'");
+                }
+                return;
+            default:
+                error("'" + section + "." + key + "' must be a number, found " + describe(in.peek()));
+                in.skipValue();
+        }
+    }
+
+    private void syntaxError(Exception e) {
+        String message = String.valueOf(e.getMessage());
+        Matcher matcher = LOCATION.matcher(message);
+        int[] at = matcher.find()
+                ? new int[] { Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)) }
+                : location();
+        // Keep the reason, drop Gson's location suffix and troubleshooting link
+        int cut = message.indexOf(" at line ");
+        if (cut < 0) {
+            cut = message.indexOf(" at path ");
+        }
+        String reason = cut > 0 ? message.substring(0, cut) : message;
+        addError(new Problem(at[0], at[1], nodeIndex, "Malformed JSON: " + reason));
+    }
+
+    /**
+     * Report a problem at the reader's current position
+     */
+    private void error(String message) {
+        if (errors.size() >= maxErrors) {
+            truncated = true;
+            return;
+        }
+        int[] at = location();
+        errors.add(new Problem(at[0], at[1], nodeIndex, message));
+    }
+
+    private void addError(Problem problem) {
+        if (errors.size() >= maxErrors) {
+            truncated = true;
+            return;
+        }
+        errors.add(problem);
+    }
+
+    /**
+     * Line and column of the reader, which JsonReader only exposes through
+     * toString. Builds the path string as well, keep it off the common path.
+     */
+    private int[] location() {
+        Matcher matcher = LOCATION.matcher(in.toString());
+        if (matcher.find()) {
+            return new int[] { Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)) };
+        }
+        return new int[] { 0, 0 };
+    }
+
+    private static String describe(JsonToken token) {
+        switch (token) {
+            case BEGIN_OBJECT: return "an object";
+            case BEGIN_ARRAY: return "an array";
+            case STRING: return "a string";
+            case NUMBER: return "a number";
+            case BOOLEAN: return "a boolean";
+            case NULL: return "null";
+            case END_DOCUMENT: return "the end of the document";
+            default: return token.toString();
+        }
+    }
+}
@@ -1,9 +1,6 @@
 package glx;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import glx.mesh.CubeMesh;
 import glx.mesh.CylinderMesh;
 import glx.mesh.DonutMesh;
@@ -11,267 +8,263 @@ import glx.mesh.TriangleMesh;
 import glx.mesh.Mesh;
 import glx.shape.CircleShape;
 import glx.shape.PlaneShape;
-import glx.shape.SquareShape;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
+/**
+ * Writes meshes in GLX JSON format. Nodes are streamed straight to the target
+ * through a JsonWriter, so no document tree or string is built; stream and
+ * channel targets get a 64 KiB buffer per call. The pretty-printed form is the
+ * same one Gson's pretty printer produced.
+ */
 public class GLXWriter {
-    private static final Gson gson = new GsonBuilder()
-            .setPrettyPrinting()
-            .create();
+    private static final int BUFFER_SIZE = 64 * 1024;
 
-    public static String generateJSON(List<Mesh> meshes) {
-        JsonObject root = new JsonObject();
-        JsonArray nodes = new JsonArray();
-
-        for (int i = 0; i < meshes.size(); i++) {
-            Mesh mesh = meshes.get(i);
-
-            // Add main mesh node
-            JsonObject meshNode = null;
-            if (mesh instanceof CubeMesh) {
-                meshNode = generateCubeJSON(mesh);
-            } else if (mesh instanceof CylinderMesh) {
-                meshNode = generateCylinderJSON(mesh);
-            } else if (mesh instanceof DonutMesh) {
-                meshNode = generateDonutJSON(mesh);
-            } else if (mesh instanceof TriangleMesh) {
-                meshNode = generateTriangleJSON(mesh);
-            }
+    // Fixed parts of the pretty-printed document around and between mesh fragments
+    public static final String PRETTY_HEADER = "{\n  \"nodes\": [\n    ";
+    public static final String PRETTY_NODE_SEPARATOR = ",\n    ";
+    public static final String PRETTY_FOOTER = "\n  ]\n}";
+    public static final String PRETTY_EMPTY = "{\n  \"nodes\": []\n}";
 
-            if (meshNode != null) {
-                nodes.add(meshNode);
-            }
-
-            // Add shape nodes
-            List<PlaneShape> shapes = mesh.getShapes();
-            for (PlaneShape shape : shapes) {
-                if (shape.intruded && shape.depth > 0) {
-                    nodes.add(generateIntrudedShapeJSON(shape, i + 1));
-                } else if (shape.extruded && shape.depth > 0) {
-                    nodes.add(generateExtrudedShapeJSON(shape, i + 1));
-                } else if (!shape.intruded && !shape.extruded) {
-                    nodes.add(generatePlaneShapeJSON(shape, i + 1));
-                }
-            }
+    public static String generateJSON(List<Mesh> meshes) {
+        StringWriter out = new StringWriter();
+        try {
+            write(meshes, out, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-
-        root.add("nodes", nodes);
-        return gson.toJson(root);
+        return out.toString();
     }
 
-    private static JsonObject generateCubeJSON(Mesh mesh) {
-        JsonObject cube = new JsonObject();
-
-        JsonObject coordinates = new JsonObject();
-        coordinates.addProperty("x", formatNumber(mesh.getPositionX()));
-        coordinates.addProperty("y", formatNumber(mesh.getPositionY()));
-        coordinates.addProperty("z", formatNumber(mesh.getPositionZ()));
+    /**
+     * Write UTF-8 JSON to a stream, which is flushed but not closed
+     */
+    public static void write(List<Mesh> meshes, OutputStream out, boolean pretty) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        write(meshes, writer, pretty);
+        writer.flush();
+    }
 
-        JsonObject size = new JsonObject();
-        size.addProperty("h", formatNumber(mesh.getHeight()));
-        size.addProperty("w", formatNumber(mesh.getWidth()));
-        size.addProperty("l", formatNumber(mesh.getLength()));
+    /**
+     * Write UTF-8 JSON to a channel, which is left open
+     */
+    public static void write(List<Mesh> meshes, WritableByteChannel channel, boolean pretty) throws IOException {
+        Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+        write(meshes, writer, pretty);
+        writer.flush();
+    }
 
-        JsonObject rotation = new JsonObject();
-        rotation.addProperty("xRot", formatNumber(mesh.getRotationX()));
-        rotation.addProperty("yRot", formatNumber(mesh.getRotationY()));
-        rotation.addProperty("zRot", formatNumber(mesh.getRotationZ()));
+    /**
+     * Write JSON to a character stream; pretty uses two-space indentation, otherwise compact
+     */
+    public static void write(List<Mesh> meshes, Writer out, boolean pretty) throws IOException {
+        JsonWriter json = new JsonWriter(out);
+        json.setHtmlSafe(true);
+        if (pretty) {
+            json.setIndent("  ");
+        }
 
-        cube.add("coordinates", coordinates);
-        cube.add("size", size);
-        cube.add("rotation", rotation);
+        json.beginObject();
+        json.name("nodes").beginArray();
 
-        JsonObject wrapper = new JsonObject();
-        wrapper.add("type", gson.toJsonTree("Cube"));
-        wrapper.add("data", cube);
+        for (int i = 0; i < meshes.size(); i++) {
+            writeMeshNodes(json, meshes.get(i), i + 1);
+        }
 
-        return wrapper;
+        json.endArray();
+        json.endObject();
+        json.flush();
     }
 
-    private static JsonObject generateCylinderJSON(Mesh mesh) {
-        JsonObject cylinder = new JsonObject();
+    /**
+     * The pretty-printed nodes of one mesh exactly as they appear inside the document's
+     * nodes array, without the separator to neighbouring meshes. Empty if the mesh
+     * writes no nodes.
+     */
+    public static String generateMeshFragment(Mesh mesh, int nodeNumber) {
+        StringWriter out = new StringWriter();
+        try {
+            JsonWriter json = new JsonWriter(out);
+            json.setHtmlSafe(true);
+            json.setIndent("  ");
+            json.beginObject();
+            json.name("nodes").beginArray();
+            writeMeshNodes(json, mesh, nodeNumber);
+            json.endArray();
+            json.endObject();
+            json.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
 
-        JsonObject coordinates = new JsonObject();
-        coordinates.addProperty("x", formatNumber(mesh.getPositionX()));
-        coordinates.addProperty("y", formatNumber(mesh.getPositionY()));
-        coordinates.addProperty("z", formatNumber(mesh.getPositionZ()));
+        String document = out.toString();
+        if (document.equals(PRETTY_EMPTY)) {
+            return "";
+        }
+        return document.substring(PRETTY_HEADER.length(), document.length() - PRETTY_FOOTER.length());
+    }
 
-        JsonObject size = new JsonObject();
-        size.addProperty("r", formatNumber(mesh.getWidth() / 2.0f));
+    /**
+     * Write a mesh node followed by its shape nodes, which refer to it by its id and,
+     * for readers that predate ids, by nodeNumber
+     */
+    private static void writeMeshNodes(JsonWriter json, Mesh mesh, int nodeNumber) throws IOException {
+        // Add main mesh node
+        if (mesh instanceof CubeMesh) {
+            writeCube(json, mesh);
+        } else if (mesh instanceof CylinderMesh) {
+            writeCylinder(json, mesh);
+        } else if (mesh instanceof DonutMesh) {
+            writeDonut(json, mesh);
+        } else if (mesh instanceof TriangleMesh) {
+            writeTriangle(json, mesh);
+        }
 
-        JsonObject rotation = new JsonObject();
-        rotation.addProperty("xRot", formatNumber(mesh.getRotationX()));
-        rotation.addProperty("yRot", formatNumber(mesh.getRotationY()));
-        rotation.addProperty("zRot", formatNumber(mesh.getRotationZ()));
+        // Add shape nodes
+        List<PlaneShape> shapes = mesh.getShapes();
+        for (PlaneShape shape : shapes) {
+            if (shape.intruded && shape.depth > 0) {
+                writeShape(json, shape, nodeNumber, mesh.getId(), "Cut-Intrude-", "intrude", -shape.depth);
+            } else if (shape.extruded && shape.depth > 0) {
+                writeShape(json, shape, nodeNumber, mesh.getId(), "Cut-Extrude-", "extrude", shape.depth);
+            } else if (!shape.intruded && !shape.extruded) {
+                writeShape(json, shape, nodeNumber, mesh.getId(), "Plane-", null, 0);
+            }
+        }
+    }
 
-        cylinder.add("coordinates", coordinates);
-        cylinder.add("size", size);
-        cylinder.add("rotation", rotation);
+    private static void writeCube(JsonWriter json, Mesh mesh) throws IOException {
+        beginMesh(json, "Cube", mesh);
 
-        JsonObject wrapper = new JsonObject();
-        wrapper.add("type", gson.toJsonTree("Cylinder"));
-        wrapper.add("data", cylinder);
+        json.name("size").beginObject();
+        number(json, "h", mesh.getHeight());
+        number(json, "w", mesh.getWidth());
+        number(json, "l", mesh.getLength());
+        json.endObject();
 
-        return wrapper;
+        endMesh(json, mesh);
     }
 
-    private static JsonObject generateDonutJSON(Mesh mesh) {
-        DonutMesh donut = (DonutMesh) mesh;
-        JsonObject donutObj = new JsonObject();
+    private static void writeCylinder(JsonWriter json, Mesh mesh) throws IOException {
+        beginMesh(json, "Cylinder", mesh);
 
-        JsonObject coordinates = new JsonObject();
-        coordinates.addProperty("x", formatNumber(mesh.getPositionX()));
-        coordinates.addProperty("y", formatNumber(mesh.getPositionY()));
-        coordinates.addProperty("z", formatNumber(mesh.getPositionZ()));
+        json.name("size").beginObject();
+        number(json, "r", mesh.getWidth() / 2.0f);
+        json.endObject();
 
-        JsonObject size = new JsonObject();
-        size.addProperty("innerR", formatNumber(donut.getInnerRadius()));
-        size.addProperty("outerR", formatNumber(donut.getOuterRadius()));
-
-        JsonObject rotation = new JsonObject();
-        rotation.addProperty("xRot", formatNumber(mesh.getRotationX()));
-        rotation.addProperty("yRot", formatNumber(mesh.getRotationY()));
-        rotation.addProperty("zRot", formatNumber(mesh.getRotationZ()));
+        endMesh(json, mesh);
+    }
 
-        donutObj.add("coordinates", coordinates);
-        donutObj.add("size", size);
-        donutObj.add("rotation", rotation);
+    private static void writeDonut(JsonWriter json, Mesh mesh) throws IOException {
+        DonutMesh donut = (DonutMesh) mesh;
+        beginMesh(json, "Donut", mesh);
 
-        JsonObject wrapper = new JsonObject();
-        wrapper.add("type", gson.toJsonTree("Donut"));
-        wrapper.add("data", donutObj);
+        json.name("size").beginObject();
+        number(json, "innerR", donut.getInnerRadius());
+        number(json, "outerR", donut.getOuterRadius());
+        json.endObject();
 
-        return wrapper;
+        endMesh(json, mesh);
     }
 
-    private static JsonObject generateTriangleJSON(Mesh mesh) {
+    private static void writeTriangle(JsonWriter json, Mesh mesh) throws IOException {
         TriangleMesh triangle = (TriangleMesh) mesh;
-        JsonObject triangleObj = new JsonObject();
-
-        JsonObject coordinates = new JsonObject();
-        coordinates.addProperty("x", formatNumber(mesh.getPositionX()));
-        coordinates.addProperty("y", formatNumber(mesh.getPositionY()));
-        coordinates.addProperty("z", formatNumber(mesh.getPositionZ()));
-
-        JsonObject size = new JsonObject();
-        size.addProperty("w", formatNumber(mesh.getWidth()));
-        size.addProperty("l", formatNumber(mesh.getLength()));
-        size.addProperty("h", formatNumber(mesh.getHeight()));
-        size.addProperty("slopeFactor", formatNumber(triangle.getSlopeFactor()));
-
-        JsonObject rotation = new JsonObject();
-        rotation.addProperty("xRot", formatNumber(mesh.getRotationX()));
-        rotation.addProperty("yRot", formatNumber(mesh.getRotationY()));
-        rotation.addProperty("zRot", formatNumber(mesh.getRotationZ()));
-
-        triangleObj.add("coordinates", coordinates);
-        triangleObj.add("size", size);
-        triangleObj.add("rotation", rotation);
+        beginMesh(json, "Triangle", mesh);
 
-        JsonObject wrapper = new JsonObject();
-        wrapper.add("type", gson.toJsonTree("Triangle"));
-        wrapper.add("data", triangleObj);
+        json.name("size").beginObject();
+        number(json, "w", mesh.getWidth());
+        number(json, "l", mesh.getLength());
+        number(json, "h", mesh.getHeight());
+        number(json, "slopeFactor", triangle.getSlopeFactor());
+        json.endObject();
 
-        return wrapper;
+        endMesh(json, mesh);
     }
 
-    private static JsonObject generateIntrudedShapeJSON(PlaneShape shape, int nodeNumber) {
-        String shapeType = shape instanceof CircleShape ? "Circle" : "Square";
-        String typeName = "Cut-Intrude-" + shapeType;
-
-        JsonObject cutIntrude = new JsonObject();
-
-        JsonObject coordinates = new JsonObject();
-        coordinates.addProperty("x", formatNumber(shape.x));
-        coordinates.addProperty("y", formatNumber(shape.y));
-
-        JsonObject size = new JsonObject();
-        if (shape instanceof CircleShape) {
-            size.addProperty("r", formatNumber(shape.radius));
-        } else {
-            size.addProperty("w", formatNumber(shape.width));
-            size.addProperty("h", formatNumber(shape.height));
-        }
-
-        JsonObject intrude = new JsonObject();
-        intrude.addProperty("depth", formatNumber(-shape.depth));
-
-        cutIntrude.add("coordinates", coordinates);
-        cutIntrude.add("size", size);
-        cutIntrude.add("intrude", intrude);
-
-        JsonObject wrapper = new JsonObject();
-        wrapper.add("type", gson.toJsonTree(typeName));
-        wrapper.addProperty("node", nodeNumber);
-        wrapper.addProperty("plane", convertPlaneNotation(shape.plane));
-        wrapper.add("data", cutIntrude);
-
-        return wrapper;
+    /**
+     * Opens the node and its data and writes the coordinates, the caller adds the size
+     */
+    private static void beginMesh(JsonWriter json, String type, Mesh mesh) throws IOException {
+        json.beginObject();
+        json.name("type").value(type);
+        json.name("id").value(mesh.getId());
+        json.name("data").beginObject();
+
+        json.name("coordinates").beginObject();
+        number(json, "x", mesh.getPositionX());
+        number(json, "y", mesh.getPositionY());
+        number(json, "z", mesh.getPositionZ());
+        json.endObject();
     }
 
-    private static JsonObject generateExtrudedShapeJSON(PlaneShape shape, int nodeNumber) {
-        String shapeType = shape instanceof CircleShape ? "Circle" : "Square";
-        String typeName = "Cut-Extrude-" + shapeType;
-
-        JsonObject cutExtrude = new JsonObject();
-
-        JsonObject coordinates = new JsonObject();
-        coordinates.addProperty("x", formatNumber(shape.x));
-        coordinates.addProperty("y", formatNumber(shape.y));
-
-        JsonObject size = new JsonObject();
-        if (shape instanceof CircleShape) {
-            size.addProperty("r", formatNumber(shape.radius));
-        } else {
-            size.addProperty("w", formatNumber(shape.width));
-            size.addProperty("h", formatNumber(shape.height));
-        }
-
-        JsonObject extrude = new JsonObject();
-        extrude.addProperty("depth", formatNumber(shape.depth));
-
-        cutExtrude.add("coordinates", coordinates);
-        cutExtrude.add("size", size);
-        cutExtrude.add("extrude", extrude);
-
-        JsonObject wrapper = new JsonObject();
-        wrapper.add("type", gson.toJsonTree(typeName));
-        wrapper.addProperty("node", nodeNumber);
-        wrapper.addProperty("plane", convertPlaneNotation(shape.plane));
-        wrapper.add("data", cutExtrude);
-
-        return wrapper;
+    /**
+     * Writes the rotation and closes the data and node objects
+     */
+    private static void endMesh(JsonWriter json, Mesh mesh) throws IOException {
+        json.name("rotation").beginObject();
+        number(json, "xRot", mesh.getRotationX());
+        number(json, "yRot", mesh.getRotationY());
+        number(json, "zRot", mesh.getRotationZ());
+        json.endObject();
+
+        json.endObject();
+        json.endObject();
     }
 
-    private static JsonObject generatePlaneShapeJSON(PlaneShape shape, int nodeNumber) {
+    /**
+     * Write a shape node; depthSection is "intrude", "extrude" or null for flat plane shapes
+     */
+    private static void writeShape(JsonWriter json, PlaneShape shape, int nodeNumber, int meshId,
+                                   String typePrefix, String depthSection, float depth) throws IOException {
         String shapeType = shape instanceof CircleShape ? "Circle" : "Square";
-        String typeName = "Plane-" + shapeType;
 
-        JsonObject planeShape = new JsonObject();
+        json.beginObject();
+        json.name("type").value(typePrefix + shapeType);
+        json.name("node").value(nodeNumber);
+        json.name("meshId").value(meshId);
+        json.name("plane").value(convertPlaneNotation(shape.plane));
+        json.name("data").beginObject();
 
-        JsonObject coordinates = new JsonObject();
-        coordinates.addProperty("x", formatNumber(shape.x));
-        coordinates.addProperty("y", formatNumber(shape.y));
+        json.name("coordinates").beginObject();
+        number(json, "x", shape.x);
+        number(json, "y", shape.y);
+        json.endObject();
 
-        JsonObject size = new JsonObject();
+        json.name("size").beginObject();
         if (shape instanceof CircleShape) {
-            size.addProperty("r", formatNumber(shape.radius));
+            number(json, "r", shape.radius);
         } else {
-            size.addProperty("w", formatNumber(shape.width));
-            size.addProperty("h", formatNumber(shape.height));
+            number(json, "w", shape.width);
+            number(json, "h", shape.height);
         }
+        json.endObject();
 
-        planeShape.add("coordinates", coordinates);
-        planeShape.add("size", size);
+        if (depthSection != null) {
+            json.name(depthSection).beginObject();
+            number(json, "depth", depth);
+            json.endObject();
+        }
 
-        JsonObject wrapper = new JsonObject();
-        wrapper.add("type", gson.toJsonTree(typeName));
-        wrapper.addProperty("node", nodeNumber);
-        wrapper.addProperty("plane", convertPlaneNotation(shape.plane));
-        wrapper.add("data", planeShape);
+        json.endObject();
+        json.endObject();
+    }
 
-        return wrapper;
+    private static void number(JsonWriter json, String name, float value) throws IOException {
+        // Boxed like JsonObject.addProperty did, so the text is Float.toString's
+        json.name(name).value((Float) formatNumber(value));
     }
 
     private static String convertPlaneNotation(String plane) {
@@ -292,11 +285,26 @@ public class GLXWriter {
     }
 
     public static void saveToFile(List<Mesh> meshes, String filename) {
-        String json = generateJSON(meshes);
-        try (java.io.FileWriter writer = new java.io.FileWriter(filename)) {
-            writer.write(json);
-        } catch (java.io.IOException e) {
+        saveToFile(meshes, filename, true);
+    }
+
+    /**
+     * Save JSON, compressed when the file name ends in .zst or .lz4
+     */
+    public static void saveToFile(List<Mesh> meshes, String filename, boolean pretty) {
+        try {
+            saveToFile(meshes, filename, pretty, GLXCompression.forFileName(filename));
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    public static void saveToFile(List<Mesh> meshes, String filename, boolean pretty,
+                                  GLXCompression compression) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             OutputStream out = compression.compress(channel)) {
+            write(meshes, out, pretty);
+        }
+    }
+}
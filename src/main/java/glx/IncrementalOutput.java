@@ -0,0 +1,191 @@
+package glx;
+
+import glx.mesh.Mesh;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a text document holding the pretty-printed GLX JSON of a scene in sync
+ * with it. Each mesh's nodes are cached as a text fragment and re-serialized
+ * only when the mesh's revision or its node number changes, and only the range
+ * of the document between the first and last changed fragment is replaced.
+ */
+public class IncrementalOutput {
+    private static class Fragment {
+        final Mesh mesh;
+        final int revision;
+        final int nodeNumber;
+        // Only shape nodes mention the node number, meshes without shapes can move freely
+        final boolean numbered;
+        final String text;
+
+        Fragment(Mesh mesh, int revision, int nodeNumber, boolean numbered, String text) {
+            this.mesh = mesh;
+            this.revision = revision;
+            this.nodeNumber = nodeNumber;
+            this.numbered = numbered;
+            this.text = text;
+        }
+    }
+
+    private List<Fragment> fragments = new ArrayList<>();
+    private Map<Mesh, Fragment> byMesh = new IdentityHashMap<>();
+    private int[] starts = new int[0];
+    private boolean documentStale = true;
+    private long serializedFragments = 0;
+
+    /**
+     * Bring the document up to date with the meshes. Returns false without touching
+     * the document if nothing changed since the last update.
+     */
+    public boolean update(List<Mesh> meshes, Document document) throws BadLocationException {
+        List<Fragment> next = new ArrayList<>(meshes.size());
+        Map<Mesh, Fragment> nextByMesh = new IdentityHashMap<>(meshes.size());
+        boolean changed = false;
+
+        for (int i = 0; i < meshes.size(); i++) {
+            Mesh mesh = meshes.get(i);
+            int nodeNumber = i + 1;
+            Fragment fragment = byMesh.get(mesh);
+
+            if (fragment == null || fragment.revision != mesh.getRevision() ||
+                    (fragment.numbered && fragment.nodeNumber != nodeNumber)) {
+                // Read the revision first, an edit racing with serialization shows up next time
+                int revision = mesh.getRevision();
+                String text = GLXWriter.generateMeshFragment(mesh, nodeNumber);
+                fragment = new Fragment(mesh, revision, nodeNumber, !mesh.getShapes().isEmpty(), text);
+                serializedFragments++;
+            }
+            nextByMesh.put(mesh, fragment);
+
+            if (fragment.text.isEmpty()) {
+                continue;
+            }
+            if (next.size() >= fragments.size() || !sameText(fragments.get(next.size()), fragment)) {
+                changed = true;
+            }
+            next.add(fragment);
+        }
+        changed |= next.size() != fragments.size();
+        byMesh = nextByMesh;
+
+        if (!changed && !documentStale) {
+            return false;
+        }
+
+        if (documentStale || fragments.isEmpty() || next.isEmpty()) {
+            replaceAll(next, document);
+        } else {
+            patch(next, document);
+        }
+
+        fragments = next;
+        starts = computeStarts(next);
+        documentStale = false;
+        return true;
+    }
+
+    /**
+     * The document was changed elsewhere, the next change rewrites it completely
+     */
+    public void invalidate() {
+        documentStale = true;
+    }
+
+    /**
+     * Number of mesh fragments serialized so far
+     */
+    public long getSerializedFragmentCount() {
+        return serializedFragments;
+    }
+
+    private void replaceAll(List<Fragment> next, Document document) throws BadLocationException {
+        StringBuilder text = new StringBuilder();
+        if (next.isEmpty()) {
+            text.append(GLXWriter.PRETTY_EMPTY);
+        } else {
+            text.append(GLXWriter.PRETTY_HEADER);
+            for (int i = 0; i < next.size(); i++) {
+                if (i > 0) {
+                    text.append(GLXWriter.PRETTY_NODE_SEPARATOR);
+                }
+                text.append(next.get(i).text);
+            }
+            text.append(GLXWriter.PRETTY_FOOTER);
+        }
+
+        document.remove(0, document.getLength());
+        document.insertString(0, text.toString(), null);
+    }
+
+    /**
+     * Replace only the run of fragments between the unchanged prefix and suffix
+     */
+    private void patch(List<Fragment> next, Document document) throws BadLocationException {
+        int oldSize = fragments.size();
+        int newSize = next.size();
+        int limit = Math.min(oldSize, newSize);
+
+        int prefix = 0;
+        while (prefix < limit && sameText(fragments.get(prefix), next.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < limit - prefix &&
+                sameText(fragments.get(oldSize - 1 - suffix), next.get(newSize - 1 - suffix))) {
+            suffix++;
+        }
+
+        int start;
+        int end;
+        StringBuilder text = new StringBuilder();
+
+        if (suffix > 0) {
+            // Changed fragments each followed by their separator, up to the first kept one
+            start = starts[prefix];
+            end = starts[oldSize - suffix];
+            for (int i = prefix; i < newSize - suffix; i++) {
+                text.append(next.get(i).text).append(GLXWriter.PRETTY_NODE_SEPARATOR);
+            }
+        } else {
+            // Changed tail, each fragment preceded by its separator except the very first
+            start = prefix == 0 ? starts[0] : starts[prefix - 1] + fragments.get(prefix - 1).text.length();
+            end = starts[oldSize - 1] + fragments.get(oldSize - 1).text.length();
+            for (int i = prefix; i < newSize; i++) {
+                if (i > 0) {
+                    text.append(GLXWriter.PRETTY_NODE_SEPARATOR);
+                }
+                text.append(next.get(i).text);
+            }
+        }
+
+        if (end > start) {
+            document.remove(start, end - start);
+        }
+        if (text.length() > 0) {
+            document.insertString(start, text.toString(), null);
+        }
+    }
+
+    /**
+     * A re-serialized fragment often produces the same text, e.g. after sub-rounding edits
+     */
+    private static boolean sameText(Fragment a, Fragment b) {
+        return a == b || a.text.equals(b.text);
+    }
+
+    private static int[] computeStarts(List<Fragment> fragments) {
+        int[] result = new int[fragments.size()];
+        int offset = GLXWriter.PRETTY_HEADER.length();
+        for (int i = 0; i < fragments.size(); i++) {
+            result[i] = offset;
+            offset += fragments.get(i).text.length() + GLXWriter.PRETTY_NODE_SEPARATOR.length();
+        }
+        return result;
+    }
+}
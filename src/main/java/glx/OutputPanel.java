@@ -14,7 +14,7 @@ public class OutputPanel extends JPanel {
     private Scene scene;
     private JTextArea outputArea;
     private Timer updateTimer;
-    private String lastOutput = "";
+    private final IncrementalOutput output = new IncrementalOutput();
 
     public OutputPanel(Scene scene) {
         this.scene = scene;
@@ -72,7 +72,10 @@ public class OutputPanel extends JPanel {
 
         JButton clearButton = new JButton("🗑 Clear");
         clearButton.setToolTipText("Clear the output");
-        clearButton.addActionListener(e -> outputArea.setText(""));
+        clearButton.addActionListener(e -> {
+            outputArea.setText("");
+            output.invalidate();
+        });
 
         JCheckBox autoUpdateCheckbox = new JCheckBox("Auto-update", true);
         autoUpdateCheckbox.setToolTipText("Automatically refresh output");
@@ -112,34 +115,13 @@ public class OutputPanel extends JPanel {
 
     public void updateOutput() {
         try {
-            String json = GLXWriter.generateJSON(scene.getMeshes());
-
-            // Only update if content has changed to reduce flicker
-            if (!json.equals(lastOutput)) {
-                lastOutput = json;
-
-                if (json.isEmpty()) {
-                    outputArea.setText("// No meshes created yet.\n// Add a Cube or Cylinder in Stage 1 to see output.");
-                } else {
-                    // Store caret position
-                    int caretPos = outputArea.getCaretPosition();
-                    outputArea.setText(json);
-
-                    // Try to restore caret position if reasonable
-                    try {
-                        if (caretPos < outputArea.getDocument().getLength()) {
-                            outputArea.setCaretPosition(caretPos);
-                        } else {
-                            outputArea.setCaretPosition(0);
-                        }
-                    } catch (IllegalArgumentException ex) {
-                        outputArea.setCaretPosition(0);
-                    }
-                }
-            }
+            // Only the fragments of meshes that changed are re-serialized and patched into the
+            // document, the caret follows the edit so it does not need restoring
+            output.update(scene.getMeshes(), outputArea.getDocument());
         } catch (Exception ex) {
             // Silently ignore concurrent modification exceptions during update
             // They will be resolved on the next timer tick
+            output.invalidate();
             System.err.println("Error updating output (will retry): " + ex.getMessage());
         }
     }
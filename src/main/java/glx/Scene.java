@@ -1,17 +1,54 @@
 package glx;
 
 import glx.mesh.Mesh;
+import glx.render.Camera;
+import glx.render.Frustum;
+import glx.render.GLRenderBackend;
+import glx.render.InstanceBatch;
+import glx.render.InstanceBatcher;
+import glx.render.LevelOfDetail;
+import glx.render.MeshRenderer;
+import glx.render.SceneTessellator;
+import org.lwjgl.opengl.GL;
 
 import static org.lwjgl.opengl.GL11.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Scene {
-    private List<Mesh> meshes = new ArrayList<>();
-    private Mesh selectedMesh = null;
+    private final AtomicReference<SceneSnapshot> snapshot = new AtomicReference<>(SceneSnapshot.EMPTY);
     public float cameraRotationY = 45.0f;
     public float cameraRotationX = 30.0f;
     public float cameraDistance = 6.0f;
+    public boolean retainedMode = true;
+    public boolean adaptiveDetail = true;
+    public boolean instancing = true;
+    public boolean frustumCulling = true;
+    private MeshRenderer renderer = null;
+    private final Camera camera = new Camera();
+    private final InstanceBatcher batcher = new InstanceBatcher();
+    private final SceneTessellator tessellator = new SceneTessellator();
+    private final Frustum frustum = new Frustum();
+    private long frustumCameraUpdate = -1;
+    private final List<Mesh> visibleMeshes = new ArrayList<>();
+    private volatile int drawnThisFrame = 0;
+    private volatile int culledThisFrame = 0;
+
+    private final AtomicBoolean redrawRequested = new AtomicBoolean(true);
+    private volatile Runnable redrawListener = null;
+    private volatile long frameCount = 0;
+
+    private final float[] gizmoOrigin = new float[3];
+    private final float[] gizmoXEnd = new float[3];
+    private final float[] gizmoYEnd = new float[3];
+    private final float[] gizmoZEnd = new float[3];
+    private final float[] dragAxisEnd = new float[3];
 
     public int draggedAxis = -1;
     public float dragStartX = 0;
@@ -20,146 +57,384 @@ public class Scene {
     public float meshStartY = 0;
     public float meshStartZ = 0;
 
-    public synchronized void addMesh(Mesh mesh) {
-        meshes.add(mesh);
-        if (selectedMesh == null) {
-            selectedMesh = mesh;
-        }
+    public void addMesh(Mesh mesh) {
+        snapshot.updateAndGet(current -> {
+            assignUniqueIds(current, Collections.singletonList(mesh));
+            return current.withMeshAdded(mesh);
+        });
+        requestRedraw();
+    }
+
+    /**
+     * Add many meshes, published as a single change. Returns at once: their geometry
+     * is tessellated in parallel at every level of detail first, so neither the
+     * caller nor the render thread builds it. The future completes once the meshes
+     * are in the scene, on a pool thread.
+     */
+    public CompletableFuture<Void> addMeshes(List<Mesh> meshes) {
+        List<Mesh> added = new ArrayList<>(meshes);
+        return tessellator.tessellateAllLevels(added).thenRun(() -> {
+            snapshot.updateAndGet(current -> {
+                assignUniqueIds(current, added);
+                return current.withMeshesAdded(added);
+            });
+            requestRedraw();
+        });
+    }
+
+    /**
+     * Replace every mesh in the scene, published as a single change after
+     * tessellating the new meshes in parallel, like {@link #addMeshes}
+     */
+    public CompletableFuture<Void> replaceMeshes(List<Mesh> meshes) {
+        List<Mesh> replacement = new ArrayList<>(meshes);
+        return tessellator.tessellateAllLevels(replacement).thenRun(() -> {
+            assignUniqueIds(SceneSnapshot.EMPTY, replacement);
+            snapshot.updateAndGet(current -> current.withMeshesReplaced(replacement));
+            requestRedraw();
+        });
     }
 
-    public synchronized void removeMesh(Mesh mesh) {
-        meshes.remove(mesh);
-        if (selectedMesh == mesh) {
-            selectedMesh = meshes.isEmpty() ? null : meshes.get(0);
+    /**
+     * Give meshes whose id is already taken, in the scene or earlier in the list, a fresh one.
+     * Called with the snapshot the meshes are published into, and again if another change
+     * wins the race, so ids stay unique while meshes are added from several threads.
+     */
+    private static void assignUniqueIds(SceneSnapshot current, List<Mesh> added) {
+        Set<Integer> seen = added.size() > 1 ? new HashSet<>() : null;
+        for (Mesh mesh : added) {
+            Mesh existing = current.getMeshById(mesh.getId());
+            boolean clash = existing != null && existing != mesh;
+            if (seen != null && !seen.add(mesh.getId())) {
+                clash = true;
+            }
+            if (clash) {
+                mesh.setId(Mesh.nextId());
+                if (seen != null) {
+                    seen.add(mesh.getId());
+                }
+            }
         }
     }
 
-    public synchronized List<Mesh> getMeshes() {
-        return new ArrayList<>(meshes);
+    public void removeMesh(Mesh mesh) {
+        snapshot.updateAndGet(current -> current.withMeshRemoved(mesh));
+        requestRedraw();
+    }
+
+    /**
+     * The current meshes as an immutable list, safe to keep and iterate from any thread
+     */
+    public List<Mesh> getMeshes() {
+        return snapshot.get().getMeshes();
+    }
+
+    /**
+     * The mesh with an id, or null
+     */
+    public Mesh getMeshById(int id) {
+        return snapshot.get().getMeshById(id);
     }
 
     public Mesh getSelectedMesh() {
-        return selectedMesh;
+        return snapshot.get().getSelectedMesh();
     }
 
     public void setSelectedMesh(Mesh mesh) {
-        if (meshes.contains(mesh)) {
-            this.selectedMesh = mesh;
+        SceneSnapshot previous = snapshot.getAndUpdate(current -> current.withSelection(mesh));
+        if (previous.getSelectedMesh() != mesh) {
+            requestRedraw();
         }
     }
 
+    /**
+     * The latest published snapshot, changes with every add, remove or selection
+     */
+    public SceneSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Mark the scene as changed so the next loop iteration renders a frame.
+     * Safe to call from any thread, wakes the render loop through the listener.
+     */
+    public void requestRedraw() {
+        redrawRequested.set(true);
+        Runnable listener = redrawListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Returns true if a redraw was requested since the last call and clears the request
+     */
+    public boolean consumeRedrawRequest() {
+        return redrawRequested.getAndSet(false);
+    }
+
+    public void setRedrawListener(Runnable listener) {
+        this.redrawListener = listener;
+    }
+
+    /**
+     * Meshes submitted for drawing in the last frame
+     */
+    public int getDrawnMeshCount() {
+        return drawnThisFrame;
+    }
+
+    /**
+     * Meshes skipped in the last frame because they were outside the view frustum
+     */
+    public int getCulledMeshCount() {
+        return culledThisFrame;
+    }
+
+    /**
+     * Number of frames rendered so far
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
     public void setWidth(float width) {
-        if (selectedMesh != null) selectedMesh.setWidth(width);
+        Mesh selected = getSelectedMesh();
+        if (selected != null) selected.setWidth(width);
+        requestRedraw();
     }
 
     public void setLength(float length) {
-        if (selectedMesh != null) selectedMesh.setLength(length);
+        Mesh selected = getSelectedMesh();
+        if (selected != null) selected.setLength(length);
+        requestRedraw();
     }
 
     public void setHeight(float height) {
-        if (selectedMesh != null) selectedMesh.setHeight(height);
+        Mesh selected = getSelectedMesh();
+        if (selected != null) selected.setHeight(height);
+        requestRedraw();
     }
 
     public void setPositionX(float x) {
-        if (selectedMesh != null) selectedMesh.setPositionX(x);
+        Mesh selected = getSelectedMesh();
+        if (selected != null) selected.setPositionX(x);
+        requestRedraw();
     }
 
     public void setPositionY(float y) {
-        if (selectedMesh != null) selectedMesh.setPositionY(y);
+        Mesh selected = getSelectedMesh();
+        if (selected != null) selected.setPositionY(y);
+        requestRedraw();
     }
 
     public void setPositionZ(float z) {
-        if (selectedMesh != null) selectedMesh.setPositionZ(z);
+        Mesh selected = getSelectedMesh();
+        if (selected != null) selected.setPositionZ(z);
+        requestRedraw();
     }
 
     public void setRotationX(float rx) {
-        if (selectedMesh != null) selectedMesh.setRotationX(rx);
+        Mesh selected = getSelectedMesh();
+        if (selected != null) selected.setRotationX(rx);
+        requestRedraw();
     }
 
     public void setRotationY(float ry) {
-        if (selectedMesh != null) selectedMesh.setRotationY(ry);
+        Mesh selected = getSelectedMesh();
+        if (selected != null) selected.setRotationY(ry);
+        requestRedraw();
     }
 
     public void setRotationZ(float rz) {
-        if (selectedMesh != null) selectedMesh.setRotationZ(rz);
+        Mesh selected = getSelectedMesh();
+        if (selected != null) selected.setRotationZ(rz);
+        requestRedraw();
     }
 
     public float getWidth() {
-        return selectedMesh != null ? selectedMesh.getWidth() : 1.0f;
+        Mesh selected = getSelectedMesh();
+        return selected != null ? selected.getWidth() : 1.0f;
     }
 
     public float getLength() {
-        return selectedMesh != null ? selectedMesh.getLength() : 1.0f;
+        Mesh selected = getSelectedMesh();
+        return selected != null ? selected.getLength() : 1.0f;
     }
 
     public float getHeight() {
-        return selectedMesh != null ? selectedMesh.getHeight() : 1.0f;
+        Mesh selected = getSelectedMesh();
+        return selected != null ? selected.getHeight() : 1.0f;
     }
 
     public float getPositionX() {
-        return selectedMesh != null ? selectedMesh.getPositionX() : 0.0f;
+        Mesh selected = getSelectedMesh();
+        return selected != null ? selected.getPositionX() : 0.0f;
     }
 
     public float getPositionY() {
-        return selectedMesh != null ? selectedMesh.getPositionY() : 0.0f;
+        Mesh selected = getSelectedMesh();
+        return selected != null ? selected.getPositionY() : 0.0f;
     }
 
     public float getPositionZ() {
-        return selectedMesh != null ? selectedMesh.getPositionZ() : 0.0f;
+        Mesh selected = getSelectedMesh();
+        return selected != null ? selected.getPositionZ() : 0.0f;
     }
 
     public float getRotationX() {
-        return selectedMesh != null ? selectedMesh.getRotationX() : 0.0f;
+        Mesh selected = getSelectedMesh();
+        return selected != null ? selected.getRotationX() : 0.0f;
     }
 
     public float getRotationY() {
-        return selectedMesh != null ? selectedMesh.getRotationY() : 0.0f;
+        Mesh selected = getSelectedMesh();
+        return selected != null ? selected.getRotationY() : 0.0f;
     }
 
     public float getRotationZ() {
-        return selectedMesh != null ? selectedMesh.getRotationZ() : 0.0f;
+        Mesh selected = getSelectedMesh();
+        return selected != null ? selected.getRotationZ() : 0.0f;
     }
 
     public void render(int windowWidth, int windowHeight) {
         glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
 
-        glMatrixMode(GL_PROJECTION);
-        glLoadIdentity();
-
         glViewport(0, 0, windowWidth, windowHeight);
-        float aspect = (float) windowWidth / windowHeight;
-        glFrustum(-aspect, aspect, -1, 1, 2, 20);
+
+        SceneSnapshot frame = snapshot.get();
+        Mesh selectedMesh = frame.getSelectedMesh();
+        // Cull before drawing, the gizmo of the selected mesh is drawn regardless
+        List<Mesh> visibleMeshes = cull(frame.getMeshes(), windowWidth, windowHeight);
+
+        glMatrixMode(GL_PROJECTION);
+        glLoadMatrixf(camera.projection);
 
         glMatrixMode(GL_MODELVIEW);
-        glLoadIdentity();
-        glTranslatef(0.0f, 0.0f, -cameraDistance);
+        glLoadMatrixf(camera.view);
+
+        MeshRenderer activeRenderer = getRenderer();
+        if (activeRenderer != null) {
+            activeRenderer.beginFrame();
+        }
+
+        if (activeRenderer != null && instancing) {
+            drawInstanced(activeRenderer, visibleMeshes);
+            if (selectedMesh != null) {
+                glPushMatrix();
+                applyTransform(selectedMesh);
+                drawSelectionBox(selectedMesh);
+                glPopMatrix();
+            }
+        } else {
+            for (Mesh mesh : visibleMeshes) {
+                glPushMatrix();
+                applyTransform(mesh);
+
+                if (mesh == selectedMesh) {
+                    drawSelectionBox(mesh);
+                }
+
+                if (activeRenderer != null) {
+                    activeRenderer.draw(mesh);
+                } else {
+                    mesh.draw();
+                }
+                glPopMatrix();
+            }
+        }
 
-        glRotatef(cameraRotationX, 1.0f, 0.0f, 0.0f);
-        glRotatef(cameraRotationY, 0.0f, 1.0f, 0.0f);
+        if (activeRenderer != null) {
+            activeRenderer.endFrame();
+        }
 
-        List<Mesh> meshesToRender;
-        synchronized (this) {
-            meshesToRender = new ArrayList<>(meshes);
+        if (selectedMesh != null) {
+            drawGizmo(selectedMesh);
         }
 
-        for (Mesh mesh : meshesToRender) {
-            glPushMatrix();
-            glTranslatef(mesh.getPositionX(), mesh.getPositionY(), mesh.getPositionZ());
+        frameCount++;
+    }
 
-            glRotatef(mesh.getRotationX(), 1.0f, 0.0f, 0.0f);
-            glRotatef(mesh.getRotationY(), 0.0f, 1.0f, 0.0f);
-            glRotatef(mesh.getRotationZ(), 0.0f, 0.0f, 1.0f);
+    /**
+     * Update the camera for the window, pick each mesh's level of detail and
+     * return the meshes inside the view frustum. Does no GL work.
+     */
+    List<Mesh> cull(List<Mesh> meshes, int windowWidth, int windowHeight) {
+        camera.update(cameraRotationX, cameraRotationY, cameraDistance, windowWidth, windowHeight);
+        if (camera.getUpdateCount() != frustumCameraUpdate) {
+            frustum.update(camera.viewProjection);
+            frustumCameraUpdate = camera.getUpdateCount();
+        }
 
-            if (mesh == selectedMesh) {
-                drawSelectionBox(mesh);
+        visibleMeshes.clear();
+        for (Mesh mesh : meshes) {
+            if (adaptiveDetail) {
+                float pixelRadius = projectedRadius(mesh, windowHeight);
+                mesh.setLodLevel(LevelOfDetail.select(mesh.getLodLevel(), pixelRadius));
+            } else {
+                mesh.setLodLevel(0);
             }
 
-            mesh.draw();
-            glPopMatrix();
+            if (!frustumCulling || frustum.intersects(mesh.getWorldBounds())) {
+                visibleMeshes.add(mesh);
+            }
         }
+        drawnThisFrame = visibleMeshes.size();
+        culledThisFrame = meshes.size() - visibleMeshes.size();
+        return visibleMeshes;
+    }
 
-        if (selectedMesh != null) {
-            drawGizmo(selectedMesh);
+    /**
+     * Draw meshes through the retained-mode renderer, one batch per distinct geometry
+     */
+    void drawInstanced(MeshRenderer renderer, List<Mesh> meshes) {
+        for (InstanceBatch batch : batcher.build(meshes)) {
+            renderer.draw(batch);
+        }
+    }
+
+    private void applyTransform(Mesh mesh) {
+        glTranslatef(mesh.getPositionX(), mesh.getPositionY(), mesh.getPositionZ());
+
+        glRotatef(mesh.getRotationX(), 1.0f, 0.0f, 0.0f);
+        glRotatef(mesh.getRotationY(), 0.0f, 1.0f, 0.0f);
+        glRotatef(mesh.getRotationZ(), 0.0f, 0.0f, 1.0f);
+    }
+
+    /**
+     * Approximate radius in pixels of the mesh's bounding sphere on screen, using
+     * the same camera rotation, distance and frustum as render()
+     */
+    private float projectedRadius(Mesh mesh, int windowHeight) {
+        float depth = camera.viewDepth(mesh.getPositionX(), mesh.getPositionY(), mesh.getPositionZ());
+        float radius = mesh.getBoundingRadius();
+        if (depth <= radius) {
+            return Float.MAX_VALUE;
+        }
+        return radius * camera.pixelsPerUnit(depth, windowHeight);
+    }
+
+    /**
+     * The retained-mode renderer, created lazily on the GL thread. Returns null
+     * when retained mode is off or the context lacks buffer objects.
+     */
+    private MeshRenderer getRenderer() {
+        if (!retainedMode) {
+            return null;
+        }
+        if (renderer == null && GL.getCapabilities().OpenGL15) {
+            renderer = new MeshRenderer(new GLRenderBackend());
+        }
+        return renderer;
+    }
+
+    /**
+     * Release GPU resources, must be called on the GL thread before the context is destroyed
+     */
+    public void dispose() {
+        if (renderer != null) {
+            renderer.dispose();
+            renderer = null;
         }
     }
 
@@ -272,74 +547,35 @@ public class Scene {
     }
 
     public int checkGizmoHit(double mouseX, double mouseY, int windowWidth, int windowHeight) {
+        Mesh selectedMesh = getSelectedMesh();
         if (selectedMesh == null) return -1;
 
-        float[] viewport = new float[4];
-        viewport[0] = 0;
-        viewport[1] = 0;
-        viewport[2] = windowWidth;
-        viewport[3] = windowHeight;
+        camera.update(cameraRotationX, cameraRotationY, cameraDistance, windowWidth, windowHeight);
+
+        float x = selectedMesh.getPositionX();
+        float y = selectedMesh.getPositionY();
+        float z = selectedMesh.getPositionZ();
 
-        float[] origin = worldToScreen(selectedMesh.getPositionX(), selectedMesh.getPositionY(), selectedMesh.getPositionZ(), viewport);
-        float[] xEnd = worldToScreen(selectedMesh.getPositionX() + 1.0f, selectedMesh.getPositionY(), selectedMesh.getPositionZ(), viewport);
-        float[] yEnd = worldToScreen(selectedMesh.getPositionX(), selectedMesh.getPositionY() + 1.0f, selectedMesh.getPositionZ(), viewport);
-        float[] zEnd = worldToScreen(selectedMesh.getPositionX(), selectedMesh.getPositionY(), selectedMesh.getPositionZ() + 1.0f, viewport);
+        camera.project(x, y, z, windowWidth, windowHeight, gizmoOrigin);
+        camera.project(x + 1.0f, y, z, windowWidth, windowHeight, gizmoXEnd);
+        camera.project(x, y + 1.0f, z, windowWidth, windowHeight, gizmoYEnd);
+        camera.project(x, y, z + 1.0f, windowWidth, windowHeight, gizmoZEnd);
 
         float threshold = 15.0f;
 
-        if (distanceToLine(mouseX, mouseY, origin[0], origin[1], xEnd[0], xEnd[1]) < threshold) {
+        if (distanceToLine(mouseX, mouseY, gizmoOrigin[0], gizmoOrigin[1], gizmoXEnd[0], gizmoXEnd[1]) < threshold) {
             return 0;
         }
-        if (distanceToLine(mouseX, mouseY, origin[0], origin[1], yEnd[0], yEnd[1]) < threshold) {
+        if (distanceToLine(mouseX, mouseY, gizmoOrigin[0], gizmoOrigin[1], gizmoYEnd[0], gizmoYEnd[1]) < threshold) {
             return 1;
         }
-        if (distanceToLine(mouseX, mouseY, origin[0], origin[1], zEnd[0], zEnd[1]) < threshold) {
+        if (distanceToLine(mouseX, mouseY, gizmoOrigin[0], gizmoOrigin[1], gizmoZEnd[0], gizmoZEnd[1]) < threshold) {
             return 2;
         }
 
         return -1;
     }
 
-    private float[] worldToScreen(float x, float y, float z, float[] viewport) {
-        float[] model = new float[16];
-        float[] proj = new float[16];
-
-        glGetFloatv(GL_MODELVIEW_MATRIX, model);
-        glGetFloatv(GL_PROJECTION_MATRIX, proj);
-
-        float[] point = new float[4];
-        point[0] = x;
-        point[1] = y;
-        point[2] = z;
-        point[3] = 1.0f;
-
-        float[] temp = new float[4];
-        for (int i = 0; i < 4; i++) {
-            temp[i] = model[i] * point[0] + model[4 + i] * point[1] +
-                    model[8 + i] * point[2] + model[12 + i] * point[3];
-        }
-
-        float[] clip = new float[4];
-        for (int i = 0; i < 4; i++) {
-            clip[i] = proj[i] * temp[0] + proj[4 + i] * temp[1] +
-                    proj[8 + i] * temp[2] + proj[12 + i] * temp[3];
-        }
-
-        if (clip[3] == 0.0f) clip[3] = 1.0f;
-
-        float[] ndc = new float[3];
-        ndc[0] = clip[0] / clip[3];
-        ndc[1] = clip[1] / clip[3];
-        ndc[2] = clip[2] / clip[3];
-
-        float[] screen = new float[3];
-        screen[0] = viewport[0] + viewport[2] * (ndc[0] + 1.0f) / 2.0f;
-        screen[1] = viewport[1] + viewport[3] * (1.0f - (ndc[1] + 1.0f) / 2.0f);
-        screen[2] = (ndc[2] + 1.0f) / 2.0f;
-
-        return screen;
-    }
-
     private float distanceToLine(double px, double py, float x1, float y1, float x2, float y2) {
         float A = (float)px - x1;
         float B = (float)py - y1;
@@ -373,23 +609,46 @@ public class Scene {
     }
 
     public void updateMeshPosition(double mouseX, double mouseY, int windowWidth, int windowHeight) {
+        Mesh selectedMesh = getSelectedMesh();
         if (selectedMesh == null || draggedAxis == -1) return;
 
         float deltaX = (float)(mouseX - dragStartX);
         float deltaY = (float)(mouseY - dragStartY);
 
-        float sensitivity = 0.01f;
+        // Move along the dragged axis by how far the mouse travelled along its on-screen
+        // direction, so the handle stays under the cursor from any camera angle
+        camera.update(cameraRotationX, cameraRotationY, cameraDistance, windowWidth, windowHeight);
+        camera.project(meshStartX, meshStartY, meshStartZ, windowWidth, windowHeight, gizmoOrigin);
+        boolean inFront = camera.project(
+                meshStartX + (draggedAxis == 0 ? 1.0f : 0.0f),
+                meshStartY + (draggedAxis == 1 ? 1.0f : 0.0f),
+                meshStartZ + (draggedAxis == 2 ? 1.0f : 0.0f),
+                windowWidth, windowHeight, dragAxisEnd);
+
+        float axisX = dragAxisEnd[0] - gizmoOrigin[0];
+        float axisY = dragAxisEnd[1] - gizmoOrigin[1];
+        float lenSq = axisX * axisX + axisY * axisY;
+
+        float offset;
+        if (inFront && lenSq > 1.0f) {
+            offset = (deltaX * axisX + deltaY * axisY) / lenSq;
+        } else {
+            // Axis points almost straight at the camera, fall back to a fixed screen sensitivity
+            float sensitivity = 0.01f;
+            offset = (draggedAxis == 1 ? -deltaY : deltaX) * sensitivity;
+        }
 
         switch (draggedAxis) {
             case 0:
-                selectedMesh.setPositionX(meshStartX + deltaX * sensitivity);
+                selectedMesh.setPositionX(meshStartX + offset);
                 break;
             case 1:
-                selectedMesh.setPositionY(meshStartY - deltaY * sensitivity);
+                selectedMesh.setPositionY(meshStartY + offset);
                 break;
             case 2:
-                selectedMesh.setPositionZ(meshStartZ + deltaX * sensitivity);
+                selectedMesh.setPositionZ(meshStartZ + offset);
                 break;
         }
+        requestRedraw();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package glx;
+
+import glx.mesh.Mesh;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the scene's mesh list and selection. Scene publishes a new
+ * snapshot for every structural change, so readers such as the render loop can
+ * iterate one without locking or copying.
+ */
+public final class SceneSnapshot {
+    public static final SceneSnapshot EMPTY = new SceneSnapshot(Collections.emptyList(), null, 0);
+
+    private final List<Mesh> meshes;
+    private final Mesh selectedMesh;
+    private final long version;
+    // Built on first lookup, immutable once published
+    private volatile Map<Integer, Mesh> meshesById;
+
+    private SceneSnapshot(List<Mesh> meshes, Mesh selectedMesh, long version) {
+        this.meshes = meshes;
+        this.selectedMesh = selectedMesh;
+        this.version = version;
+    }
+
+    public List<Mesh> getMeshes() { return meshes; }
+    public Mesh getSelectedMesh() { return selectedMesh; }
+    public long getVersion() { return version; }
+
+    /**
+     * The mesh with an id, or null. The index is built once per snapshot.
+     */
+    public Mesh getMeshById(int id) {
+        Map<Integer, Mesh> index = meshesById;
+        if (index == null) {
+            index = new HashMap<>(meshes.size() * 4 / 3 + 1);
+            for (Mesh mesh : meshes) {
+                index.putIfAbsent(mesh.getId(), mesh);
+            }
+            meshesById = index;
+        }
+        return index.get(id);
+    }
+
+    public SceneSnapshot withMeshAdded(Mesh mesh) {
+        List<Mesh> updated = new ArrayList<>(meshes.size() + 1);
+        updated.addAll(meshes);
+        updated.add(mesh);
+        return new SceneSnapshot(Collections.unmodifiableList(updated),
+                selectedMesh == null ? mesh : selectedMesh, version + 1);
+    }
+
+    /**
+     * Append several meshes as one change; selects the first of them if nothing is selected
+     */
+    public SceneSnapshot withMeshesAdded(List<Mesh> added) {
+        if (added.isEmpty()) {
+            return this;
+        }
+        List<Mesh> updated = new ArrayList<>(meshes.size() + added.size());
+        updated.addAll(meshes);
+        updated.addAll(added);
+        return new SceneSnapshot(Collections.unmodifiableList(updated),
+                selectedMesh == null ? added.get(0) : selectedMesh, version + 1);
+    }
+
+    /**
+     * Replace all meshes as one change; selects the first new mesh
+     */
+    public SceneSnapshot withMeshesReplaced(List<Mesh> replacement) {
+        List<Mesh> updated = new ArrayList<>(replacement);
+        return new SceneSnapshot(Collections.unmodifiableList(updated),
+                updated.isEmpty() ? null : updated.get(0), version + 1);
+    }
+
+    public SceneSnapshot withMeshRemoved(Mesh mesh) {
+        int index = meshes.indexOf(mesh);
+        if (index < 0) {
+            return this;
+        }
+
+        List<Mesh> updated = new ArrayList<>(meshes);
+        updated.remove(index);
+        Mesh selected = selectedMesh;
+        if (selected == mesh) {
+            selected = updated.isEmpty() ? null : updated.get(0);
+        }
+        return new SceneSnapshot(Collections.unmodifiableList(updated), selected, version + 1);
+    }
+
+    /**
+     * Select a mesh, returns this snapshot unchanged if the mesh is not in the scene
+     */
+    public SceneSnapshot withSelection(Mesh mesh) {
+        if (mesh == selectedMesh || !meshes.contains(mesh)) {
+            return this;
+        }
+        return new SceneSnapshot(meshes, mesh, version + 1);
+    }
+}
@@ -0,0 +1,106 @@
+package glx;
+
+import static org.lwjgl.glfw.GLFW.*;
+
+/**
+ * Window, framebuffer and cursor state, kept up to date by the GLFW callbacks
+ * in GLX so input handling and the render loop never query GLFW or allocate.
+ * Only plain fields and Scene calls, so it works without a window.
+ * Must only be used from the thread that polls events.
+ */
+public class WindowInput {
+    private final Scene scene;
+
+    private int windowWidth;
+    private int windowHeight;
+    private int framebufferWidth;
+    private int framebufferHeight;
+    private double cursorX;
+    private double cursorY;
+    private double lastMouseX;
+    private double lastMouseY;
+    private boolean isDragging = false;
+    private boolean isGizmoDragging = false;
+
+    public WindowInput(Scene scene) {
+        this.scene = scene;
+    }
+
+    public void onWindowSize(int width, int height) {
+        windowWidth = width;
+        windowHeight = height;
+    }
+
+    public void onFramebufferSize(int width, int height) {
+        framebufferWidth = width;
+        framebufferHeight = height;
+        scene.requestRedraw();
+    }
+
+    public void onMouseButton(int button, int action) {
+        if (button != GLFW_MOUSE_BUTTON_LEFT) {
+            return;
+        }
+        if (action == GLFW_PRESS) {
+            int hitAxis = scene.checkGizmoHit(cursorX, cursorY, windowWidth, windowHeight);
+
+            if (hitAxis != -1) {
+                isGizmoDragging = true;
+                scene.draggedAxis = hitAxis;
+                scene.dragStartX = (float)cursorX;
+                scene.dragStartY = (float)cursorY;
+
+                if (scene.getSelectedMesh() != null) {
+                    scene.meshStartX = scene.getSelectedMesh().getPositionX();
+                    scene.meshStartY = scene.getSelectedMesh().getPositionY();
+                    scene.meshStartZ = scene.getSelectedMesh().getPositionZ();
+                }
+            } else {
+                isDragging = true;
+                lastMouseX = cursorX;
+                lastMouseY = cursorY;
+            }
+        } else if (action == GLFW_RELEASE) {
+            isDragging = false;
+            isGizmoDragging = false;
+            scene.draggedAxis = -1;
+        }
+        scene.requestRedraw();
+    }
+
+    public void onCursorPos(double x, double y) {
+        cursorX = x;
+        cursorY = y;
+
+        if (isGizmoDragging) {
+            scene.updateMeshPosition(x, y, windowWidth, windowHeight);
+        } else if (isDragging) {
+            double deltaX = x - lastMouseX;
+            double deltaY = y - lastMouseY;
+
+            scene.cameraRotationY += (float) deltaX * 0.5f;
+            scene.cameraRotationX += (float) deltaY * 0.5f;
+
+            scene.cameraRotationX = Math.max(-89.0f, Math.min(89.0f, scene.cameraRotationX));
+
+            lastMouseX = x;
+            lastMouseY = y;
+            scene.requestRedraw();
+        }
+    }
+
+    public void onScroll(double yOffset) {
+        scene.cameraDistance -= (float) yOffset * 0.5f;
+        scene.cameraDistance = Math.max(3.0f, Math.min(15.0f, scene.cameraDistance));
+        scene.requestRedraw();
+    }
+
+    public int getWindowWidth() { return windowWidth; }
+    public int getWindowHeight() { return windowHeight; }
+    public int getFramebufferWidth() { return framebufferWidth; }
+    public int getFramebufferHeight() { return framebufferHeight; }
+    public double getCursorX() { return cursorX; }
+    public double getCursorY() { return cursorY; }
+    public boolean isDragging() { return isDragging; }
+    public boolean isGizmoDragging() { return isGizmoDragging; }
+}
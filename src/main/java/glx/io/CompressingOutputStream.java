@@ -0,0 +1,128 @@
+package glx.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import static org.lwjgl.system.MemoryUtil.memAlloc;
+import static org.lwjgl.system.MemoryUtil.memFree;
+
+/**
+ * Base for output streams that collect bytes in an off-heap buffer, hand it to
+ * a native compressor and write the compressed output straight to a channel.
+ * Closing finishes the compressed frame and frees native memory; the channel
+ * is left open.
+ */
+abstract class CompressingOutputStream extends OutputStream {
+    private final WritableByteChannel channel;
+    protected final ByteBuffer input;
+    protected final ByteBuffer output;
+    private boolean closed;
+
+    protected CompressingOutputStream(WritableByteChannel channel, int inputSize, int outputSize) {
+        this.channel = channel;
+        this.input = memAlloc(inputSize);
+        this.output = memAlloc(outputSize);
+    }
+
+    /**
+     * Compress the input buffer, which is flipped for reading, and drain the output
+     */
+    protected abstract void compress() throws IOException;
+
+    /**
+     * Write out everything the compressor holds so far without ending the frame
+     */
+    protected abstract void flushCompressor() throws IOException;
+
+    /**
+     * Write the end of the frame
+     */
+    protected abstract void finish() throws IOException;
+
+    /**
+     * Release the native compressor
+     */
+    protected abstract void free();
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (!input.hasRemaining()) {
+            compressInput();
+        }
+        input.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        while (length > 0) {
+            if (!input.hasRemaining()) {
+                compressInput();
+            }
+            int chunk = Math.min(length, input.remaining());
+            input.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        compressInput();
+        flushCompressor();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            compressInput();
+            finish();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Free everything without writing, for failures while setting up the compressor
+     */
+    protected void release() {
+        closed = true;
+        free();
+        memFree(input);
+        memFree(output);
+    }
+
+    /**
+     * Write the first count bytes of the output buffer to the channel and clear it
+     */
+    protected void drain(int count) throws IOException {
+        output.position(0).limit(count);
+        while (output.hasRemaining()) {
+            channel.write(output);
+        }
+        output.clear();
+    }
+
+    private void compressInput() throws IOException {
+        if (input.position() == 0) {
+            return;
+        }
+        input.flip();
+        compress();
+        input.clear();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
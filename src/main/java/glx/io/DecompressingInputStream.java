@@ -0,0 +1,115 @@
+package glx.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import static org.lwjgl.system.MemoryUtil.memAlloc;
+import static org.lwjgl.system.MemoryUtil.memFree;
+
+/**
+ * Base for input streams that read compressed bytes from a channel into an
+ * off-heap buffer and decompress them natively into a second one, from which
+ * callers copy. Closing frees native memory; the channel is left open.
+ */
+abstract class DecompressingInputStream extends InputStream {
+    private final ReadableByteChannel channel;
+    protected final ByteBuffer input;
+    protected final ByteBuffer output;
+    private boolean outputFull;
+    private boolean frameIncomplete;
+    private boolean closed;
+
+    protected DecompressingInputStream(ReadableByteChannel channel, int inputSize, int outputSize) {
+        this.channel = channel;
+        this.input = memAlloc(inputSize);
+        this.output = memAlloc(outputSize);
+        input.limit(0);
+        output.limit(0);
+    }
+
+    /**
+     * Decompress from the input buffer's position into the cleared output buffer,
+     * advancing the input and leaving the output's position after the bytes written.
+     * Returns whether the current frame still expects more input.
+     */
+    protected abstract boolean decompress() throws IOException;
+
+    /**
+     * Release the native decompressor
+     */
+    protected abstract void free();
+
+    /**
+     * Name used in error messages
+     */
+    protected abstract String formatName();
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return output.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(length, output.remaining());
+        output.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return closed ? 0 : output.remaining();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        free();
+        memFree(input);
+        memFree(output);
+    }
+
+    /**
+     * Make decompressed bytes available, false at the end of the stream
+     */
+    private boolean fill() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (!output.hasRemaining()) {
+            // A full output buffer means the decompressor may still hold data without new input
+            if (!input.hasRemaining() && !outputFull) {
+                input.clear();
+                int read = channel.read(input);
+                input.flip();
+                if (read < 0) {
+                    if (frameIncomplete) {
+                        throw new EOFException("Truncated " + formatName() + " stream");
+                    }
+                    return false;
+                }
+            }
+
+            output.clear();
+            frameIncomplete = decompress();
+            outputFull = !output.hasRemaining();
+            output.flip();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,69 @@
+package glx.io;
+
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.util.lz4.LZ4FDecompressOptions;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
+import static glx.io.LZ4FrameOutputStream.check;
+import static org.lwjgl.system.MemoryUtil.memAllocPointer;
+import static org.lwjgl.system.MemoryUtil.memFree;
+import static org.lwjgl.util.lz4.LZ4Frame.*;
+
+/**
+ * Reads LZ4 frames from a channel through the bundled native lz4 library
+ */
+public class LZ4FrameInputStream extends DecompressingInputStream {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final long context;
+    private final PointerBuffer outputSize = memAllocPointer(1);
+    private final PointerBuffer inputSize = memAllocPointer(1);
+    private final LZ4FDecompressOptions options = LZ4FDecompressOptions.calloc();
+
+    public LZ4FrameInputStream(ReadableByteChannel channel) throws IOException {
+        super(channel, BUFFER_SIZE, BUFFER_SIZE);
+
+        long created;
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            PointerBuffer pointer = stack.mallocPointer(1);
+            long result = LZ4F_createDecompressionContext(pointer, LZ4F_VERSION);
+            created = LZ4F_isError(result) ? 0 : pointer.get(0);
+        }
+        context = created;
+
+        if (context == 0) {
+            close();
+            throw new IOException("Could not create lz4 decompression context");
+        }
+    }
+
+    @Override
+    protected boolean decompress() throws IOException {
+        // In: bytes available in each buffer, out: bytes consumed and produced
+        outputSize.put(0, output.remaining());
+        inputSize.put(0, input.remaining());
+
+        long hint = check(LZ4F_decompress(context, output, outputSize, input, inputSize, options));
+        input.position(input.position() + (int) inputSize.get(0));
+        output.position(output.position() + (int) outputSize.get(0));
+        return hint != 0;
+    }
+
+    @Override
+    protected void free() {
+        if (context != 0) {
+            LZ4F_freeDecompressionContext(context);
+        }
+        memFree(outputSize);
+        memFree(inputSize);
+        options.free();
+    }
+
+    @Override
+    protected String formatName() {
+        return "lz4";
+    }
+}
@@ -0,0 +1,86 @@
+package glx.io;
+
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.util.lz4.LZ4FPreferences;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+import static org.lwjgl.util.lz4.LZ4Frame.*;
+
+/**
+ * Writes an LZ4 frame to a channel through the bundled native lz4 library
+ */
+public class LZ4FrameOutputStream extends CompressingOutputStream {
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private final long context;
+    private final LZ4FPreferences preferences;
+
+    public LZ4FrameOutputStream(WritableByteChannel channel, int level) throws IOException {
+        this(channel, createPreferences(level));
+    }
+
+    private LZ4FrameOutputStream(WritableByteChannel channel, LZ4FPreferences preferences) throws IOException {
+        // The bound covers one block plus anything buffered, the flush and the frame end
+        super(channel, BLOCK_SIZE,
+                (int) Math.max(LZ4F_compressBound(BLOCK_SIZE, preferences), LZ4F_HEADER_SIZE_MAX));
+        this.preferences = preferences;
+
+        long created;
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            PointerBuffer pointer = stack.mallocPointer(1);
+            long result = LZ4F_createCompressionContext(pointer, LZ4F_VERSION);
+            created = LZ4F_isError(result) ? 0 : pointer.get(0);
+        }
+        context = created;
+
+        try {
+            if (context == 0) {
+                throw new IOException("Could not create lz4 compression context");
+            }
+            drain((int) check(LZ4F_compressBegin(context, output, preferences)));
+        } catch (IOException e) {
+            release();
+            throw e;
+        }
+    }
+
+    private static LZ4FPreferences createPreferences(int level) {
+        LZ4FPreferences preferences = LZ4FPreferences.calloc();
+        preferences.compressionLevel(level);
+        preferences.frameInfo().blockSizeID(LZ4F_max64KB);
+        return preferences;
+    }
+
+    @Override
+    protected void compress() throws IOException {
+        drain((int) check(LZ4F_compressUpdate(context, output, input, null)));
+    }
+
+    @Override
+    protected void flushCompressor() throws IOException {
+        drain((int) check(LZ4F_flush(context, output, null)));
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        drain((int) check(LZ4F_compressEnd(context, output, null)));
+    }
+
+    @Override
+    protected void free() {
+        if (context != 0) {
+            LZ4F_freeCompressionContext(context);
+        }
+        preferences.free();
+    }
+
+    static long check(long result) throws IOException {
+        if (LZ4F_isError(result)) {
+            throw new IOException("lz4: " + LZ4F_getErrorName(result));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package glx.io;
+
+import org.lwjgl.util.zstd.ZSTDInBuffer;
+import org.lwjgl.util.zstd.ZSTDOutBuffer;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
+import static glx.io.ZstdOutputStream.check;
+import static org.lwjgl.util.zstd.Zstd.*;
+
+/**
+ * Reads zstd frames from a channel through the bundled native zstd library
+ */
+public class ZstdInputStream extends DecompressingInputStream {
+    private final long context;
+    private final ZSTDInBuffer inBuffer = ZSTDInBuffer.calloc();
+    private final ZSTDOutBuffer outBuffer = ZSTDOutBuffer.calloc();
+
+    public ZstdInputStream(ReadableByteChannel channel) throws IOException {
+        super(channel, (int) ZSTD_DStreamInSize(), (int) ZSTD_DStreamOutSize());
+        context = ZSTD_createDCtx();
+        if (context == 0) {
+            close();
+            throw new IOException("Could not create zstd decompression context");
+        }
+    }
+
+    @Override
+    protected boolean decompress() throws IOException {
+        inBuffer.src(input).pos(0);
+        outBuffer.dst(output).pos(0);
+        long hint = check(ZSTD_decompressStream(context, outBuffer, inBuffer));
+        input.position(input.position() + (int) inBuffer.pos());
+        output.position((int) outBuffer.pos());
+        return hint != 0;
+    }
+
+    @Override
+    protected void free() {
+        if (context != 0) {
+            ZSTD_freeDCtx(context);
+        }
+        inBuffer.free();
+        outBuffer.free();
+    }
+
+    @Override
+    protected String formatName() {
+        return "zstd";
+    }
+}
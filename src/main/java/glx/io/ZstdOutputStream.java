@@ -0,0 +1,84 @@
+package glx.io;
+
+import org.lwjgl.util.zstd.ZSTDInBuffer;
+import org.lwjgl.util.zstd.ZSTDOutBuffer;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+import static org.lwjgl.util.zstd.Zstd.*;
+
+/**
+ * Writes a zstd frame to a channel through the bundled native zstd library
+ */
+public class ZstdOutputStream extends CompressingOutputStream {
+    private final long context;
+    private final ZSTDInBuffer inBuffer = ZSTDInBuffer.calloc();
+    private final ZSTDOutBuffer outBuffer = ZSTDOutBuffer.calloc();
+
+    public ZstdOutputStream(WritableByteChannel channel, int level) throws IOException {
+        super(channel, (int) ZSTD_CStreamInSize(), (int) ZSTD_CStreamOutSize());
+        context = ZSTD_createCCtx();
+        if (context == 0) {
+            release();
+            throw new IOException("Could not create zstd compression context");
+        }
+        try {
+            check(ZSTD_CCtx_setParameter(context, ZSTD_c_compressionLevel, level));
+        } catch (IOException e) {
+            release();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void compress() throws IOException {
+        inBuffer.src(input).pos(0);
+        do {
+            outBuffer.dst(output).pos(0);
+            check(ZSTD_compressStream2(context, outBuffer, inBuffer, ZSTD_e_continue));
+            drain((int) outBuffer.pos());
+        } while (inBuffer.pos() < inBuffer.size());
+    }
+
+    @Override
+    protected void flushCompressor() throws IOException {
+        endDirective(ZSTD_e_flush);
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        endDirective(ZSTD_e_end);
+    }
+
+    /**
+     * Repeat a flush or end directive until zstd reports nothing left to write
+     */
+    private void endDirective(int directive) throws IOException {
+        input.clear().limit(0);
+        inBuffer.src(input).pos(0);
+        long remaining;
+        do {
+            outBuffer.dst(output).pos(0);
+            remaining = check(ZSTD_compressStream2(context, outBuffer, inBuffer, directive));
+            drain((int) outBuffer.pos());
+        } while (remaining != 0);
+        input.clear();
+    }
+
+    @Override
+    protected void free() {
+        if (context != 0) {
+            ZSTD_freeCCtx(context);
+        }
+        inBuffer.free();
+        outBuffer.free();
+    }
+
+    static long check(long result) throws IOException {
+        if (ZSTD_isError(result)) {
+            throw new IOException("zstd: " + ZSTD_getErrorName(result));
+        }
+        return result;
+    }
+}
@@ -1,5 +1,6 @@
 package glx.mesh;
 
+import glx.render.GeometrySink;
 import glx.shape.PlaneShape;
 import static org.lwjgl.opengl.GL11.*;
 
@@ -10,74 +11,74 @@ public class CubeMesh extends Mesh {
     }
 
     @Override
-    public void draw() {
+    public void draw(GeometrySink sink, int level) {
         float w = width / 2.0f;
         float l = length / 2.0f;
         float h = height / 2.0f;
 
-        glColor3f(0.6f, 0.6f, 0.6f);
-        glBegin(GL_QUADS);
+        sink.color(0.6f, 0.6f, 0.6f);
+        sink.begin(GL_QUADS);
 
-        glVertex3f(-w, -h, l);
-        glVertex3f(w, -h, l);
-        glVertex3f(w, h, l);
-        glVertex3f(-w, h, l);
+        sink.vertex(-w, -h, l);
+        sink.vertex(w, -h, l);
+        sink.vertex(w, h, l);
+        sink.vertex(-w, h, l);
 
-        glVertex3f(-w, -h, -l);
-        glVertex3f(-w, h, -l);
-        glVertex3f(w, h, -l);
-        glVertex3f(w, -h, -l);
+        sink.vertex(-w, -h, -l);
+        sink.vertex(-w, h, -l);
+        sink.vertex(w, h, -l);
+        sink.vertex(w, -h, -l);
 
-        glVertex3f(-w, h, -l);
-        glVertex3f(-w, h, l);
-        glVertex3f(w, h, l);
-        glVertex3f(w, h, -l);
+        sink.vertex(-w, h, -l);
+        sink.vertex(-w, h, l);
+        sink.vertex(w, h, l);
+        sink.vertex(w, h, -l);
 
-        glVertex3f(-w, -h, -l);
-        glVertex3f(w, -h, -l);
-        glVertex3f(w, -h, l);
-        glVertex3f(-w, -h, l);
+        sink.vertex(-w, -h, -l);
+        sink.vertex(w, -h, -l);
+        sink.vertex(w, -h, l);
+        sink.vertex(-w, -h, l);
 
-        glVertex3f(w, -h, -l);
-        glVertex3f(w, h, -l);
-        glVertex3f(w, h, l);
-        glVertex3f(w, -h, l);
+        sink.vertex(w, -h, -l);
+        sink.vertex(w, h, -l);
+        sink.vertex(w, h, l);
+        sink.vertex(w, -h, l);
 
-        glVertex3f(-w, -h, -l);
-        glVertex3f(-w, -h, l);
-        glVertex3f(-w, h, l);
-        glVertex3f(-w, h, -l);
+        sink.vertex(-w, -h, -l);
+        sink.vertex(-w, -h, l);
+        sink.vertex(-w, h, l);
+        sink.vertex(-w, h, -l);
 
-        glEnd();
+        sink.end();
 
-        drawEdges(w, l, h);
+        drawEdges(sink, w, l, h);
 
         for (PlaneShape shape : shapes) {
-            shape.draw(this);
+            shape.draw(this, sink, level);
         }
     }
 
-    private void drawEdges(float w, float l, float h) {
-        glColor3f(0, 0, 0);
-        glLineWidth(2);
-        glBegin(GL_LINES);
+    private void drawEdges(GeometrySink sink, float w, float l, float h) {
+        sink.color(0, 0, 0);
+        sink.lineWidth(2);
+        sink.begin(GL_LINES);
 
-        glVertex3f(-w, -h, -l); glVertex3f(w, -h, -l);
-        glVertex3f(w, -h, -l); glVertex3f(w, -h, l);
-        glVertex3f(w, -h, l); glVertex3f(-w, -h, l);
-        glVertex3f(-w, -h, l); glVertex3f(-w, -h, -l);
+        sink.vertex(-w, -h, -l); sink.vertex(w, -h, -l);
+        sink.vertex(w, -h, -l); sink.vertex(w, -h, l);
+        sink.vertex(w, -h, l); sink.vertex(-w, -h, l);
+        sink.vertex(-w, -h, l); sink.vertex(-w, -h, -l);
 
-        glVertex3f(-w, h, -l); glVertex3f(w, h, -l);
-        glVertex3f(w, h, -l); glVertex3f(w, h, l);
-        glVertex3f(w, h, l); glVertex3f(-w, h, l);
-        glVertex3f(-w, h, l); glVertex3f(-w, h, -l);
+        sink.vertex(-w, h, -l); sink.vertex(w, h, -l);
+        sink.vertex(w, h, -l); sink.vertex(w, h, l);
+        sink.vertex(w, h, l); sink.vertex(-w, h, l);
+        sink.vertex(-w, h, l); sink.vertex(-w, h, -l);
 
-        glVertex3f(-w, -h, -l); glVertex3f(-w, h, -l);
-        glVertex3f(w, -h, -l); glVertex3f(w, h, -l);
-        glVertex3f(w, -h, l); glVertex3f(w, h, l);
-        glVertex3f(-w, -h, l); glVertex3f(-w, h, l);
+        sink.vertex(-w, -h, -l); sink.vertex(-w, h, -l);
+        sink.vertex(w, -h, -l); sink.vertex(w, h, -l);
+        sink.vertex(w, -h, l); sink.vertex(w, h, l);
+        sink.vertex(-w, -h, l); sink.vertex(-w, h, l);
 
-        glEnd();
+        sink.end();
     }
 
     @Override
@@ -1,5 +1,8 @@
 package glx.mesh;
 
+import glx.render.CircleTable;
+import glx.render.GeometrySink;
+import glx.render.LevelOfDetail;
 import glx.shape.PlaneShape;
 import static org.lwjgl.opengl.GL11.*;
 
@@ -11,81 +14,91 @@ public class CylinderMesh extends Mesh {
     }
 
     @Override
-    public void draw() {
+    public void draw(GeometrySink sink, int level) {
         float radius = width / 2.0f;
         float h = height / 2.0f;
-
-        glColor3f(0.6f, 0.6f, 0.6f);
-
-        glBegin(GL_TRIANGLE_FAN);
-        glVertex3f(0, h, 0);
-        for (int i = 0; i <= SEGMENTS; i++) {
-            float angle = (float) (2 * Math.PI * i / SEGMENTS);
-            float x = radius * (float) Math.cos(angle);
-            float z = radius * (float) Math.sin(angle);
-            glVertex3f(x, h, z);
+        int segments = LevelOfDetail.segments(SEGMENTS, level);
+        CircleTable circle = CircleTable.of(segments);
+
+        sink.color(0.6f, 0.6f, 0.6f);
+
+        // Counter-clockwise seen from outside, so tessellated normals point outwards
+        sink.begin(GL_TRIANGLE_FAN);
+        sink.vertex(0, h, 0);
+        for (int i = segments; i >= 0; i--) {
+            float x = radius * circle.cos(i);
+            float z = radius * circle.sin(i);
+            sink.vertex(x, h, z);
         }
-        glEnd();
-
-        glBegin(GL_TRIANGLE_FAN);
-        glVertex3f(0, -h, 0);
-        for (int i = SEGMENTS; i >= 0; i--) {
-            float angle = (float) (2 * Math.PI * i / SEGMENTS);
-            float x = radius * (float) Math.cos(angle);
-            float z = radius * (float) Math.sin(angle);
-            glVertex3f(x, -h, z);
+        sink.end();
+
+        sink.begin(GL_TRIANGLE_FAN);
+        sink.vertex(0, -h, 0);
+        for (int i = 0; i <= segments; i++) {
+            float x = radius * circle.cos(i);
+            float z = radius * circle.sin(i);
+            sink.vertex(x, -h, z);
         }
-        glEnd();
+        sink.end();
 
-        glBegin(GL_QUAD_STRIP);
-        for (int i = 0; i <= SEGMENTS; i++) {
-            float angle = (float) (2 * Math.PI * i / SEGMENTS);
-            float x = radius * (float) Math.cos(angle);
-            float z = radius * (float) Math.sin(angle);
+        sink.begin(GL_QUAD_STRIP);
+        for (int i = 0; i <= segments; i++) {
+            float x = radius * circle.cos(i);
+            float z = radius * circle.sin(i);
 
-            glVertex3f(x, h, z);
-            glVertex3f(x, -h, z);
+            sink.vertex(x, -h, z);
+            sink.vertex(x, h, z);
         }
-        glEnd();
+        sink.end();
 
-        drawEdges(radius, h);
+        drawEdges(sink, radius, h, segments);
 
         for (PlaneShape shape : shapes) {
-            shape.draw(this);
+            shape.draw(this, sink, level);
         }
     }
 
-    private void drawEdges(float radius, float h) {
-        glColor3f(0, 0, 0);
-        glLineWidth(2);
+    private void drawEdges(GeometrySink sink, float radius, float h, int segments) {
+        CircleTable circle = CircleTable.of(segments);
+        CircleTable quarters = CircleTable.of(4);
+
+        sink.color(0, 0, 0);
+        sink.lineWidth(2);
 
-        glBegin(GL_LINE_LOOP);
-        for (int i = 0; i < SEGMENTS; i++) {
-            float angle = (float) (2 * Math.PI * i / SEGMENTS);
-            float x = radius * (float) Math.cos(angle);
-            float z = radius * (float) Math.sin(angle);
-            glVertex3f(x, h, z);
+        sink.begin(GL_LINE_LOOP);
+        for (int i = 0; i < segments; i++) {
+            float x = radius * circle.cos(i);
+            float z = radius * circle.sin(i);
+            sink.vertex(x, h, z);
         }
-        glEnd();
-
-        glBegin(GL_LINE_LOOP);
-        for (int i = 0; i < SEGMENTS; i++) {
-            float angle = (float) (2 * Math.PI * i / SEGMENTS);
-            float x = radius * (float) Math.cos(angle);
-            float z = radius * (float) Math.sin(angle);
-            glVertex3f(x, -h, z);
+        sink.end();
+
+        sink.begin(GL_LINE_LOOP);
+        for (int i = 0; i < segments; i++) {
+            float x = radius * circle.cos(i);
+            float z = radius * circle.sin(i);
+            sink.vertex(x, -h, z);
         }
-        glEnd();
+        sink.end();
 
-        glBegin(GL_LINES);
+        sink.begin(GL_LINES);
         for (int i = 0; i < 4; i++) {
-            float angle = (float) (2 * Math.PI * i / 4);
-            float x = radius * (float) Math.cos(angle);
-            float z = radius * (float) Math.sin(angle);
-            glVertex3f(x, h, z);
-            glVertex3f(x, -h, z);
+            float x = radius * quarters.cos(i);
+            float z = radius * quarters.sin(i);
+            sink.vertex(x, h, z);
+            sink.vertex(x, -h, z);
         }
-        glEnd();
+        sink.end();
+    }
+
+    @Override
+    public boolean hasLevelOfDetail() {
+        return true;
+    }
+
+    @Override
+    protected float[] getGeometryParameters() {
+        return new float[] { width, height };
     }
 
     @Override
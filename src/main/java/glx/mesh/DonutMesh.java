@@ -1,5 +1,10 @@
 package glx.mesh;
 
+import glx.render.CircleTable;
+import glx.render.GeometrySink;
+import glx.render.LevelOfDetail;
+import glx.render.PointArrays;
+import glx.render.VertexKernels;
 import glx.shape.PlaneShape;
 import static org.lwjgl.opengl.GL11.*;
 
@@ -7,6 +12,9 @@ public class DonutMesh extends Mesh {
     private static final int MAJOR_SEGMENTS = 32;
     private static final int MINOR_SEGMENTS = 16;
 
+    // Torus grid scratch per tessellating thread
+    private static final ThreadLocal<PointArrays> GRID = ThreadLocal.withInitial(() -> new PointArrays(1024));
+
     public float innerRadius = 0.3f;
     public float outerRadius = 0.7f;
 
@@ -19,7 +27,10 @@ public class DonutMesh extends Mesh {
     }
 
     public void setInnerRadius(float innerRadius) {
-        this.innerRadius = innerRadius;
+        if (Float.compare(this.innerRadius, innerRadius) != 0) {
+            this.innerRadius = innerRadius;
+            invalidateGeometry();
+        }
     }
 
     public float getOuterRadius() {
@@ -27,73 +38,84 @@ public class DonutMesh extends Mesh {
     }
 
     public void setOuterRadius(float outerRadius) {
-        this.outerRadius = outerRadius;
+        if (Float.compare(this.outerRadius, outerRadius) != 0) {
+            this.outerRadius = outerRadius;
+            invalidateGeometry();
+        }
     }
 
     @Override
-    public void draw() {
+    public void draw(GeometrySink sink, int level) {
         float majorRadius = (outerRadius + innerRadius) / 2.0f;
         float minorRadius = (outerRadius - innerRadius) / 2.0f;
-
-        glColor3f(0.6f, 0.6f, 0.6f);
-
-        for (int i = 0; i < MAJOR_SEGMENTS; i++) {
-            glBegin(GL_QUAD_STRIP);
-            for (int j = 0; j <= MINOR_SEGMENTS; j++) {
-                for (int k = 0; k <= 1; k++) {
-                    float u = (float)(i + k) / MAJOR_SEGMENTS * 2.0f * (float)Math.PI;
-                    float v = (float)j / MINOR_SEGMENTS * 2.0f * (float)Math.PI;
-
-                    float x = (majorRadius + minorRadius * (float)Math.cos(v)) * (float)Math.cos(u);
-                    float y = minorRadius * (float)Math.sin(v);
-                    float z = (majorRadius + minorRadius * (float)Math.cos(v)) * (float)Math.sin(u);
-
-                    glVertex3f(x, y, z);
+        int majorSegments = LevelOfDetail.segments(MAJOR_SEGMENTS, level);
+        int minorSegments = LevelOfDetail.segments(MINOR_SEGMENTS, level);
+        int columns = minorSegments + 1;
+
+        // Every grid point once, then strips and edges index into it
+        PointArrays grid = GRID.get();
+        VertexKernels.get().torus(majorRadius, minorRadius,
+                CircleTable.of(majorSegments), CircleTable.of(minorSegments), grid);
+
+        sink.color(0.6f, 0.6f, 0.6f);
+
+        // Counter-clockwise seen from outside, so tessellated normals point outwards
+        for (int i = 0; i < majorSegments; i++) {
+            sink.begin(GL_QUAD_STRIP);
+            for (int j = 0; j <= minorSegments; j++) {
+                for (int k = 1; k >= 0; k--) {
+                    int p = (i + k) * columns + j;
+                    sink.vertex(grid.x[p], grid.y[p], grid.z[p]);
                 }
             }
-            glEnd();
+            sink.end();
         }
 
-        drawEdges(majorRadius, minorRadius);
+        drawEdges(sink, grid, majorSegments, minorSegments);
 
         for (PlaneShape shape : shapes) {
-            shape.draw(this);
+            shape.draw(this, sink, level);
         }
     }
 
-    private void drawEdges(float majorRadius, float minorRadius) {
-        glColor3f(0, 0, 0);
-        glLineWidth(2);
+    private void drawEdges(GeometrySink sink, PointArrays grid, int majorSegments, int minorSegments) {
+        int columns = minorSegments + 1;
 
-        for (int i = 0; i < MAJOR_SEGMENTS; i += 4) {
-            glBegin(GL_LINE_LOOP);
-            for (int j = 0; j < MINOR_SEGMENTS; j++) {
-                float u = (float)i / MAJOR_SEGMENTS * 2.0f * (float)Math.PI;
-                float v = (float)j / MINOR_SEGMENTS * 2.0f * (float)Math.PI;
+        sink.color(0, 0, 0);
+        sink.lineWidth(2);
 
-                float x = (majorRadius + minorRadius * (float)Math.cos(v)) * (float)Math.cos(u);
-                float y = minorRadius * (float)Math.sin(v);
-                float z = (majorRadius + minorRadius * (float)Math.cos(v)) * (float)Math.sin(u);
+        for (int i = 0; i < majorSegments; i += 4) {
+            sink.begin(GL_LINE_LOOP);
+            for (int j = 0; j < minorSegments; j++) {
+                int p = i * columns + j;
+                sink.vertex(grid.x[p], grid.y[p], grid.z[p]);
+            }
+            sink.end();
+        }
 
-                glVertex3f(x, y, z);
+        for (int j = 0; j < minorSegments; j += 4) {
+            sink.begin(GL_LINE_LOOP);
+            for (int i = 0; i < majorSegments; i++) {
+                int p = i * columns + j;
+                sink.vertex(grid.x[p], grid.y[p], grid.z[p]);
             }
-            glEnd();
+            sink.end();
         }
+    }
 
-        for (int j = 0; j < MINOR_SEGMENTS; j += 4) {
-            glBegin(GL_LINE_LOOP);
-            for (int i = 0; i < MAJOR_SEGMENTS; i++) {
-                float u = (float)i / MAJOR_SEGMENTS * 2.0f * (float)Math.PI;
-                float v = (float)j / MINOR_SEGMENTS * 2.0f * (float)Math.PI;
+    @Override
+    public boolean hasLevelOfDetail() {
+        return true;
+    }
 
-                float x = (majorRadius + minorRadius * (float)Math.cos(v)) * (float)Math.cos(u);
-                float y = minorRadius * (float)Math.sin(v);
-                float z = (majorRadius + minorRadius * (float)Math.cos(v)) * (float)Math.sin(u);
+    @Override
+    public float getBoundingRadius() {
+        return outerRadius;
+    }
 
-                glVertex3f(x, y, z);
-            }
-            glEnd();
-        }
+    @Override
+    protected float[] getGeometryParameters() {
+        return new float[] { innerRadius, outerRadius };
     }
 
     @Override
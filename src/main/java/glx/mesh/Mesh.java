@@ -1,63 +1,281 @@
 package glx.mesh;
 
+import glx.render.BoundingVolume;
+import glx.render.GeometryCache;
+import glx.render.GeometryKey;
+import glx.render.GeometrySink;
+import glx.render.ImmediateSink;
+import glx.render.IndexedGeometry;
+import glx.render.InstanceBatcher;
+import glx.render.LevelOfDetail;
+import glx.render.MeshGeometry;
 import glx.shape.PlaneShape;
 
 public abstract class Mesh {
+    // Ids handed out so far; loading a file moves this past the ids it contains
+    private static final java.util.concurrent.atomic.AtomicInteger lastId = new java.util.concurrent.atomic.AtomicInteger();
+
     protected String name;
-    public float width = 1.0f;
-    public float length = 1.0f;
-    public float height = 1.0f;
-    protected float positionX = 0.0f;
-    protected float positionY = 0.0f;
-    protected float positionZ = 0.0f;
-    protected float rotationX = 0.0f;
-    protected float rotationY = 0.0f;
-    protected float rotationZ = 0.0f;
-    protected java.util.List<PlaneShape> shapes = new java.util.ArrayList<>();
+    // Identifies the mesh in saved files, shapes refer to their mesh by it
+    private volatile int id = nextId();
+    // Edited on the Swing thread and read by the render thread, hence volatile. Other
+    // geometry inputs become visible through the volatile write in invalidateGeometry()
+    public volatile float width = 1.0f;
+    public volatile float length = 1.0f;
+    public volatile float height = 1.0f;
+    protected volatile float positionX = 0.0f;
+    protected volatile float positionY = 0.0f;
+    protected volatile float positionZ = 0.0f;
+    protected volatile float rotationX = 0.0f;
+    protected volatile float rotationY = 0.0f;
+    protected volatile float rotationZ = 0.0f;
+    protected java.util.List<PlaneShape> shapes = new java.util.concurrent.CopyOnWriteArrayList<>();
+    // Set by the render thread, read by geometry lookups on any thread
+    protected volatile int lodLevel = 0;
+    // Setters run on both the Swing and the GL thread (gizmo drags), so increments must not be lost
+    private final java.util.concurrent.atomic.AtomicInteger geometryVersion = new java.util.concurrent.atomic.AtomicInteger();
+    private final java.util.concurrent.atomic.AtomicInteger revision = new java.util.concurrent.atomic.AtomicInteger();
+    private final GeometryCache geometryCache = new GeometryCache(this);
+
+    private BoundingVolume worldBounds;
+    private MeshGeometry boundsGeometry;
+    private final float[] boundsTransform = new float[16];
+    private float boundsRotationX, boundsRotationY, boundsRotationZ;
 
     public Mesh(String name) {
         this.name = name;
     }
 
-    public abstract void draw();
+    public void draw() {
+        getGeometry().replay(ImmediateSink.INSTANCE);
+    }
+
+    public void draw(GeometrySink sink) {
+        draw(sink, lodLevel);
+    }
+
+    /**
+     * Tessellate at the given level of detail instead of the current one
+     */
+    public abstract void draw(GeometrySink sink, int level);
     public abstract float getVolume();
     public abstract float getSurfaceArea();
     public abstract String getType();
     public abstract Mesh duplicate(String newName);
 
-    public void addShape(PlaneShape shape) { shapes.add(shape); }
-    public void removeShape(PlaneShape shape) { shapes.remove(shape); }
+    public void addShape(PlaneShape shape) { shapes.add(shape); invalidateGeometry(); }
+    public void removeShape(PlaneShape shape) { shapes.remove(shape); invalidateGeometry(); }
     public java.util.List<PlaneShape> getShapes() { return new java.util.ArrayList<>(shapes); }
 
+    public int getId() { return id; }
+
+    /**
+     * Take over an id from a file or resolve a clash; ids are positive
+     */
+    public void setId(int id) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Mesh ids are positive: " + id);
+        }
+        if (this.id != id) {
+            this.id = id;
+            lastId.accumulateAndGet(id, Math::max);
+            revision.incrementAndGet();
+        }
+    }
+
+    /**
+     * A fresh id, never handed out or set on a mesh before
+     */
+    public static int nextId() {
+        return lastId.incrementAndGet();
+    }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
     public float getWidth() { return width; }
-    public void setWidth(float width) { this.width = width; }
+    public void setWidth(float width) {
+        if (Float.compare(this.width, width) != 0) {
+            this.width = width;
+            invalidateGeometry();
+        }
+    }
 
     public float getLength() { return length; }
-    public void setLength(float length) { this.length = length; }
+    public void setLength(float length) {
+        if (Float.compare(this.length, length) != 0) {
+            this.length = length;
+            invalidateGeometry();
+        }
+    }
 
     public float getHeight() { return height; }
-    public void setHeight(float height) { this.height = height; }
+    public void setHeight(float height) {
+        if (Float.compare(this.height, height) != 0) {
+            this.height = height;
+            invalidateGeometry();
+        }
+    }
 
     public float getPositionX() { return positionX; }
-    public void setPositionX(float x) { this.positionX = x; }
+    public void setPositionX(float x) {
+        if (Float.compare(this.positionX, x) != 0) {
+            this.positionX = x;
+            revision.incrementAndGet();
+        }
+    }
 
     public float getPositionY() { return positionY; }
-    public void setPositionY(float y) { this.positionY = y; }
+    public void setPositionY(float y) {
+        if (Float.compare(this.positionY, y) != 0) {
+            this.positionY = y;
+            revision.incrementAndGet();
+        }
+    }
 
     public float getPositionZ() { return positionZ; }
-    public void setPositionZ(float z) { this.positionZ = z; }
+    public void setPositionZ(float z) {
+        if (Float.compare(this.positionZ, z) != 0) {
+            this.positionZ = z;
+            revision.incrementAndGet();
+        }
+    }
 
     public float getRotationX() { return rotationX; }
-    public void setRotationX(float rx) { this.rotationX = rx; }
+    public void setRotationX(float rx) {
+        if (Float.compare(this.rotationX, rx) != 0) {
+            this.rotationX = rx;
+            revision.incrementAndGet();
+        }
+    }
 
     public float getRotationY() { return rotationY; }
-    public void setRotationY(float ry) { this.rotationY = ry; }
+    public void setRotationY(float ry) {
+        if (Float.compare(this.rotationY, ry) != 0) {
+            this.rotationY = ry;
+            revision.incrementAndGet();
+        }
+    }
 
     public float getRotationZ() { return rotationZ; }
-    public void setRotationZ(float rz) { this.rotationZ = rz; }
+    public void setRotationZ(float rz) {
+        if (Float.compare(this.rotationZ, rz) != 0) {
+            this.rotationZ = rz;
+            revision.incrementAndGet();
+        }
+    }
+
+    /**
+     * Marks the tessellated geometry as stale. Call this after changing a
+     * dimension or one of the attached shapes directly through its fields.
+     */
+    public void invalidateGeometry() {
+        geometryVersion.incrementAndGet();
+        revision.incrementAndGet();
+    }
+    public int getGeometryVersion() { return geometryVersion.get(); }
+
+    /**
+     * Bumped by every change to the geometry or the transform, i.e. anything that is saved
+     */
+    public int getRevision() { return revision.get(); }
+
+    public int getLodLevel() { return lodLevel; }
+
+    /**
+     * Switch the tessellation level, ignored for meshes without round geometry
+     */
+    public void setLodLevel(int level) {
+        int clamped = hasLevelOfDetail() ? Math.max(0, Math.min(LevelOfDetail.LEVELS - 1, level)) : 0;
+        lodLevel = clamped;
+    }
+
+    /**
+     * Whether the tessellation has round parts whose segment count follows the level of detail
+     */
+    public boolean hasLevelOfDetail() {
+        for (PlaneShape shape : shapes) {
+            if (shape.hasLevelOfDetail()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Radius of a sphere around the mesh origin enclosing the base geometry
+     */
+    public float getBoundingRadius() {
+        return 0.5f * (float) Math.sqrt(width * width + length * length + height * height);
+    }
+
+    /**
+     * World-space box and sphere around the tessellated geometry, including extruded
+     * shapes. Cached until the mesh moves, rotates or its geometry changes.
+     */
+    public synchronized BoundingVolume getWorldBounds() {
+        MeshGeometry geometry = getGeometry();
+        float x = positionX, y = positionY, z = positionZ;
+        float rx = rotationX, ry = rotationY, rz = rotationZ;
+
+        if (worldBounds == null || geometry != boundsGeometry ||
+                x != boundsTransform[12] || y != boundsTransform[13] || z != boundsTransform[14] ||
+                rx != boundsRotationX || ry != boundsRotationY || rz != boundsRotationZ) {
+            InstanceBatcher.modelMatrix(x, y, z, rx, ry, rz, boundsTransform, 0);
+            worldBounds = BoundingVolume.transform(geometry.bounds, boundsTransform, 0);
+            boundsGeometry = geometry;
+            boundsRotationX = rx;
+            boundsRotationY = ry;
+            boundsRotationZ = rz;
+        }
+        return worldBounds;
+    }
+
+    public MeshGeometry getGeometry() { return geometryCache.get(); }
+    public GeometryCache getGeometryCache() { return geometryCache; }
+
+    /**
+     * Shared-vertex triangles with normals for export and analysis, cached like getGeometry()
+     */
+    public IndexedGeometry getIndexedGeometry() { return geometryCache.getIndexed(); }
+
+    /**
+     * The values this mesh type's own tessellation depends on
+     */
+    protected float[] getGeometryParameters() {
+        return new float[] { width, length, height };
+    }
+
+    /**
+     * Key over the mesh and shape parameters, equal keys mean equal geometry
+     */
+    public GeometryKey getGeometryKey() {
+        return getGeometryKey(lodLevel);
+    }
+
+    public GeometryKey getGeometryKey(int level) {
+        float[] own = getGeometryParameters();
+        StringBuilder layout = new StringBuilder(getType()).append('@').append(level);
+        int dimensions = shapes.isEmpty() ? 0 : 3;
+        float[] values = new float[own.length + dimensions + shapes.size() * PlaneShape.GEOMETRY_PARAMETER_COUNT];
+
+        System.arraycopy(own, 0, values, 0, own.length);
+        int offset = own.length;
+        if (dimensions > 0) {
+            // Shapes are placed on the faces of the bounding dimensions
+            values[offset++] = width;
+            values[offset++] = length;
+            values[offset++] = height;
+        }
+
+        for (PlaneShape shape : shapes) {
+            layout.append('|').append(shape.getClass().getSimpleName()).append(':').append(shape.plane);
+            shape.getGeometryParameters(values, offset);
+            offset += PlaneShape.GEOMETRY_PARAMETER_COUNT;
+        }
+
+        return new GeometryKey(layout.toString(), values);
+    }
 
     @Override
     public String toString() {
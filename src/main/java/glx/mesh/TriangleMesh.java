@@ -1,5 +1,6 @@
 package glx.mesh;
 
+import glx.render.GeometrySink;
 import glx.shape.PlaneShape;
 import static org.lwjgl.opengl.GL11.*;
 
@@ -15,88 +16,96 @@ public class TriangleMesh extends Mesh {
     }
 
     public void setSlopeFactor(float slopeFactor) {
-        this.slopeFactor = slopeFactor;
+        if (Float.compare(this.slopeFactor, slopeFactor) != 0) {
+            this.slopeFactor = slopeFactor;
+            invalidateGeometry();
+        }
     }
 
     @Override
-    public void draw() {
+    public void draw(GeometrySink sink, int level) {
         float w = width / 2.0f;
         float l = length / 2.0f;
         float h = height;
         float offset = (slopeFactor - 0.5f) * width;
 
-        glColor3f(0.6f, 0.6f, 0.6f);
-        glBegin(GL_TRIANGLES);
+        sink.color(0.6f, 0.6f, 0.6f);
+        sink.begin(GL_TRIANGLES);
 
-        glVertex3f(-w, 0, l);
-        glVertex3f(w, 0, l);
-        glVertex3f(offset, h, l);
+        sink.vertex(-w, 0, l);
+        sink.vertex(w, 0, l);
+        sink.vertex(offset, h, l);
 
-        glVertex3f(-w, 0, -l);
-        glVertex3f(offset, h, -l);
-        glVertex3f(w, 0, -l);
+        sink.vertex(-w, 0, -l);
+        sink.vertex(offset, h, -l);
+        sink.vertex(w, 0, -l);
 
-        glEnd();
+        sink.end();
 
-        glBegin(GL_QUADS);
+        sink.begin(GL_QUADS);
 
-        glVertex3f(-w, 0, -l);
-        glVertex3f(w, 0, -l);
-        glVertex3f(w, 0, l);
-        glVertex3f(-w, 0, l);
+        sink.vertex(-w, 0, -l);
+        sink.vertex(w, 0, -l);
+        sink.vertex(w, 0, l);
+        sink.vertex(-w, 0, l);
 
-        glVertex3f(-w, 0, -l);
-        glVertex3f(-w, 0, l);
-        glVertex3f(offset, h, l);
-        glVertex3f(offset, h, -l);
+        sink.vertex(-w, 0, -l);
+        sink.vertex(-w, 0, l);
+        sink.vertex(offset, h, l);
+        sink.vertex(offset, h, -l);
 
-        glVertex3f(w, 0, -l);
-        glVertex3f(offset, h, -l);
-        glVertex3f(offset, h, l);
-        glVertex3f(w, 0, l);
+        sink.vertex(w, 0, -l);
+        sink.vertex(offset, h, -l);
+        sink.vertex(offset, h, l);
+        sink.vertex(w, 0, l);
 
-        glEnd();
+        sink.end();
 
-        drawEdges(w, l, h, offset);
+        drawEdges(sink, w, l, h, offset);
 
         for (PlaneShape shape : shapes) {
-            shape.draw(this);
+            shape.draw(this, sink, level);
         }
     }
 
-    private void drawEdges(float w, float l, float h, float offset) {
-        glColor3f(0, 0, 0);
-        glLineWidth(2);
-        glBegin(GL_LINES);
+    private void drawEdges(GeometrySink sink, float w, float l, float h, float offset) {
+        sink.color(0, 0, 0);
+        sink.lineWidth(2);
+        sink.begin(GL_LINES);
+
+        sink.vertex(-w, 0, -l);
+        sink.vertex(w, 0, -l);
 
-        glVertex3f(-w, 0, -l);
-        glVertex3f(w, 0, -l);
+        sink.vertex(w, 0, -l);
+        sink.vertex(w, 0, l);
 
-        glVertex3f(w, 0, -l);
-        glVertex3f(w, 0, l);
+        sink.vertex(w, 0, l);
+        sink.vertex(-w, 0, l);
 
-        glVertex3f(w, 0, l);
-        glVertex3f(-w, 0, l);
+        sink.vertex(-w, 0, l);
+        sink.vertex(-w, 0, -l);
 
-        glVertex3f(-w, 0, l);
-        glVertex3f(-w, 0, -l);
+        sink.vertex(-w, 0, -l);
+        sink.vertex(offset, h, -l);
 
-        glVertex3f(-w, 0, -l);
-        glVertex3f(offset, h, -l);
+        sink.vertex(w, 0, -l);
+        sink.vertex(offset, h, -l);
 
-        glVertex3f(w, 0, -l);
-        glVertex3f(offset, h, -l);
+        sink.vertex(-w, 0, l);
+        sink.vertex(offset, h, l);
 
-        glVertex3f(-w, 0, l);
-        glVertex3f(offset, h, l);
+        sink.vertex(w, 0, l);
+        sink.vertex(offset, h, l);
 
-        glVertex3f(w, 0, l);
-        glVertex3f(offset, h, l);
+        sink.vertex(offset, h, -l);
+        sink.vertex(offset, h, l);
 
-        glVertex3f(offset, h, -l);
-        glVertex3f(offset, h, l);
+        sink.end();
+    }
 
-        glEnd();
+    @Override
+    protected float[] getGeometryParameters() {
+        return new float[] { width, length, height, slopeFactor };
     }
 
     @Override
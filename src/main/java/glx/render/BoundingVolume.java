@@ -0,0 +1,54 @@
+package glx.render;
+
+/**
+ * World-space bounds of a mesh: an axis-aligned box and the sphere around its
+ * center. Immutable, a new instance is built whenever the mesh moves or its
+ * geometry changes.
+ */
+public final class BoundingVolume {
+    public final float minX, minY, minZ;
+    public final float maxX, maxY, maxZ;
+    public final float centerX, centerY, centerZ;
+    public final float radius;
+
+    public BoundingVolume(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float radius) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.centerX = (minX + maxX) / 2.0f;
+        this.centerY = (minY + maxY) / 2.0f;
+        this.centerZ = (minZ + maxZ) / 2.0f;
+        this.radius = radius;
+    }
+
+    /**
+     * Transform local bounds (minX, minY, minZ, maxX, maxY, maxZ) by a column-major
+     * model matrix. The box is the tight box around the rotated local box, the
+     * sphere keeps the local box's half diagonal since rotation preserves it.
+     */
+    public static BoundingVolume transform(float[] local, float[] m, int offset) {
+        float[] min = { m[offset + 12], m[offset + 13], m[offset + 14] };
+        float[] max = { m[offset + 12], m[offset + 13], m[offset + 14] };
+
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                float factor = m[offset + col * 4 + row];
+                float a = factor * local[col];
+                float b = factor * local[col + 3];
+                min[row] += Math.min(a, b);
+                max[row] += Math.max(a, b);
+            }
+        }
+
+        float dx = local[3] - local[0];
+        float dy = local[4] - local[1];
+        float dz = local[5] - local[2];
+        float radius = 0.5f * (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+        // The sphere is centered on the transformed local center, which is also the box center
+        return new BoundingVolume(min[0], min[1], min[2], max[0], max[1], max[2], radius);
+    }
+}
@@ -0,0 +1,145 @@
+package glx.render;
+
+import java.util.Arrays;
+
+/**
+ * CPU-side copy of the orbit camera used by Scene.render. Builds the same
+ * view and projection matrices the fixed-function calls used to produce
+ * (glFrustum followed by translate/rotate), in GL's column-major layout, so
+ * picking and dragging never have to read matrices back from the driver.
+ *
+ * Matrices are only recomputed when an input changes and nothing is allocated
+ * after construction. Not thread-safe, use one instance per thread.
+ */
+public class Camera {
+    public static final float NEAR = 2.0f;
+    public static final float FAR = 20.0f;
+
+    public final float[] projection = new float[16];
+    public final float[] view = new float[16];
+    public final float[] viewProjection = new float[16];
+
+    private final float[] rotation = new float[16];
+    private final float[] scratch = new float[16];
+
+    private float rotationX = Float.NaN;
+    private float rotationY = Float.NaN;
+    private float distance = Float.NaN;
+    private float aspect = Float.NaN;
+    private long updates = 0;
+
+    /**
+     * Recompute the matrices if the camera state or aspect ratio changed
+     */
+    public void update(float rotationX, float rotationY, float distance, int viewportWidth, int viewportHeight) {
+        float newAspect = viewportHeight > 0 ? (float) viewportWidth / viewportHeight : 1.0f;
+        if (rotationX == this.rotationX && rotationY == this.rotationY &&
+                distance == this.distance && newAspect == this.aspect) {
+            return;
+        }
+
+        this.rotationX = rotationX;
+        this.rotationY = rotationY;
+        this.distance = distance;
+        this.aspect = newAspect;
+        updates++;
+
+        frustum(projection, -newAspect, newAspect, -1, 1, NEAR, FAR);
+
+        rotateX(rotation, rotationX);
+        rotateY(scratch, rotationY);
+        multiply(rotation, scratch, view);
+        // translate(0, 0, -distance) applied on the left only changes the z row offset
+        view[14] -= distance;
+
+        multiply(projection, view, viewProjection);
+    }
+
+    /**
+     * Project a world-space point to window coordinates (origin top-left).
+     * Writes x, y and depth in [0, 1] into out and returns false when the
+     * point is behind the camera.
+     */
+    public boolean project(float x, float y, float z, int viewportWidth, int viewportHeight, float[] out) {
+        float[] m = viewProjection;
+        float cx = m[0] * x + m[4] * y + m[8] * z + m[12];
+        float cy = m[1] * x + m[5] * y + m[9] * z + m[13];
+        float cz = m[2] * x + m[6] * y + m[10] * z + m[14];
+        float cw = m[3] * x + m[7] * y + m[11] * z + m[15];
+
+        boolean inFront = cw > 0.0f;
+        if (cw == 0.0f) cw = 1.0f;
+
+        out[0] = viewportWidth * (cx / cw + 1.0f) / 2.0f;
+        out[1] = viewportHeight * (1.0f - (cy / cw + 1.0f) / 2.0f);
+        out[2] = (cz / cw + 1.0f) / 2.0f;
+        return inFront;
+    }
+
+    /**
+     * Distance in front of the camera along the view axis
+     */
+    public float viewDepth(float x, float y, float z) {
+        return -(view[2] * x + view[6] * y + view[10] * z + view[14]);
+    }
+
+    /**
+     * Pixels per world unit at a given view depth for a viewport of this height
+     */
+    public float pixelsPerUnit(float depth, int viewportHeight) {
+        return projection[5] * viewportHeight / (2.0f * depth);
+    }
+
+    public float getAspect() { return aspect; }
+    public long getUpdateCount() { return updates; }
+
+    private static void frustum(float[] m, float left, float right, float bottom, float top, float near, float far) {
+        Arrays.fill(m, 0.0f);
+        m[0] = 2 * near / (right - left);
+        m[5] = 2 * near / (top - bottom);
+        m[8] = (right + left) / (right - left);
+        m[9] = (top + bottom) / (top - bottom);
+        m[10] = -(far + near) / (far - near);
+        m[11] = -1.0f;
+        m[14] = -2 * far * near / (far - near);
+    }
+
+    private static void rotateX(float[] m, float degrees) {
+        double rad = Math.toRadians(degrees);
+        float c = (float) Math.cos(rad);
+        float s = (float) Math.sin(rad);
+        identity(m);
+        m[5] = c;
+        m[6] = s;
+        m[9] = -s;
+        m[10] = c;
+    }
+
+    private static void rotateY(float[] m, float degrees) {
+        double rad = Math.toRadians(degrees);
+        float c = (float) Math.cos(rad);
+        float s = (float) Math.sin(rad);
+        identity(m);
+        m[0] = c;
+        m[2] = -s;
+        m[8] = s;
+        m[10] = c;
+    }
+
+    private static void identity(float[] m) {
+        Arrays.fill(m, 0.0f);
+        m[0] = m[5] = m[10] = m[15] = 1.0f;
+    }
+
+    /**
+     * out = a * b for column-major 4x4 matrices, out must not alias a or b
+     */
+    static void multiply(float[] a, float[] b, float[] out) {
+        for (int col = 0; col < 4; col++) {
+            for (int row = 0; row < 4; row++) {
+                out[col * 4 + row] = a[row] * b[col * 4] + a[4 + row] * b[col * 4 + 1] +
+                        a[8 + row] * b[col * 4 + 2] + a[12 + row] * b[col * 4 + 3];
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package glx.render;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed cosine/sine of the unit circle split into a fixed number of
+ * segments. Tables are shared per segment count, index {@code segments} wraps
+ * back to exactly (1, 0). Rotated circles use the angle addition identities, so
+ * tessellating a rotated circle is multiply-adds only.
+ */
+public final class CircleTable {
+    private static final ConcurrentHashMap<Integer, CircleTable> TABLES = new ConcurrentHashMap<>();
+
+    public final int segments;
+    private final float[] cos;
+    private final float[] sin;
+
+    private CircleTable(int segments) {
+        this.segments = segments;
+        this.cos = new float[segments + 1];
+        this.sin = new float[segments + 1];
+        for (int i = 0; i < segments; i++) {
+            double angle = 2 * Math.PI * i / segments;
+            cos[i] = (float) Math.cos(angle);
+            sin[i] = (float) Math.sin(angle);
+        }
+        cos[segments] = cos[0];
+        sin[segments] = sin[0];
+    }
+
+    public static CircleTable of(int segments) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("Segment count must be positive: " + segments);
+        }
+        return TABLES.computeIfAbsent(segments, CircleTable::new);
+    }
+
+    public float cos(int i) {
+        return cos[i];
+    }
+
+    public float sin(int i) {
+        return sin[i];
+    }
+
+    // The tables themselves for the bulk kernels, which must not modify them
+    float[] cosines() {
+        return cos;
+    }
+
+    float[] sines() {
+        return sin;
+    }
+
+    /**
+     * cos(angle_i + offset), with the offset given by its own cosine and sine
+     */
+    public float cos(int i, float cosOffset, float sinOffset) {
+        return cos[i] * cosOffset - sin[i] * sinOffset;
+    }
+
+    /**
+     * sin(angle_i + offset), with the offset given by its own cosine and sine
+     */
+    public float sin(int i, float cosOffset, float sinOffset) {
+        return sin[i] * cosOffset + cos[i] * sinOffset;
+    }
+}
@@ -0,0 +1,63 @@
+package glx.render;
+
+/**
+ * The six clip planes of a view-projection matrix, for rejecting bounds that
+ * cannot be on screen. Planes point inwards and are normalized so sphere
+ * radii can be compared against plane distances directly.
+ */
+public class Frustum {
+    private final float[] planes = new float[6 * 4];
+
+    /**
+     * Extract the planes from a column-major view-projection matrix
+     */
+    public void update(float[] m) {
+        for (int i = 0; i < 3; i++) {
+            // Rows 0..2 added to and subtracted from row 3 give left/right, bottom/top, near/far
+            setPlane(i * 2, m[3] + m[i], m[7] + m[4 + i], m[11] + m[8 + i], m[15] + m[12 + i]);
+            setPlane(i * 2 + 1, m[3] - m[i], m[7] - m[4 + i], m[11] - m[8 + i], m[15] - m[12 + i]);
+        }
+    }
+
+    private void setPlane(int index, float a, float b, float c, float d) {
+        float length = (float) Math.sqrt(a * a + b * b + c * c);
+        int p = index * 4;
+        planes[p] = a / length;
+        planes[p + 1] = b / length;
+        planes[p + 2] = c / length;
+        planes[p + 3] = d / length;
+    }
+
+    public boolean intersectsSphere(float x, float y, float z, float radius) {
+        for (int p = 0; p < planes.length; p += 4) {
+            if (planes[p] * x + planes[p + 1] * y + planes[p + 2] * z + planes[p + 3] < -radius) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Conservative box test, may report boxes near frustum corners as visible
+     */
+    public boolean intersectsBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        for (int p = 0; p < planes.length; p += 4) {
+            // Test the corner furthest along the plane normal
+            float x = planes[p] >= 0 ? maxX : minX;
+            float y = planes[p + 1] >= 0 ? maxY : minY;
+            float z = planes[p + 2] >= 0 ? maxZ : minZ;
+            if (planes[p] * x + planes[p + 1] * y + planes[p + 2] * z + planes[p + 3] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sphere test first since it is cheapest, then the tighter box
+     */
+    public boolean intersects(BoundingVolume bounds) {
+        return intersectsSphere(bounds.centerX, bounds.centerY, bounds.centerZ, bounds.radius) &&
+                intersectsBox(bounds.minX, bounds.minY, bounds.minZ, bounds.maxX, bounds.maxY, bounds.maxZ);
+    }
+}
@@ -0,0 +1,150 @@
+package glx.render;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+
+/**
+ * Vertex/index buffer objects drawn through the fixed-function vertex array
+ * path, so no shaders are required. Needs an OpenGL 1.5 context. Without
+ * shaders there is no per-instance attribute, so instances share one buffer
+ * bind and differ only by a glMultMatrixf between draws.
+ */
+public class GLRenderBackend implements RenderBackend {
+    private FloatBuffer vertexScratch = MemoryUtil.memAllocFloat(3 * 1024);
+    private IntBuffer indexScratch = MemoryUtil.memAllocInt(4096);
+    private FloatBuffer transformScratch = MemoryUtil.memAllocFloat(InstanceBatch.FLOATS_PER_INSTANCE * 64);
+
+    @Override
+    public void upload(GpuMesh mesh, MeshGeometry geometry) {
+        if (mesh.vertexBuffer == 0) {
+            mesh.vertexBuffer = glGenBuffers();
+            mesh.indexBuffer = glGenBuffers();
+        }
+
+        if (vertexScratch.capacity() < geometry.positions.length) {
+            vertexScratch = MemoryUtil.memRealloc(vertexScratch, geometry.positions.length);
+        }
+        if (indexScratch.capacity() < geometry.indices.length) {
+            indexScratch = MemoryUtil.memRealloc(indexScratch, geometry.indices.length);
+        }
+
+        vertexScratch.clear();
+        vertexScratch.put(geometry.positions).flip();
+        indexScratch.clear();
+        indexScratch.put(geometry.indices).flip();
+
+        glBindBuffer(GL_ARRAY_BUFFER, mesh.vertexBuffer);
+        glBufferData(GL_ARRAY_BUFFER, vertexScratch, GL_STATIC_DRAW);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, mesh.indexBuffer);
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, indexScratch, GL_STATIC_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+
+        mesh.geometry = geometry;
+    }
+
+    @Override
+    public void draw(GpuMesh mesh) {
+        bind(mesh);
+        drawCommands(mesh.geometry);
+        unbind();
+    }
+
+    @Override
+    public void drawInstances(GpuMesh mesh, float[] transforms, int count) {
+        FloatBuffer matrices = loadTransforms(transforms, count);
+        bind(mesh);
+        for (int i = 0; i < count; i++) {
+            glPushMatrix();
+            glMultMatrixf(matrices.position(i * InstanceBatch.FLOATS_PER_INSTANCE));
+            drawCommands(mesh.geometry);
+            glPopMatrix();
+        }
+        unbind();
+    }
+
+    @Override
+    public void drawImmediate(MeshGeometry geometry) {
+        geometry.replay(ImmediateSink.INSTANCE);
+    }
+
+    @Override
+    public void drawImmediate(MeshGeometry geometry, float[] transforms, int count) {
+        FloatBuffer matrices = loadTransforms(transforms, count);
+        for (int i = 0; i < count; i++) {
+            glPushMatrix();
+            glMultMatrixf(matrices.position(i * InstanceBatch.FLOATS_PER_INSTANCE));
+            geometry.replay(ImmediateSink.INSTANCE);
+            glPopMatrix();
+        }
+    }
+
+    private FloatBuffer loadTransforms(float[] transforms, int count) {
+        int length = count * InstanceBatch.FLOATS_PER_INSTANCE;
+        if (transformScratch.capacity() < length) {
+            transformScratch = MemoryUtil.memRealloc(transformScratch, length);
+        }
+        transformScratch.clear();
+        transformScratch.put(transforms, 0, length).flip();
+        return transformScratch;
+    }
+
+    private void bind(GpuMesh mesh) {
+        glBindBuffer(GL_ARRAY_BUFFER, mesh.vertexBuffer);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, mesh.indexBuffer);
+        glEnableClientState(GL_VERTEX_ARRAY);
+        glVertexPointer(3, GL_FLOAT, 0, 0L);
+    }
+
+    private void unbind() {
+        glDisableClientState(GL_VERTEX_ARRAY);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+    }
+
+    private void drawCommands(MeshGeometry geometry) {
+        boolean depthTest = true;
+        for (MeshGeometry.DrawCommand command : geometry.commands) {
+            if (command.depthTest != depthTest) {
+                depthTest = command.depthTest;
+                if (depthTest) {
+                    glEnable(GL_DEPTH_TEST);
+                } else {
+                    glDisable(GL_DEPTH_TEST);
+                }
+            }
+            if (command.mode == GL_LINES) {
+                glLineWidth(command.lineWidth);
+            }
+            glColor3f(command.r, command.g, command.b);
+            glDrawElements(command.mode, command.count, GL_UNSIGNED_INT, (long) command.first * Integer.BYTES);
+        }
+
+        if (!depthTest) {
+            glEnable(GL_DEPTH_TEST);
+        }
+    }
+
+    @Override
+    public void delete(GpuMesh mesh) {
+        if (mesh.vertexBuffer != 0) {
+            glDeleteBuffers(mesh.vertexBuffer);
+            glDeleteBuffers(mesh.indexBuffer);
+            mesh.vertexBuffer = 0;
+            mesh.indexBuffer = 0;
+        }
+        mesh.geometry = null;
+    }
+
+    @Override
+    public void dispose() {
+        MemoryUtil.memFree(vertexScratch);
+        MemoryUtil.memFree(indexScratch);
+        MemoryUtil.memFree(transformScratch);
+    }
+}
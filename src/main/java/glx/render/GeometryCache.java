@@ -0,0 +1,95 @@
+package glx.render;
+
+import glx.mesh.Mesh;
+
+/**
+ * Per-mesh cache of the tessellated geometry. A lookup is a version compare
+ * while nothing changed; after a setter bumps the version the parameter key is
+ * rebuilt and the geometry is only re-tessellated if the key actually differs.
+ * One slot is kept per level of detail, so switching levels back and forth
+ * does not re-tessellate. The indexed triangle mesh for export and analysis is
+ * derived from the same slot on first use and dropped with it.
+ */
+public class GeometryCache {
+    private static final ThreadLocal<GeometryCapture> CAPTURE = ThreadLocal.withInitial(GeometryCapture::new);
+
+    private final Mesh mesh;
+    private final MeshGeometry[] geometry = new MeshGeometry[LevelOfDetail.LEVELS];
+    private final GeometryKey[] keys = new GeometryKey[LevelOfDetail.LEVELS];
+    private final int[] versions = new int[LevelOfDetail.LEVELS];
+    private final IndexedGeometry[] indexed = new IndexedGeometry[LevelOfDetail.LEVELS];
+
+    private long hits = 0;
+    private long misses = 0;
+    private long rebuilds = 0;
+
+    public GeometryCache(Mesh mesh) {
+        this.mesh = mesh;
+    }
+
+    public synchronized MeshGeometry get() {
+        return get(mesh.getLodLevel());
+    }
+
+    /**
+     * The geometry at the given level of detail. The render thread changes the
+     * mesh's level without this lock, so callers read it once and pass it in.
+     */
+    public synchronized MeshGeometry get(int level) {
+        int currentVersion = mesh.getGeometryVersion();
+        MeshGeometry cached = geometry[level];
+        if (cached != null && versions[level] == currentVersion) {
+            hits++;
+            return cached;
+        }
+
+        GeometryKey currentKey = mesh.getGeometryKey(level);
+        if (cached != null && currentKey.equals(keys[level])) {
+            hits++;
+            versions[level] = currentVersion;
+            return cached;
+        }
+
+        if (cached == null) {
+            misses++;
+        } else {
+            rebuilds++;
+        }
+
+        GeometryCapture capture = CAPTURE.get();
+        capture.reset();
+        mesh.draw(capture, level);
+        geometry[level] = capture.toGeometry();
+        indexed[level] = null;
+        keys[level] = currentKey;
+        versions[level] = currentVersion;
+        return geometry[level];
+    }
+
+    /**
+     * The current geometry as a shared-vertex triangle mesh with normals
+     */
+    public synchronized IndexedGeometry getIndexed() {
+        return getIndexed(mesh.getLodLevel());
+    }
+
+    public synchronized IndexedGeometry getIndexed(int level) {
+        MeshGeometry current = get(level);
+        if (indexed[level] == null) {
+            indexed[level] = Tessellator.tessellate(current);
+        }
+        return indexed[level];
+    }
+
+    public synchronized GeometryKey getKey() { return keys[mesh.getLodLevel()]; }
+    public synchronized GeometryKey getKey(int level) { return keys[level]; }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getRebuilds() { return rebuilds; }
+
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        rebuilds = 0;
+    }
+}
@@ -0,0 +1,208 @@
+package glx.render;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL11.*;
+
+/**
+ * Captures emitted primitives into packed vertex and index arrays instead of
+ * sending them to GL. Quads, strips, fans and loops are converted to plain
+ * triangle and line lists so the result can be drawn with glDrawElements.
+ * The scratch arrays are kept between captures, call {@link #reset()} to reuse.
+ */
+public class GeometryCapture implements GeometrySink {
+    private float[] positions = new float[3 * 256];
+    private int vertexCount = 0;
+    private int[] indices = new int[512];
+    private int indexCount = 0;
+    private final List<MeshGeometry.DrawCommand> commands = new ArrayList<>();
+
+    private float r = 1.0f;
+    private float g = 1.0f;
+    private float b = 1.0f;
+    private float lineWidth = 1.0f;
+    private boolean depthTest = true;
+
+    private int mode = -1;
+    private int primitiveStart = 0;
+
+    public void reset() {
+        vertexCount = 0;
+        indexCount = 0;
+        commands.clear();
+        r = g = b = 1.0f;
+        lineWidth = 1.0f;
+        depthTest = true;
+        mode = -1;
+    }
+
+    @Override
+    public void color(float r, float g, float b) {
+        this.r = r;
+        this.g = g;
+        this.b = b;
+    }
+
+    @Override
+    public void lineWidth(float width) {
+        this.lineWidth = width;
+    }
+
+    @Override
+    public void depthTest(boolean enabled) {
+        this.depthTest = enabled;
+    }
+
+    @Override
+    public void begin(int mode) {
+        if (this.mode != -1) {
+            throw new IllegalStateException("begin() called inside another primitive");
+        }
+        this.mode = mode;
+        this.primitiveStart = vertexCount;
+    }
+
+    @Override
+    public void vertex(float x, float y, float z) {
+        if (mode == -1) {
+            throw new IllegalStateException("vertex() called outside begin()/end()");
+        }
+        if (vertexCount * 3 + 3 > positions.length) {
+            positions = Arrays.copyOf(positions, positions.length * 2);
+        }
+        int p = vertexCount * 3;
+        positions[p] = x;
+        positions[p + 1] = y;
+        positions[p + 2] = z;
+        vertexCount++;
+    }
+
+    @Override
+    public void end() {
+        int first = indexCount;
+        int s = primitiveStart;
+        int n = vertexCount - primitiveStart;
+        boolean lines = false;
+
+        switch (mode) {
+            case GL_TRIANGLES:
+                for (int i = 0; i + 2 < n; i += 3) {
+                    addTriangle(s + i, s + i + 1, s + i + 2);
+                }
+                break;
+            case GL_QUADS:
+                for (int i = 0; i + 3 < n; i += 4) {
+                    addTriangle(s + i, s + i + 1, s + i + 2);
+                    addTriangle(s + i, s + i + 2, s + i + 3);
+                }
+                break;
+            case GL_QUAD_STRIP:
+                for (int i = 0; i + 3 < n; i += 2) {
+                    addTriangle(s + i, s + i + 1, s + i + 3);
+                    addTriangle(s + i, s + i + 3, s + i + 2);
+                }
+                break;
+            case GL_TRIANGLE_STRIP:
+                for (int i = 0; i + 2 < n; i++) {
+                    if ((i & 1) == 0) {
+                        addTriangle(s + i, s + i + 1, s + i + 2);
+                    } else {
+                        addTriangle(s + i + 1, s + i, s + i + 2);
+                    }
+                }
+                break;
+            case GL_TRIANGLE_FAN:
+                for (int i = 1; i + 1 < n; i++) {
+                    addTriangle(s, s + i, s + i + 1);
+                }
+                break;
+            case GL_LINES:
+                lines = true;
+                for (int i = 0; i + 1 < n; i += 2) {
+                    addLine(s + i, s + i + 1);
+                }
+                break;
+            case GL_LINE_STRIP:
+            case GL_LINE_LOOP:
+                lines = true;
+                for (int i = 0; i + 1 < n; i++) {
+                    addLine(s + i, s + i + 1);
+                }
+                if (mode == GL_LINE_LOOP && n > 2) {
+                    addLine(s + n - 1, s);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported primitive mode: " + mode);
+        }
+
+        mode = -1;
+        addCommand(lines ? GL_LINES : GL_TRIANGLES, first, indexCount - first);
+    }
+
+    private void addTriangle(int a, int b, int c) {
+        ensureIndexCapacity(3);
+        indices[indexCount++] = a;
+        indices[indexCount++] = b;
+        indices[indexCount++] = c;
+    }
+
+    private void addLine(int a, int b) {
+        ensureIndexCapacity(2);
+        indices[indexCount++] = a;
+        indices[indexCount++] = b;
+    }
+
+    private void ensureIndexCapacity(int extra) {
+        if (indexCount + extra > indices.length) {
+            indices = Arrays.copyOf(indices, Math.max(indices.length * 2, indexCount + extra));
+        }
+    }
+
+    /**
+     * Append a range, merging it into the previous command when the state matches
+     */
+    private void addCommand(int drawMode, int first, int count) {
+        if (count == 0) {
+            return;
+        }
+
+        if (!commands.isEmpty()) {
+            MeshGeometry.DrawCommand last = commands.get(commands.size() - 1);
+            boolean sameState = last.mode == drawMode && last.first + last.count == first &&
+                    last.r == r && last.g == g && last.b == b &&
+                    last.depthTest == depthTest &&
+                    (drawMode != GL_LINES || last.lineWidth == lineWidth);
+            if (sameState) {
+                commands.set(commands.size() - 1, new MeshGeometry.DrawCommand(drawMode, last.first,
+                        last.count + count, r, g, b, lineWidth, depthTest));
+                return;
+            }
+        }
+
+        commands.add(new MeshGeometry.DrawCommand(drawMode, first, count, r, g, b, lineWidth, depthTest));
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getIndexCount() {
+        return indexCount;
+    }
+
+    /**
+     * Copy the captured data into a compact, immutable geometry object
+     */
+    public MeshGeometry toGeometry() {
+        if (mode != -1) {
+            throw new IllegalStateException("Capture still inside begin()/end()");
+        }
+        return new MeshGeometry(
+                Arrays.copyOf(positions, vertexCount * 3),
+                Arrays.copyOf(indices, indexCount),
+                commands.toArray(new MeshGeometry.DrawCommand[0]));
+    }
+}
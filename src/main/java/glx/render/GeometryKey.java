@@ -0,0 +1,38 @@
+package glx.render;
+
+import java.util.Arrays;
+
+/**
+ * Value key describing everything a mesh's tessellation depends on: the mesh
+ * type, its shape layout and the numeric parameters that feed the geometry.
+ * Two meshes with equal keys produce identical geometry.
+ */
+public final class GeometryKey {
+    private final String layout;
+    private final float[] values;
+    private final int hash;
+
+    public GeometryKey(String layout, float[] values) {
+        this.layout = layout;
+        this.values = values;
+        this.hash = 31 * layout.hashCode() + Arrays.hashCode(values);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GeometryKey)) return false;
+        GeometryKey other = (GeometryKey) o;
+        return hash == other.hash && layout.equals(other.layout) && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return layout + Arrays.toString(values);
+    }
+}
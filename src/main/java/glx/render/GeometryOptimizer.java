@@ -0,0 +1,185 @@
+package glx.render;
+
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.util.meshoptimizer.MeshoptOverdrawStatistics;
+import org.lwjgl.util.meshoptimizer.MeshoptVertexCacheStatistics;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.lwjgl.system.MemoryUtil.*;
+import static org.lwjgl.util.meshoptimizer.MeshOptimizer.*;
+
+/**
+ * Post-processing of tessellated {@link IndexedGeometry} through the bundled
+ * native meshoptimizer library: triangle order for the post-transform vertex
+ * cache and for less overdraw, vertex order for fetch locality, and
+ * simplification for coarser levels of detail. Every call returns new
+ * geometry, the input is never modified. See {@link OptimizedGeometryCache}
+ * for results cached per geometry key.
+ */
+public final class GeometryOptimizer {
+    // Cache model used for the statistics, the size meshoptimizer itself reports with
+    public static final int CACHE_SIZE = 16;
+    // Overdraw optimization may make the vertex cache this much worse
+    public static final float OVERDRAW_THRESHOLD = 1.05f;
+    // Largest simplification error of the first simplified level, relative to the mesh extent
+    public static final float SIMPLIFY_ERROR = 0.01f;
+
+    private static final int STRIDE = 3 * Float.BYTES;
+
+    private GeometryOptimizer() {
+    }
+
+    /**
+     * Vertex cache, overdraw and vertex fetch optimization in that order.
+     * Positions, normals and the triangles stay the same, only their order changes;
+     * vertices no triangle uses are dropped.
+     */
+    public static IndexedGeometry optimize(IndexedGeometry geometry) {
+        if (geometry.indices.length == 0) {
+            return geometry;
+        }
+        int vertexCount = geometry.getVertexCount();
+        IntBuffer indices = memAllocInt(geometry.indices.length);
+        IntBuffer optimized = memAllocInt(geometry.indices.length);
+        FloatBuffer positions = memAllocFloat(geometry.positions.length);
+        try {
+            indices.put(geometry.indices).flip();
+            positions.put(geometry.positions).flip();
+
+            meshopt_optimizeVertexCache(optimized, indices, vertexCount);
+            meshopt_optimizeOverdraw(indices, optimized, positions, vertexCount, STRIDE, OVERDRAW_THRESHOLD);
+
+            return compact(geometry, indices);
+        } finally {
+            memFree(indices);
+            memFree(optimized);
+            memFree(positions);
+        }
+    }
+
+    /**
+     * Reduce the triangle count to about ratio of the original without moving the
+     * surface by more than maxError of the mesh extent, then optimize the result.
+     * Stops early when the error bound is reached first.
+     */
+    public static IndexedGeometry simplify(IndexedGeometry geometry, float ratio, float maxError) {
+        if (geometry.indices.length == 0) {
+            return geometry;
+        }
+        int vertexCount = geometry.getVertexCount();
+        long targetIndexCount = Math.max(3, Math.round(geometry.getTriangleCount() * ratio) * 3L);
+        IntBuffer indices = memAllocInt(geometry.indices.length);
+        IntBuffer simplified = memAllocInt(geometry.indices.length);
+        FloatBuffer positions = memAllocFloat(geometry.positions.length);
+        try {
+            indices.put(geometry.indices).flip();
+            positions.put(geometry.positions).flip();
+
+            long count = meshopt_simplify(simplified, indices, positions, vertexCount, STRIDE,
+                    targetIndexCount, maxError, 0, null);
+            simplified.limit((int) count);
+            return optimize(compact(geometry, simplified));
+        } finally {
+            memFree(indices);
+            memFree(simplified);
+            memFree(positions);
+        }
+    }
+
+    /**
+     * The geometry optimized, followed by levels - 1 simplified versions, each
+     * with about half the triangles of the one before. Coarser levels are drawn
+     * smaller on screen, so each may move the surface twice as far as the last.
+     */
+    public static List<IndexedGeometry> generateLevels(IndexedGeometry geometry, int levels) {
+        List<IndexedGeometry> result = new ArrayList<>(levels);
+        IndexedGeometry previous = optimize(geometry);
+        result.add(previous);
+        float maxError = SIMPLIFY_ERROR;
+        for (int level = 1; level < levels; level++) {
+            previous = simplify(previous, 0.5f, maxError);
+            result.add(previous);
+            maxError *= 2;
+        }
+        return result;
+    }
+
+    /**
+     * Vertex order by first use in the index buffer, unused vertices dropped
+     */
+    private static IndexedGeometry compact(IndexedGeometry geometry, IntBuffer indices) {
+        int vertexCount = geometry.getVertexCount();
+        IntBuffer remap = memAllocInt(vertexCount);
+        try {
+            int unique = (int) meshopt_optimizeVertexFetchRemap(remap, indices);
+
+            float[] positions = new float[unique * 3];
+            float[] normals = new float[unique * 3];
+            for (int v = 0; v < vertexCount; v++) {
+                int target = remap.get(v);
+                // ~0 marks vertices no triangle uses
+                if (target != -1) {
+                    System.arraycopy(geometry.positions, v * 3, positions, target * 3, 3);
+                    System.arraycopy(geometry.normals, v * 3, normals, target * 3, 3);
+                }
+            }
+
+            int[] remapped = new int[indices.remaining()];
+            for (int i = 0; i < remapped.length; i++) {
+                remapped[i] = remap.get(indices.get(indices.position() + i));
+            }
+            return new IndexedGeometry(positions, normals, remapped);
+        } finally {
+            memFree(remap);
+        }
+    }
+
+    /**
+     * Vertex cache and overdraw figures for the geometry as it is ordered now
+     */
+    public static Statistics analyze(IndexedGeometry geometry) {
+        if (geometry.indices.length == 0) {
+            return new Statistics(0, 0, 0);
+        }
+        IntBuffer indices = memAllocInt(geometry.indices.length);
+        FloatBuffer positions = memAllocFloat(geometry.positions.length);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            indices.put(geometry.indices).flip();
+            positions.put(geometry.positions).flip();
+
+            MeshoptVertexCacheStatistics cache = meshopt_analyzeVertexCache(indices, geometry.getVertexCount(),
+                    CACHE_SIZE, 0, 0, MeshoptVertexCacheStatistics.malloc(stack));
+            MeshoptOverdrawStatistics overdraw = meshopt_analyzeOverdraw(indices, positions,
+                    geometry.getVertexCount(), STRIDE, MeshoptOverdrawStatistics.malloc(stack));
+            return new Statistics(cache.acmr(), cache.atvr(), overdraw.overdraw());
+        } finally {
+            memFree(indices);
+            memFree(positions);
+        }
+    }
+
+    /**
+     * ACMR is vertex shader runs per triangle (0.5 at best, 3 at worst), ATVR the
+     * same per vertex (1 at best) and overdraw is pixels shaded per pixel covered
+     */
+    public static class Statistics {
+        public final float acmr;
+        public final float atvr;
+        public final float overdraw;
+
+        public Statistics(float acmr, float atvr, float overdraw) {
+            this.acmr = acmr;
+            this.atvr = atvr;
+            this.overdraw = overdraw;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ACMR %.3f, ATVR %.3f, overdraw %.3f", acmr, atvr, overdraw);
+        }
+    }
+}
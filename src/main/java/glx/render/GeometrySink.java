@@ -0,0 +1,14 @@
+package glx.render;
+
+/**
+ * Receives the primitives emitted by a mesh or shape. Implementations either
+ * forward them straight to immediate-mode GL or capture them into buffers.
+ */
+public interface GeometrySink {
+    void color(float r, float g, float b);
+    void lineWidth(float width);
+    void depthTest(boolean enabled);
+    void begin(int mode);
+    void vertex(float x, float y, float z);
+    void end();
+}
@@ -0,0 +1,11 @@
+package glx.render;
+
+/**
+ * GPU-side state of one mesh: buffer names and the geometry they hold
+ */
+public class GpuMesh {
+    public int vertexBuffer = 0;
+    public int indexBuffer = 0;
+    public MeshGeometry geometry;
+    public long lastUsedFrame = 0;
+}
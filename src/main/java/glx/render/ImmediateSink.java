@@ -0,0 +1,47 @@
+package glx.render;
+
+import static org.lwjgl.opengl.GL11.*;
+
+/**
+ * Forwards every primitive to the fixed-function glBegin/glEnd path
+ */
+public final class ImmediateSink implements GeometrySink {
+    public static final ImmediateSink INSTANCE = new ImmediateSink();
+
+    private ImmediateSink() {
+    }
+
+    @Override
+    public void color(float r, float g, float b) {
+        glColor3f(r, g, b);
+    }
+
+    @Override
+    public void lineWidth(float width) {
+        glLineWidth(width);
+    }
+
+    @Override
+    public void depthTest(boolean enabled) {
+        if (enabled) {
+            glEnable(GL_DEPTH_TEST);
+        } else {
+            glDisable(GL_DEPTH_TEST);
+        }
+    }
+
+    @Override
+    public void begin(int mode) {
+        glBegin(mode);
+    }
+
+    @Override
+    public void vertex(float x, float y, float z) {
+        glVertex3f(x, y, z);
+    }
+
+    @Override
+    public void end() {
+        glEnd();
+    }
+}
@@ -0,0 +1,79 @@
+package glx.render;
+
+/**
+ * Immutable triangle mesh with shared vertices: packed xyz positions, one unit
+ * normal per vertex and three indices per triangle. Produced by
+ * {@link Tessellator} for export and analysis, unlike {@link MeshGeometry} it
+ * holds surfaces only, no edge lines or render state.
+ */
+public class IndexedGeometry {
+    public final float[] positions;
+    public final float[] normals;
+    public final int[] indices;
+
+    public IndexedGeometry(float[] positions, float[] normals, int[] indices) {
+        if (normals.length != positions.length || indices.length % 3 != 0) {
+            throw new IllegalArgumentException("Mismatched geometry arrays: " + positions.length + " positions, " +
+                    normals.length + " normals, " + indices.length + " indices");
+        }
+        this.positions = positions;
+        this.normals = normals;
+        this.indices = indices;
+    }
+
+    public int getVertexCount() {
+        return positions.length / 3;
+    }
+
+    public int getTriangleCount() {
+        return indices.length / 3;
+    }
+
+    /**
+     * Bytes held by the packed arrays
+     */
+    public long getSizeInBytes() {
+        return 4L * (positions.length + normals.length + indices.length);
+    }
+
+    /**
+     * The same triangles in world space, e.g. for export: positions moved by the
+     * model matrix, normals rotated by it. The matrix must not scale.
+     */
+    public IndexedGeometry toWorld(float[] model) {
+        VertexKernels kernels = VertexKernels.get();
+        PointArrays points = PointArrays.fromPacked(positions);
+        kernels.transform(model, points, points);
+
+        float[] rotation = model.clone();
+        rotation[12] = rotation[13] = rotation[14] = 0.0f;
+        PointArrays directions = PointArrays.fromPacked(normals);
+        kernels.transform(rotation, directions, directions);
+
+        return new IndexedGeometry(points.toPacked(), directions.toPacked(), indices);
+    }
+
+    /**
+     * Total area of all triangles
+     */
+    public float getSurfaceArea() {
+        double area = 0;
+        for (int i = 0; i < indices.length; i += 3) {
+            int a = indices[i] * 3;
+            int b = indices[i + 1] * 3;
+            int c = indices[i + 2] * 3;
+            float ux = positions[b] - positions[a], uy = positions[b + 1] - positions[a + 1], uz = positions[b + 2] - positions[a + 2];
+            float vx = positions[c] - positions[a], vy = positions[c + 1] - positions[a + 1], vz = positions[c + 2] - positions[a + 2];
+            float nx = uy * vz - uz * vy;
+            float ny = uz * vx - ux * vz;
+            float nz = ux * vy - uy * vx;
+            area += 0.5 * Math.sqrt(nx * nx + ny * ny + nz * nz);
+        }
+        return (float) area;
+    }
+
+    @Override
+    public String toString() {
+        return getVertexCount() + " vertices, " + getTriangleCount() + " triangles";
+    }
+}
@@ -0,0 +1,42 @@
+package glx.render;
+
+import glx.mesh.Mesh;
+
+import java.util.Arrays;
+
+/**
+ * Meshes that share one geometry key, drawn from a single set of buffers.
+ * Holds a column-major model matrix per instance, packed 16 floats apart.
+ */
+public class InstanceBatch {
+    public static final int FLOATS_PER_INSTANCE = 16;
+
+    public final GeometryKey key;
+    public MeshGeometry geometry;
+    public Mesh[] meshes = new Mesh[4];
+    public float[] transforms = new float[FLOATS_PER_INSTANCE * 4];
+    public int count = 0;
+
+    public InstanceBatch(GeometryKey key) {
+        this.key = key;
+    }
+
+    void clear() {
+        Arrays.fill(meshes, 0, count, null);
+        geometry = null;
+        count = 0;
+    }
+
+    void add(Mesh mesh, MeshGeometry meshGeometry) {
+        if (count == meshes.length) {
+            meshes = Arrays.copyOf(meshes, count * 2);
+            transforms = Arrays.copyOf(transforms, count * 2 * FLOATS_PER_INSTANCE);
+        }
+        if (geometry == null) {
+            geometry = meshGeometry;
+        }
+        meshes[count] = mesh;
+        InstanceBatcher.modelMatrix(mesh, transforms, count * FLOATS_PER_INSTANCE);
+        count++;
+    }
+}
@@ -0,0 +1,92 @@
+package glx.render;
+
+import glx.mesh.Mesh;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups meshes whose geometry keys are equal, so identical copies differing
+ * only by transform are uploaded once and drawn back to back. Pure bookkeeping,
+ * no GL calls, batches are reused between frames.
+ */
+public class InstanceBatcher {
+    private final Map<GeometryKey, InstanceBatch> batches = new HashMap<>();
+    private final List<InstanceBatch> active = new ArrayList<>();
+
+    /**
+     * Rebuild the batches for this frame's meshes. The returned list and its
+     * batches are only valid until the next call.
+     */
+    public List<InstanceBatch> build(List<Mesh> meshes) {
+        for (InstanceBatch batch : active) {
+            batch.clear();
+        }
+        active.clear();
+
+        for (Mesh mesh : meshes) {
+            GeometryCache cache = mesh.getGeometryCache();
+            MeshGeometry geometry;
+            GeometryKey key;
+            // Read both under the cache lock so the key always describes the geometry
+            synchronized (cache) {
+                geometry = cache.get();
+                key = cache.getKey();
+            }
+
+            InstanceBatch batch = batches.computeIfAbsent(key, InstanceBatch::new);
+            if (batch.count == 0) {
+                active.add(batch);
+            }
+            batch.add(mesh, geometry);
+        }
+
+        if (batches.size() > active.size()) {
+            batches.values().removeIf(batch -> batch.count == 0);
+        }
+        return active;
+    }
+
+    public int getBatchCount() { return active.size(); }
+
+    /**
+     * Write the column-major matrix of translate(position) * rotateX * rotateY * rotateZ,
+     * the same transform Scene.render applies with glTranslatef/glRotatef
+     */
+    public static void modelMatrix(Mesh mesh, float[] out, int offset) {
+        modelMatrix(mesh.getPositionX(), mesh.getPositionY(), mesh.getPositionZ(),
+                mesh.getRotationX(), mesh.getRotationY(), mesh.getRotationZ(), out, offset);
+    }
+
+    public static void modelMatrix(float x, float y, float z, float rotationX, float rotationY, float rotationZ,
+                                   float[] out, int offset) {
+        double rx = Math.toRadians(rotationX);
+        double ry = Math.toRadians(rotationY);
+        double rz = Math.toRadians(rotationZ);
+        float cx = (float) Math.cos(rx), sx = (float) Math.sin(rx);
+        float cy = (float) Math.cos(ry), sy = (float) Math.sin(ry);
+        float cz = (float) Math.cos(rz), sz = (float) Math.sin(rz);
+
+        out[offset] = cy * cz;
+        out[offset + 1] = sx * sy * cz + cx * sz;
+        out[offset + 2] = -cx * sy * cz + sx * sz;
+        out[offset + 3] = 0.0f;
+
+        out[offset + 4] = -cy * sz;
+        out[offset + 5] = -sx * sy * sz + cx * cz;
+        out[offset + 6] = cx * sy * sz + sx * cz;
+        out[offset + 7] = 0.0f;
+
+        out[offset + 8] = sy;
+        out[offset + 9] = -sx * cy;
+        out[offset + 10] = cx * cy;
+        out[offset + 11] = 0.0f;
+
+        out[offset + 12] = x;
+        out[offset + 13] = y;
+        out[offset + 14] = z;
+        out[offset + 15] = 1.0f;
+    }
+}
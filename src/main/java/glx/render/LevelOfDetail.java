@@ -0,0 +1,39 @@
+package glx.render;
+
+/**
+ * Picks a tessellation level for round geometry from its projected size on
+ * screen. Level 0 is full detail, every further level halves the segment
+ * count. A hysteresis band around each threshold keeps meshes near a boundary
+ * from flickering between levels while the camera moves.
+ */
+public final class LevelOfDetail {
+    public static final int LEVELS = 3;
+
+    // Minimum projected radius in pixels for levels 0 and 1
+    private static final float[] MIN_PIXEL_RADIUS = { 120.0f, 40.0f };
+    private static final float HYSTERESIS = 1.2f;
+    private static final int MIN_SEGMENTS = 6;
+
+    private LevelOfDetail() {
+    }
+
+    public static int select(int currentLevel, float pixelRadius) {
+        int level = Math.max(0, Math.min(LEVELS - 1, currentLevel));
+
+        while (level > 0 && pixelRadius > MIN_PIXEL_RADIUS[level - 1] * HYSTERESIS) {
+            level--;
+        }
+        while (level < LEVELS - 1 && pixelRadius < MIN_PIXEL_RADIUS[level] / HYSTERESIS) {
+            level++;
+        }
+
+        return level;
+    }
+
+    /**
+     * Segment count for a level, derived from the full-detail count
+     */
+    public static int segments(int fullDetailSegments, int level) {
+        return Math.max(Math.min(MIN_SEGMENTS, fullDetailSegments), fullDetailSegments >> level);
+    }
+}
@@ -0,0 +1,101 @@
+package glx.render;
+
+import static org.lwjgl.opengl.GL11.*;
+
+/**
+ * Immutable tessellated geometry of one mesh: packed xyz positions, an index
+ * list and the draw commands that slice it into triangle and line ranges.
+ */
+public class MeshGeometry {
+    public final float[] positions;
+    public final int[] indices;
+    public final DrawCommand[] commands;
+    /**
+     * Local-space extent of the positions: minX, minY, minZ, maxX, maxY, maxZ
+     */
+    public final float[] bounds = new float[6];
+
+    public MeshGeometry(float[] positions, int[] indices, DrawCommand[] commands) {
+        this.positions = positions;
+        this.indices = indices;
+        this.commands = commands;
+        computeBounds();
+    }
+
+    private void computeBounds() {
+        if (positions.length == 0) {
+            return;
+        }
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, minZ = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE, maxZ = -Float.MAX_VALUE;
+        for (int i = 0; i < positions.length; i += 3) {
+            minX = Math.min(minX, positions[i]);
+            minY = Math.min(minY, positions[i + 1]);
+            minZ = Math.min(minZ, positions[i + 2]);
+            maxX = Math.max(maxX, positions[i]);
+            maxY = Math.max(maxY, positions[i + 1]);
+            maxZ = Math.max(maxZ, positions[i + 2]);
+        }
+        bounds[0] = minX;
+        bounds[1] = minY;
+        bounds[2] = minZ;
+        bounds[3] = maxX;
+        bounds[4] = maxY;
+        bounds[5] = maxZ;
+    }
+
+    public int getVertexCount() {
+        return positions.length / 3;
+    }
+
+    public int getIndexCount() {
+        return indices.length;
+    }
+
+    /**
+     * Replay the indexed geometry through a sink, e.g. the immediate-mode fallback
+     */
+    public void replay(GeometrySink sink) {
+        for (DrawCommand command : commands) {
+            sink.color(command.r, command.g, command.b);
+            sink.depthTest(command.depthTest);
+            if (command.mode == GL_LINES) {
+                sink.lineWidth(command.lineWidth);
+            }
+
+            sink.begin(command.mode);
+            for (int i = command.first; i < command.first + command.count; i++) {
+                int v = indices[i] * 3;
+                sink.vertex(positions[v], positions[v + 1], positions[v + 2]);
+            }
+            sink.end();
+        }
+        sink.depthTest(true);
+    }
+
+    /**
+     * A contiguous range of indices drawn with one primitive mode and render state
+     */
+    public static class DrawCommand {
+        public final int mode;
+        public final int first;
+        public final int count;
+        public final float r;
+        public final float g;
+        public final float b;
+        public final float lineWidth;
+        public final boolean depthTest;
+
+        public DrawCommand(int mode, int first, int count, float r, float g, float b,
+                           float lineWidth, boolean depthTest) {
+            this.mode = mode;
+            this.first = first;
+            this.count = count;
+            this.r = r;
+            this.g = g;
+            this.b = b;
+            this.lineWidth = lineWidth;
+            this.depthTest = depthTest;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package glx.render;
+
+import glx.mesh.Mesh;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Retained-mode mesh renderer. Geometry is uploaded once per distinct geometry
+ * key into a vertex and index buffer, so identical meshes share buffers and an
+ * edited mesh simply moves to a new key; drawing is then a bind plus a few
+ * glDrawElements calls, once per instance for batches. Uploads are capped per frame
+ * so loading a large scene does not stall a single frame, meshes still waiting
+ * for their upload are drawn through the immediate-mode path meanwhile.
+ *
+ * Must only be used from the thread that owns the GL context.
+ */
+public class MeshRenderer {
+    private static final int EVICT_AFTER_FRAMES = 120;
+
+    private final RenderBackend backend;
+    private final Map<GeometryKey, GpuMesh> gpuMeshes = new HashMap<>();
+
+    private int maxUploadsPerFrame = 256;
+    private long frame = 0;
+    private int uploadsThisFrame = 0;
+    private int immediateDrawsThisFrame = 0;
+    private int batchesThisFrame = 0;
+    private int instancesThisFrame = 0;
+
+    public MeshRenderer(RenderBackend backend) {
+        this.backend = backend;
+    }
+
+    public void beginFrame() {
+        frame++;
+        uploadsThisFrame = 0;
+        immediateDrawsThisFrame = 0;
+        batchesThisFrame = 0;
+        instancesThisFrame = 0;
+    }
+
+    public void draw(Mesh mesh) {
+        GeometryCache cache = mesh.getGeometryCache();
+        MeshGeometry geometry;
+        GeometryKey key;
+        synchronized (cache) {
+            geometry = cache.get();
+            key = cache.getKey();
+        }
+
+        GpuMesh gpuMesh = resolve(key, geometry);
+        if (gpuMesh == null) {
+            immediateDrawsThisFrame++;
+            backend.drawImmediate(geometry);
+            return;
+        }
+        backend.draw(gpuMesh);
+    }
+
+    /**
+     * Draw every instance of a batch from one set of buffers
+     */
+    public void draw(InstanceBatch batch) {
+        batchesThisFrame++;
+        instancesThisFrame += batch.count;
+
+        GpuMesh gpuMesh = resolve(batch.key, batch.geometry);
+        if (gpuMesh == null) {
+            immediateDrawsThisFrame += batch.count;
+            backend.drawImmediate(batch.geometry, batch.transforms, batch.count);
+            return;
+        }
+        backend.drawInstances(gpuMesh, batch.transforms, batch.count);
+    }
+
+    /**
+     * The resident buffers for a key, uploading them if the frame budget allows.
+     * Returns null when the upload has to wait for a later frame.
+     */
+    private GpuMesh resolve(GeometryKey key, MeshGeometry geometry) {
+        GpuMesh gpuMesh = gpuMeshes.get(key);
+        if (gpuMesh == null) {
+            if (uploadsThisFrame >= maxUploadsPerFrame) {
+                return null;
+            }
+            gpuMesh = new GpuMesh();
+            backend.upload(gpuMesh, geometry);
+            gpuMeshes.put(key, gpuMesh);
+            uploadsThisFrame++;
+        }
+        gpuMesh.lastUsedFrame = frame;
+        return gpuMesh;
+    }
+
+    /**
+     * Free the buffers of meshes that have not been drawn for a while
+     */
+    public void endFrame() {
+        if (frame % EVICT_AFTER_FRAMES != 0) {
+            return;
+        }
+        Iterator<GpuMesh> it = gpuMeshes.values().iterator();
+        while (it.hasNext()) {
+            GpuMesh gpuMesh = it.next();
+            if (frame - gpuMesh.lastUsedFrame >= EVICT_AFTER_FRAMES) {
+                backend.delete(gpuMesh);
+                it.remove();
+            }
+        }
+    }
+
+    public void dispose() {
+        for (GpuMesh gpuMesh : gpuMeshes.values()) {
+            backend.delete(gpuMesh);
+        }
+        gpuMeshes.clear();
+        backend.dispose();
+    }
+
+    public void setMaxUploadsPerFrame(int maxUploadsPerFrame) {
+        this.maxUploadsPerFrame = Math.max(1, maxUploadsPerFrame);
+    }
+
+    public int getMaxUploadsPerFrame() { return maxUploadsPerFrame; }
+    public int getUploadsThisFrame() { return uploadsThisFrame; }
+    public int getImmediateDrawsThisFrame() { return immediateDrawsThisFrame; }
+    public int getBatchesThisFrame() { return batchesThisFrame; }
+    public int getInstancesThisFrame() { return instancesThisFrame; }
+    public int getResidentMeshCount() { return gpuMeshes.size(); }
+}
@@ -0,0 +1,127 @@
+package glx.render;
+
+import glx.mesh.Mesh;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optimized geometry and its simplified levels of detail, cached per geometry
+ * key: meshes with equal keys share one entry, and an edited mesh simply moves
+ * to another key. The least recently used entries are dropped once the cache
+ * is full. Safe to use from several threads.
+ */
+public class OptimizedGeometryCache {
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private final Map<GeometryKey, Entry> entries;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    public OptimizedGeometryCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public OptimizedGeometryCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<GeometryKey, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The mesh's indexed geometry at its current level of detail after
+     * {@link GeometryOptimizer#optimize}
+     */
+    public IndexedGeometry getOptimized(Mesh mesh) {
+        Entry entry = entry(mesh);
+        synchronized (entry) {
+            if (entry.optimized == null) {
+                entry.optimized = GeometryOptimizer.optimize(entry.source);
+            }
+            return entry.optimized;
+        }
+    }
+
+    /**
+     * The optimized geometry followed by one simplified version per further level of detail
+     */
+    public List<IndexedGeometry> getLevels(Mesh mesh) {
+        Entry entry = entry(mesh);
+        synchronized (entry) {
+            if (entry.levels == null) {
+                entry.levels = Collections.unmodifiableList(
+                        GeometryOptimizer.generateLevels(entry.source, LevelOfDetail.LEVELS));
+                entry.optimized = entry.levels.get(0);
+            }
+            return entry.levels;
+        }
+    }
+
+    private Entry entry(Mesh mesh) {
+        GeometryCache cache = mesh.getGeometryCache();
+        // The render thread changes the level without a lock, read it once for both
+        int level = mesh.getLodLevel();
+        IndexedGeometry source;
+        GeometryKey key;
+        // Under the cache lock so the key always describes the geometry
+        synchronized (cache) {
+            source = cache.getIndexed(level);
+            key = cache.getKey(level);
+        }
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses++;
+                entry = new Entry(source);
+                entries.put(key, entry);
+            } else {
+                hits++;
+            }
+            return entry;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        synchronized (entries) {
+            return hits;
+        }
+    }
+
+    public long getMisses() {
+        synchronized (entries) {
+            return misses;
+        }
+    }
+
+    /**
+     * Results are built outside the map lock, under the entry's own
+     */
+    private static class Entry {
+        final IndexedGeometry source;
+        IndexedGeometry optimized;
+        List<IndexedGeometry> levels;
+
+        Entry(IndexedGeometry source) {
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package glx.render;
+
+import java.util.Arrays;
+
+/**
+ * Growable struct-of-arrays point buffer: one array per coordinate, so the
+ * bulk kernels in {@link VertexKernels} can load a run of x values at once.
+ * The arrays may be longer than count.
+ */
+public class PointArrays {
+    public float[] x;
+    public float[] y;
+    public float[] z;
+    public int count;
+
+    public PointArrays(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        z = new float[capacity];
+    }
+
+    /**
+     * Split packed xyz triples, as in MeshGeometry and IndexedGeometry
+     */
+    public static PointArrays fromPacked(float[] xyz) {
+        PointArrays points = new PointArrays(xyz.length / 3);
+        points.count = xyz.length / 3;
+        for (int i = 0, p = 0; i < points.count; i++, p += 3) {
+            points.x[i] = xyz[p];
+            points.y[i] = xyz[p + 1];
+            points.z[i] = xyz[p + 2];
+        }
+        return points;
+    }
+
+    public float[] toPacked() {
+        float[] xyz = new float[count * 3];
+        for (int i = 0, p = 0; i < count; i++, p += 3) {
+            xyz[p] = x[i];
+            xyz[p + 1] = y[i];
+            xyz[p + 2] = z[i];
+        }
+        return xyz;
+    }
+
+    /**
+     * Make room for count points, the contents are kept
+     */
+    public void ensureCapacity(int count) {
+        if (count > x.length) {
+            int capacity = Math.max(count, x.length * 2);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            z = Arrays.copyOf(z, capacity);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package glx.render;
+
+/**
+ * The GPU operations the retained-mode renderer needs. Keeping them behind an
+ * interface lets the upload bookkeeping run without a GL context.
+ */
+public interface RenderBackend {
+    /**
+     * Upload geometry into the mesh's buffers, creating them on first use
+     */
+    void upload(GpuMesh mesh, MeshGeometry geometry);
+
+    void draw(GpuMesh mesh);
+
+    /**
+     * Draw the mesh once per instance, each multiplied by its model matrix
+     * (16 floats per instance in transforms)
+     */
+    void drawInstances(GpuMesh mesh, float[] transforms, int count);
+
+    /**
+     * Draw through the immediate-mode path, for geometry not uploaded yet
+     */
+    void drawImmediate(MeshGeometry geometry);
+
+    /**
+     * Instanced draw through the immediate-mode path, for geometry not uploaded yet
+     */
+    void drawImmediate(MeshGeometry geometry, float[] transforms, int count);
+
+    void delete(GpuMesh mesh);
+
+    /**
+     * Release resources owned by the backend itself
+     */
+    void dispose();
+}
@@ -0,0 +1,87 @@
+package glx.render;
+
+/**
+ * Plain loop versions of the vertex kernels. The range methods also finish the
+ * tails the vector kernels leave over.
+ */
+class ScalarKernels extends VertexKernels {
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public void torus(float majorRadius, float minorRadius, CircleTable major, CircleTable minor, PointArrays out) {
+        int columns = minor.segments + 1;
+        out.ensureCapacity((major.segments + 1) * columns);
+        out.count = (major.segments + 1) * columns;
+        for (int i = 0; i <= major.segments; i++) {
+            torusRow(majorRadius, minorRadius, major.cosines()[i], major.sines()[i], minor, out, i * columns, 0);
+        }
+    }
+
+    /**
+     * Minor circle points from index j on into one grid row starting at offset
+     */
+    static void torusRow(float majorRadius, float minorRadius, float cos, float sin, CircleTable minor,
+                         PointArrays out, int offset, int j) {
+        float[] minorCos = minor.cosines();
+        float[] minorSin = minor.sines();
+        for (; j <= minor.segments; j++) {
+            float ring = majorRadius + minorRadius * minorCos[j];
+            out.x[offset + j] = ring * cos;
+            out.y[offset + j] = minorRadius * minorSin[j];
+            out.z[offset + j] = ring * sin;
+        }
+    }
+
+    @Override
+    public void transform(float[] m, PointArrays in, PointArrays out) {
+        out.ensureCapacity(in.count);
+        transform(m, in, out, 0, in.count);
+        out.count = in.count;
+    }
+
+    static void transform(float[] m, PointArrays in, PointArrays out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float x = in.x[i], y = in.y[i], z = in.z[i];
+            out.x[i] = m[0] * x + m[4] * y + m[8] * z + m[12];
+            out.y[i] = m[1] * x + m[5] * y + m[9] * z + m[13];
+            out.z[i] = m[2] * x + m[6] * y + m[10] * z + m[14];
+        }
+    }
+
+    @Override
+    public int projectBounds(float[] m, PointArrays points, int viewportWidth, int viewportHeight, float[] out) {
+        out[0] = out[1] = Float.POSITIVE_INFINITY;
+        out[2] = out[3] = Float.NEGATIVE_INFINITY;
+        return projectBounds(m, points, 0, points.count, viewportWidth, viewportHeight, out);
+    }
+
+    /**
+     * Grow the rectangle in out by the points in the range
+     */
+    static int projectBounds(float[] m, PointArrays points, int from, int to, int viewportWidth, int viewportHeight,
+                             float[] out) {
+        int inFront = 0;
+        for (int i = from; i < to; i++) {
+            float x = points.x[i], y = points.y[i], z = points.z[i];
+            float cw = m[3] * x + m[7] * y + m[11] * z + m[15];
+            if (!(cw > 0.0f)) {
+                continue;
+            }
+            float cx = m[0] * x + m[4] * y + m[8] * z + m[12];
+            float cy = m[1] * x + m[5] * y + m[9] * z + m[13];
+            float windowX = viewportWidth * (cx / cw + 1.0f) / 2.0f;
+            float windowY = viewportHeight * (1.0f - (cy / cw + 1.0f) / 2.0f);
+
+            out[0] = Math.min(out[0], windowX);
+            out[1] = Math.min(out[1], windowY);
+            out[2] = Math.max(out[2], windowX);
+            out[3] = Math.max(out[3], windowY);
+            inFront++;
+        }
+        return inFront;
+    }
+}
@@ -0,0 +1,100 @@
+package glx.render;
+
+import glx.mesh.Mesh;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tessellates many meshes at once on a work-stealing pool, e.g. right after a
+ * load, so the render thread finds their geometry cached instead of building
+ * it mesh by mesh in the first frame. Every mesh is tessellated independently
+ * into its worker's thread-local capture buffers and stored in the mesh's own
+ * {@link GeometryCache}; meshes whose cache is already current cost a lookup.
+ */
+public class SceneTessellator {
+    // Meshes tessellated by one task without splitting further
+    private static final int LEAF_SIZE = 8;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Tessellate on the common pool
+     */
+    public SceneTessellator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SceneTessellator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Fill the geometry caches of the meshes at their current level of detail and wait
+     */
+    public void tessellate(List<Mesh> meshes) {
+        tessellate(meshes, false);
+    }
+
+    /**
+     * Like {@link #tessellate(List)}, also building the indexed triangle meshes for export
+     */
+    public void tessellate(List<Mesh> meshes, boolean indexed) {
+        if (meshes.isEmpty()) {
+            return;
+        }
+        pool.invoke(new Range(meshes, 0, meshes.size(), indexed, false));
+    }
+
+    /**
+     * Fill the geometry caches of the meshes at every level of detail the
+     * renderer may pick for them, without waiting. The meshes must not be
+     * visible to the render thread yet, the future completes on a pool thread.
+     */
+    public CompletableFuture<Void> tessellateAllLevels(List<Mesh> meshes) {
+        return CompletableFuture.runAsync(() -> new Range(meshes, 0, meshes.size(), false, true).invoke(), pool);
+    }
+
+    private static class Range extends RecursiveAction {
+        final List<Mesh> meshes;
+        final int from;
+        final int to;
+        final boolean indexed;
+        final boolean allLevels;
+
+        Range(List<Mesh> meshes, int from, int to, boolean indexed, boolean allLevels) {
+            this.meshes = meshes;
+            this.from = from;
+            this.to = to;
+            this.indexed = indexed;
+            this.allLevels = allLevels;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    Mesh mesh = meshes.get(i);
+                    GeometryCache cache = mesh.getGeometryCache();
+                    if (allLevels) {
+                        // Meshes without round parts always render at level 0
+                        int levels = mesh.hasLevelOfDetail() ? LevelOfDetail.LEVELS : 1;
+                        for (int level = 0; level < levels; level++) {
+                            cache.get(level);
+                        }
+                    } else if (indexed) {
+                        cache.getIndexed();
+                    } else {
+                        cache.get();
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Range(meshes, from, middle, indexed, allLevels),
+                    new Range(meshes, middle, to, indexed, allLevels));
+        }
+    }
+}
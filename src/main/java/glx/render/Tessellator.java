@@ -0,0 +1,147 @@
+package glx.render;
+
+import glx.mesh.Mesh;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.*;
+
+/**
+ * Turns the surfaces a mesh and its shapes emit into an {@link IndexedGeometry}.
+ * Works on the captured {@link MeshGeometry}, so the primitive conversion is the
+ * one rendering uses: triangle ranges are kept, edge lines are dropped and
+ * degenerate triangles skipped.
+ *
+ * Corners within the {@link VertexWelder} tolerance share a vertex as long as
+ * their faces meet at less than the crease angle; sharper edges, like the
+ * corners of a cube, get a vertex per side so normals stay flat. Vertex
+ * normals are the area-weighted average of the faces sharing the vertex and
+ * follow the emitted winding. The scratch arrays are kept between calls, an
+ * instance is not thread safe.
+ */
+public class Tessellator {
+    public static final float DEFAULT_CREASE_ANGLE = 45.0f;
+
+    private static final ThreadLocal<Tessellator> INSTANCE = ThreadLocal.withInitial(Tessellator::new);
+
+    // Holds the positions and the unit normal of the face that created each vertex
+    private final VertexWelder welder;
+
+    // Accumulated area-weighted normals, then normalized
+    private float[] normals = new float[3 * 256];
+    private int vertexCount = 0;
+    private int[] indices = new int[512];
+    private int indexCount = 0;
+
+    public Tessellator() {
+        this(DEFAULT_CREASE_ANGLE);
+    }
+
+    public Tessellator(float creaseAngle) {
+        this(creaseAngle, VertexWelder.DEFAULT_TOLERANCE);
+    }
+
+    public Tessellator(float creaseAngle, float tolerance) {
+        this.welder = new VertexWelder(tolerance, creaseAngle);
+    }
+
+    /**
+     * Indexed geometry of a mesh at its current level of detail, cached with its render geometry
+     */
+    public static IndexedGeometry tessellate(Mesh mesh) {
+        return mesh.getGeometryCache().getIndexed();
+    }
+
+    /**
+     * Convert captured geometry with a per-thread tessellator and the default crease angle
+     */
+    public static IndexedGeometry tessellate(MeshGeometry geometry) {
+        return INSTANCE.get().build(geometry);
+    }
+
+    public IndexedGeometry build(MeshGeometry geometry) {
+        reset();
+        float[] source = geometry.positions;
+        int[] sourceIndices = geometry.indices;
+
+        for (MeshGeometry.DrawCommand command : geometry.commands) {
+            if (command.mode != GL_TRIANGLES) {
+                continue;
+            }
+            for (int i = command.first; i + 2 < command.first + command.count; i += 3) {
+                addTriangle(source, sourceIndices[i] * 3, sourceIndices[i + 1] * 3, sourceIndices[i + 2] * 3);
+            }
+        }
+
+        float[] unitNormals = Arrays.copyOf(normals, vertexCount * 3);
+        for (int v = 0; v < vertexCount * 3; v += 3) {
+            float x = unitNormals[v], y = unitNormals[v + 1], z = unitNormals[v + 2];
+            float length = (float) Math.sqrt(x * x + y * y + z * z);
+            if (length > 0) {
+                unitNormals[v] = x / length;
+                unitNormals[v + 1] = y / length;
+                unitNormals[v + 2] = z / length;
+            } else {
+                // Opposite faces cancelled out, fall back to the first face
+                welder.getNormal(v / 3, unitNormals, v);
+            }
+        }
+
+        return new IndexedGeometry(
+                welder.copyPositions(),
+                unitNormals,
+                Arrays.copyOf(indices, indexCount));
+    }
+
+    private void reset() {
+        vertexCount = 0;
+        indexCount = 0;
+        welder.reset();
+    }
+
+    private void addTriangle(float[] source, int a, int b, int c) {
+        float ux = source[b] - source[a], uy = source[b + 1] - source[a + 1], uz = source[b + 2] - source[a + 2];
+        float vx = source[c] - source[a], vy = source[c + 1] - source[a + 1], vz = source[c + 2] - source[a + 2];
+        // Twice the area, used as the weight of this face in the vertex normals
+        float nx = uy * vz - uz * vy;
+        float ny = uz * vx - ux * vz;
+        float nz = ux * vy - uy * vx;
+        float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (!(length > 0)) {
+            return;
+        }
+
+        if (indexCount + 3 > indices.length) {
+            indices = Arrays.copyOf(indices, indices.length * 2);
+        }
+        float fx = nx / length, fy = ny / length, fz = nz / length;
+        int va = addCorner(source, a, fx, fy, fz, nx, ny, nz);
+        int vb = addCorner(source, b, fx, fy, fz, nx, ny, nz);
+        int vc = addCorner(source, c, fx, fy, fz, nx, ny, nz);
+        if (va == vb || vb == vc || vc == va) {
+            // Smaller than the tolerance, the corners welded together: take the face back out
+            indexCount -= 3;
+            for (int vertex : new int[] { va, vb, vc }) {
+                normals[vertex * 3] -= nx;
+                normals[vertex * 3 + 1] -= ny;
+                normals[vertex * 3 + 2] -= nz;
+            }
+        }
+    }
+
+    private int addCorner(float[] source, int corner, float fx, float fy, float fz, float nx, float ny, float nz) {
+        int vertex = welder.add(source[corner], source[corner + 1], source[corner + 2], fx, fy, fz);
+        if (vertex == vertexCount) {
+            vertexCount++;
+            if (vertexCount * 3 > normals.length) {
+                normals = Arrays.copyOf(normals, normals.length * 2);
+            }
+            normals[vertex * 3] = normals[vertex * 3 + 1] = normals[vertex * 3 + 2] = 0;
+        }
+        normals[vertex * 3] += nx;
+        normals[vertex * 3 + 1] += ny;
+        normals[vertex * 3 + 2] += nz;
+        indices[indexCount++] = vertex;
+        return vertex;
+    }
+}
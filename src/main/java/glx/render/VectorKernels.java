@@ -0,0 +1,103 @@
+package glx.render;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API versions of the vertex kernels at the platform's preferred width.
+ * Only loaded through VertexKernels.get() once the incubator module is known to
+ * be present; leftover elements go through the scalar range methods.
+ */
+class VectorKernels extends VertexKernels {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public String getName() {
+        return "vector" + SPECIES.length() + "x32";
+    }
+
+    @Override
+    public void torus(float majorRadius, float minorRadius, CircleTable major, CircleTable minor, PointArrays out) {
+        int columns = minor.segments + 1;
+        out.ensureCapacity((major.segments + 1) * columns);
+        out.count = (major.segments + 1) * columns;
+        float[] minorCos = minor.cosines();
+        float[] minorSin = minor.sines();
+        int bound = SPECIES.loopBound(columns);
+
+        for (int i = 0; i <= major.segments; i++) {
+            float cos = major.cosines()[i];
+            float sin = major.sines()[i];
+            int offset = i * columns;
+            torusRow(majorRadius, minorRadius, cos, sin, minorCos, minorSin, out.x, out.y, out.z, offset, bound);
+            ScalarKernels.torusRow(majorRadius, minorRadius, cos, sin, minor, out, offset, bound);
+        }
+    }
+
+    private static void torusRow(float majorRadius, float minorRadius, float cos, float sin,
+                                 float[] minorCos, float[] minorSin, float[] x, float[] y, float[] z,
+                                 int offset, int bound) {
+        for (int j = 0; j < bound; j += SPECIES.length()) {
+            FloatVector ring = FloatVector.fromArray(SPECIES, minorCos, j).mul(minorRadius).add(majorRadius);
+            ring.mul(cos).intoArray(x, offset + j);
+            FloatVector.fromArray(SPECIES, minorSin, j).mul(minorRadius).intoArray(y, offset + j);
+            ring.mul(sin).intoArray(z, offset + j);
+        }
+    }
+
+    @Override
+    public void transform(float[] m, PointArrays in, PointArrays out) {
+        out.ensureCapacity(in.count);
+        int bound = SPECIES.loopBound(in.count);
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            FloatVector x = FloatVector.fromArray(SPECIES, in.x, i);
+            FloatVector y = FloatVector.fromArray(SPECIES, in.y, i);
+            FloatVector z = FloatVector.fromArray(SPECIES, in.z, i);
+            x.mul(m[0]).add(y.mul(m[4])).add(z.mul(m[8])).add(m[12]).intoArray(out.x, i);
+            x.mul(m[1]).add(y.mul(m[5])).add(z.mul(m[9])).add(m[13]).intoArray(out.y, i);
+            x.mul(m[2]).add(y.mul(m[6])).add(z.mul(m[10])).add(m[14]).intoArray(out.z, i);
+        }
+        ScalarKernels.transform(m, in, out, bound, in.count);
+        out.count = in.count;
+    }
+
+    @Override
+    public int projectBounds(float[] m, PointArrays points, int viewportWidth, int viewportHeight, float[] out) {
+        FloatVector positive = FloatVector.broadcast(SPECIES, Float.POSITIVE_INFINITY);
+        FloatVector negative = FloatVector.broadcast(SPECIES, Float.NEGATIVE_INFINITY);
+        FloatVector minX = positive;
+        FloatVector minY = positive;
+        FloatVector maxX = negative;
+        FloatVector maxY = negative;
+        int inFront = 0;
+
+        int bound = SPECIES.loopBound(points.count);
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            FloatVector x = FloatVector.fromArray(SPECIES, points.x, i);
+            FloatVector y = FloatVector.fromArray(SPECIES, points.y, i);
+            FloatVector z = FloatVector.fromArray(SPECIES, points.z, i);
+            FloatVector cw = x.mul(m[3]).add(y.mul(m[7])).add(z.mul(m[11])).add(m[15]);
+            VectorMask<Float> behind = cw.compare(VectorOperators.GT, 0.0f).not();
+            FloatVector cx = x.mul(m[0]).add(y.mul(m[4])).add(z.mul(m[8])).add(m[12]);
+            FloatVector cy = x.mul(m[1]).add(y.mul(m[5])).add(z.mul(m[9])).add(m[13]);
+            FloatVector windowX = cx.div(cw).add(1.0f).mul((float) viewportWidth).div(2.0f);
+            FloatVector windowY = FloatVector.broadcast(SPECIES, 1.0f)
+                    .sub(cy.div(cw).add(1.0f).div(2.0f)).mul((float) viewportHeight);
+
+            // Lanes behind the camera are replaced by values that never win
+            minX = minX.min(windowX.blend(positive, behind));
+            minY = minY.min(windowY.blend(positive, behind));
+            maxX = maxX.max(windowX.blend(negative, behind));
+            maxY = maxY.max(windowY.blend(negative, behind));
+            inFront += SPECIES.length() - behind.trueCount();
+        }
+
+        out[0] = minX.reduceLanes(VectorOperators.MIN);
+        out[1] = minY.reduceLanes(VectorOperators.MIN);
+        out[2] = maxX.reduceLanes(VectorOperators.MAX);
+        out[3] = maxY.reduceLanes(VectorOperators.MAX);
+        return inFront + ScalarKernels.projectBounds(m, points, bound, points.count, viewportWidth, viewportHeight, out);
+    }
+}
@@ -0,0 +1,66 @@
+package glx.render;
+
+/**
+ * Bulk per-vertex math over {@link PointArrays}. {@link #get()} returns SIMD
+ * kernels built on the incubating Vector API when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, plain loops otherwise. Both give
+ * bit-identical results: the vector kernels do the same float operations in
+ * the same order, without fused multiply-adds.
+ *
+ * Matrices are column-major 4x4 arrays as used by Camera and InstanceBatcher.
+ */
+public abstract class VertexKernels {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final VertexKernels SCALAR = new ScalarKernels();
+    private static final VertexKernels DEFAULT = select();
+
+    /**
+     * The fastest kernels available, set -Dglx.scalarKernels=true to force the fallback
+     */
+    public static VertexKernels get() {
+        return DEFAULT;
+    }
+
+    public static VertexKernels scalar() {
+        return SCALAR;
+    }
+
+    private static VertexKernels select() {
+        if (Boolean.getBoolean("glx.scalarKernels") || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            // Loaded by name so the scalar path never links against the incubator module
+            return (VertexKernels) Class.forName("glx.render.VectorKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+
+    public abstract String getName();
+
+    /**
+     * Points of a torus around the y axis on a (major.segments + 1) x (minor.segments + 1)
+     * grid, point (i, j) at index i * (minor.segments + 1) + j
+     */
+    public abstract void torus(float majorRadius, float minorRadius, CircleTable major, CircleTable minor,
+                               PointArrays out);
+
+    /**
+     * out = matrix * (x, y, z, 1) for an affine matrix; out may be the input
+     */
+    public abstract void transform(float[] matrix, PointArrays in, PointArrays out);
+
+    /**
+     * Window-space rectangle around the points in front of the camera, projected
+     * like Camera.project: minX, minY, maxX, maxY into out. Returns how many
+     * points were in front; out holds infinities if none was.
+     */
+    public abstract int projectBounds(float[] matrix, PointArrays points, int viewportWidth, int viewportHeight,
+                                      float[] out);
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
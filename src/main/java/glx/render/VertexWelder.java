@@ -0,0 +1,195 @@
+package glx.render;
+
+import java.util.Arrays;
+
+/**
+ * Collapses duplicate vertices into shared ones. A vertex is reused when it
+ * lies within the position tolerance of the new one and its face normal is
+ * within the crease angle, so flat faces meeting at an edge keep separate
+ * vertices while curved surfaces share them.
+ *
+ * Vertices are found through a grid of cells twice the tolerance wide, kept in
+ * an open-addressing hash table of primitive arrays: a point within tolerance
+ * of another lies in the same cell or in the neighbour on the side the other
+ * point is nearest to, so at most eight cells are searched and nothing is boxed.
+ * Not thread safe, the arrays are reused after {@link #reset()}.
+ */
+public class VertexWelder {
+    public static final float DEFAULT_TOLERANCE = 1e-5f;
+
+    private static final int EMPTY = -1;
+
+    private final float toleranceSquared;
+    private final float cellSize;
+    private final boolean searchNeighbours;
+    private final float creaseCos;
+
+    // Hash table from grid cell to the first and last vertex in it, first is EMPTY for free slots
+    private int[] cellX = new int[256];
+    private int[] cellY = new int[256];
+    private int[] cellZ = new int[256];
+    private int[] first = new int[256];
+    private int[] last = new int[256];
+    private int cellCount = 0;
+
+    private float[] positions = new float[3 * 256];
+    // Normal each vertex was created with, compared against the crease angle
+    private float[] normals = new float[3 * 256];
+    // Next vertex in the same cell, EMPTY ends the chain
+    private int[] nextInCell = new int[256];
+    private int vertexCount = 0;
+
+    public VertexWelder() {
+        this(DEFAULT_TOLERANCE, Tessellator.DEFAULT_CREASE_ANGLE);
+    }
+
+    /**
+     * A tolerance of 0 welds identical positions only, a crease angle of 180
+     * degrees ignores normals
+     */
+    public VertexWelder(float tolerance, float creaseAngle) {
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("Invalid tolerance: " + tolerance);
+        }
+        this.toleranceSquared = tolerance * tolerance;
+        this.searchNeighbours = tolerance > 0;
+        this.cellSize = searchNeighbours ? 2 * tolerance : 1e-3f;
+        this.creaseCos = creaseAngle >= 180 ? Float.NEGATIVE_INFINITY : (float) Math.cos(Math.toRadians(creaseAngle));
+        Arrays.fill(first, EMPTY);
+    }
+
+    public void reset() {
+        if (cellCount > 0) {
+            Arrays.fill(first, EMPTY);
+        }
+        cellCount = 0;
+        vertexCount = 0;
+    }
+
+    /**
+     * The index of a matching vertex, or of a new one with this position and normal
+     */
+    public int add(float x, float y, float z, float nx, float ny, float nz) {
+        // Adding zero turns -0.0 into 0.0 for the stored position
+        x += 0.0f;
+        y += 0.0f;
+        z += 0.0f;
+
+        double gx = x / (double) cellSize, gy = y / (double) cellSize, gz = z / (double) cellSize;
+        int cx = (int) Math.floor(gx), cy = (int) Math.floor(gy), cz = (int) Math.floor(gz);
+        int neighbours = searchNeighbours ? 8 : 1;
+        int dx = gx - cx < 0.5 ? -1 : 1;
+        int dy = gy - cy < 0.5 ? -1 : 1;
+        int dz = gz - cz < 0.5 ? -1 : 1;
+
+        for (int n = 0; n < neighbours; n++) {
+            int slot = find(cx + (n & 1) * dx, cy + (n >> 1 & 1) * dy, cz + (n >> 2 & 1) * dz);
+            for (int v = first[slot]; v != EMPTY; v = nextInCell[v]) {
+                if (matches(v, x, y, z, nx, ny, nz)) {
+                    return v;
+                }
+            }
+        }
+
+        int vertex = vertexCount++;
+        ensureVertexCapacity();
+        int p = vertex * 3;
+        positions[p] = x;
+        positions[p + 1] = y;
+        positions[p + 2] = z;
+        normals[p] = nx;
+        normals[p + 1] = ny;
+        normals[p + 2] = nz;
+        nextInCell[vertex] = EMPTY;
+
+        int slot = find(cx, cy, cz);
+        if (first[slot] == EMPTY) {
+            cellX[slot] = cx;
+            cellY[slot] = cy;
+            cellZ[slot] = cz;
+            first[slot] = vertex;
+            cellCount++;
+            if (cellCount * 2 > first.length) {
+                grow();
+            }
+        } else {
+            // Appended so the oldest matching vertex is always found first
+            nextInCell[last[slot]] = vertex;
+        }
+        last[find(cx, cy, cz)] = vertex;
+        return vertex;
+    }
+
+    private boolean matches(int v, float x, float y, float z, float nx, float ny, float nz) {
+        int p = v * 3;
+        float ex = positions[p] - x, ey = positions[p + 1] - y, ez = positions[p + 2] - z;
+        return ex * ex + ey * ey + ez * ez <= toleranceSquared &&
+                normals[p] * nx + normals[p + 1] * ny + normals[p + 2] * nz >= creaseCos;
+    }
+
+    /**
+     * The slot holding a cell, or the free slot where it would go
+     */
+    private int find(int x, int y, int z) {
+        int mask = first.length - 1;
+        int slot = hash(x, y, z) & mask;
+        while (first[slot] != EMPTY && (cellX[slot] != x || cellY[slot] != y || cellZ[slot] != z)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(int x, int y, int z) {
+        int h = x * 0x9E3779B1 + y * 0x85EBCA77 + z * 0xC2B2AE3D;
+        return h ^ (h >>> 15);
+    }
+
+    private void grow() {
+        int[] oldX = cellX, oldY = cellY, oldZ = cellZ, oldFirst = first, oldLast = last;
+        int capacity = oldFirst.length * 2;
+        cellX = new int[capacity];
+        cellY = new int[capacity];
+        cellZ = new int[capacity];
+        first = new int[capacity];
+        last = new int[capacity];
+        Arrays.fill(first, EMPTY);
+
+        for (int i = 0; i < oldFirst.length; i++) {
+            if (oldFirst[i] != EMPTY) {
+                int slot = find(oldX[i], oldY[i], oldZ[i]);
+                cellX[slot] = oldX[i];
+                cellY[slot] = oldY[i];
+                cellZ[slot] = oldZ[i];
+                first[slot] = oldFirst[i];
+                last[slot] = oldLast[i];
+            }
+        }
+    }
+
+    private void ensureVertexCapacity() {
+        if (vertexCount > nextInCell.length) {
+            int capacity = nextInCell.length * 2;
+            positions = Arrays.copyOf(positions, capacity * 3);
+            normals = Arrays.copyOf(normals, capacity * 3);
+            nextInCell = Arrays.copyOf(nextInCell, capacity);
+        }
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Packed xyz of the vertices added so far
+     */
+    public float[] copyPositions() {
+        return Arrays.copyOf(positions, vertexCount * 3);
+    }
+
+    /**
+     * The normal vertex v was created with
+     */
+    public void getNormal(int v, float[] out, int offset) {
+        System.arraycopy(normals, v * 3, out, offset, 3);
+    }
+}
@@ -1,6 +1,9 @@
 package glx.shape;
 
 import glx.mesh.Mesh;
+import glx.render.CircleTable;
+import glx.render.GeometrySink;
+import glx.render.LevelOfDetail;
 import static org.lwjgl.opengl.GL11.*;
 
 public class CircleShape extends PlaneShape {
@@ -11,345 +14,395 @@ public class CircleShape extends PlaneShape {
     }
 
     @Override
-    public void draw(Mesh mesh) {
+    public boolean hasLevelOfDetail() {
+        return true;
+    }
+
+    @Override
+    public void draw(Mesh mesh, GeometrySink sink, int level) {
         if (!intruded && !extruded) {
             float r = radius;
+            int segments = LevelOfDetail.segments(SEGMENTS, level);
+            CircleTable circle = CircleTable.of(segments);
+            float rad = (float) Math.toRadians(rotation);
+            float cosRot = (float) Math.cos(rad);
+            float sinRot = (float) Math.sin(rad);
 
-            glColor3f(0.3f, 0.3f, 0.35f);
-            glDisable(GL_DEPTH_TEST);
-            glBegin(GL_TRIANGLE_FAN);
+            sink.color(0.3f, 0.3f, 0.35f);
+            sink.depthTest(false);
+            sink.begin(GL_TRIANGLE_FAN);
 
             switch (plane) {
                 case "Front":
-                    glVertex3f(x, y, mesh.length / 2.0f + 0.02f);
-                    for (int i = 0; i <= SEGMENTS; i++) {
-                        float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                        glVertex3f(x + r * (float) Math.cos(angle), y + r * (float) Math.sin(angle), mesh.length / 2.0f + 0.02f);
+                    sink.vertex(x, y, mesh.length / 2.0f + 0.02f);
+                    for (int i = 0; i <= segments; i++) {
+                        float cos = circle.cos(i, cosRot, sinRot);
+                        float sin = circle.sin(i, cosRot, sinRot);
+                        sink.vertex(x + r * cos, y + r * sin, mesh.length / 2.0f + 0.02f);
                     }
                     break;
                 case "Back":
-                    glVertex3f(x, y, -mesh.length / 2.0f - 0.02f);
-                    for (int i = SEGMENTS; i >= 0; i--) {
-                        float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                        glVertex3f(x + r * (float) Math.cos(angle), y + r * (float) Math.sin(angle), -mesh.length / 2.0f - 0.02f);
+                    sink.vertex(x, y, -mesh.length / 2.0f - 0.02f);
+                    for (int i = segments; i >= 0; i--) {
+                        float cos = circle.cos(i, cosRot, sinRot);
+                        float sin = circle.sin(i, cosRot, sinRot);
+                        sink.vertex(x + r * cos, y + r * sin, -mesh.length / 2.0f - 0.02f);
                     }
                     break;
                 case "Top":
-                    glVertex3f(x, mesh.height / 2.0f + 0.02f, y);
-                    for (int i = 0; i <= SEGMENTS; i++) {
-                        float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                        glVertex3f(x + r * (float) Math.cos(angle), mesh.height / 2.0f + 0.02f, y + r * (float) Math.sin(angle));
+                    sink.vertex(x, mesh.height / 2.0f + 0.02f, y);
+                    for (int i = 0; i <= segments; i++) {
+                        float cos = circle.cos(i, cosRot, sinRot);
+                        float sin = circle.sin(i, cosRot, sinRot);
+                        sink.vertex(x + r * cos, mesh.height / 2.0f + 0.02f, y + r * sin);
                     }
                     break;
                 case "Bottom":
-                    glVertex3f(x, -mesh.height / 2.0f - 0.02f, y);
-                    for (int i = SEGMENTS; i >= 0; i--) {
-                        float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                        glVertex3f(x + r * (float) Math.cos(angle), -mesh.height / 2.0f - 0.02f, y + r * (float) Math.sin(angle));
+                    sink.vertex(x, -mesh.height / 2.0f - 0.02f, y);
+                    for (int i = segments; i >= 0; i--) {
+                        float cos = circle.cos(i, cosRot, sinRot);
+                        float sin = circle.sin(i, cosRot, sinRot);
+                        sink.vertex(x + r * cos, -mesh.height / 2.0f - 0.02f, y + r * sin);
                     }
                     break;
                 case "Right":
-                    glVertex3f(mesh.width / 2.0f + 0.02f, y, x);
-                    for (int i = 0; i <= SEGMENTS; i++) {
-                        float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                        glVertex3f(mesh.width / 2.0f + 0.02f, y + r * (float) Math.cos(angle), x + r * (float) Math.sin(angle));
+                    sink.vertex(mesh.width / 2.0f + 0.02f, y, x);
+                    for (int i = 0; i <= segments; i++) {
+                        float cos = circle.cos(i, cosRot, sinRot);
+                        float sin = circle.sin(i, cosRot, sinRot);
+                        sink.vertex(mesh.width / 2.0f + 0.02f, y + r * cos, x + r * sin);
                     }
                     break;
                 case "Left":
-                    glVertex3f(-mesh.width / 2.0f - 0.02f, y, x);
-                    for (int i = SEGMENTS; i >= 0; i--) {
-                        float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                        glVertex3f(-mesh.width / 2.0f - 0.02f, y + r * (float) Math.cos(angle), x + r * (float) Math.sin(angle));
+                    sink.vertex(-mesh.width / 2.0f - 0.02f, y, x);
+                    for (int i = segments; i >= 0; i--) {
+                        float cos = circle.cos(i, cosRot, sinRot);
+                        float sin = circle.sin(i, cosRot, sinRot);
+                        sink.vertex(-mesh.width / 2.0f - 0.02f, y + r * cos, x + r * sin);
                     }
                     break;
             }
 
-            glEnd();
-            glEnable(GL_DEPTH_TEST);
+            sink.end();
+            sink.depthTest(true);
         }
 
         if (depth > 0 && intruded) {
-            drawIntrusionCylinder(mesh);
+            drawIntrusionCylinder(mesh, sink, level);
         }
 
         if (depth > 0 && extruded) {
-            drawExtrusionCylinder(mesh);
+            drawExtrusionCylinder(mesh, sink, level);
         }
     }
 
-    private void drawIntrusionCylinder(Mesh mesh) {
+    private void drawIntrusionCylinder(Mesh mesh, GeometrySink sink, int level) {
         float r = radius;
         float d = depth;
+        int segments = LevelOfDetail.segments(SEGMENTS, level);
+        CircleTable circle = CircleTable.of(segments);
+        float rad = (float) Math.toRadians(rotation);
+        float cosRot = (float) Math.cos(rad);
+        float sinRot = (float) Math.sin(rad);
 
-        glDisable(GL_DEPTH_TEST);
-        glColor3f(0.2f, 0.2f, 0.2f);
+        sink.depthTest(false);
+        sink.color(0.2f, 0.2f, 0.2f);
 
         switch (plane) {
             case "Front":
                 float zFront = mesh.length / 2.0f;
-                glBegin(GL_QUAD_STRIP);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    float cx = x + r * (float) Math.cos(angle);
-                    float cy = y + r * (float) Math.sin(angle);
-                    glVertex3f(cx, cy, zFront);
-                    glVertex3f(cx, cy, zFront - d);
+                sink.begin(GL_QUAD_STRIP);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    float cx = x + r * cos;
+                    float cy = y + r * sin;
+                    sink.vertex(cx, cy, zFront);
+                    sink.vertex(cx, cy, zFront - d);
                 }
-                glEnd();
-
-                glBegin(GL_TRIANGLE_FAN);
-                glVertex3f(x, y, zFront - d);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    glVertex3f(x + r * (float) Math.cos(angle), y + r * (float) Math.sin(angle), zFront - d);
+                sink.end();
+
+                sink.begin(GL_TRIANGLE_FAN);
+                sink.vertex(x, y, zFront - d);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    sink.vertex(x + r * cos, y + r * sin, zFront - d);
                 }
-                glEnd();
+                sink.end();
                 break;
 
             case "Back":
                 float zBack = -mesh.length / 2.0f;
-                glBegin(GL_QUAD_STRIP);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    float cx = x + r * (float) Math.cos(angle);
-                    float cy = y + r * (float) Math.sin(angle);
-                    glVertex3f(cx, cy, zBack);
-                    glVertex3f(cx, cy, zBack + d);
+                sink.begin(GL_QUAD_STRIP);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    float cx = x + r * cos;
+                    float cy = y + r * sin;
+                    sink.vertex(cx, cy, zBack);
+                    sink.vertex(cx, cy, zBack + d);
                 }
-                glEnd();
-
-                glBegin(GL_TRIANGLE_FAN);
-                glVertex3f(x, y, zBack + d);
-                for (int i = SEGMENTS; i >= 0; i--) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    glVertex3f(x + r * (float) Math.cos(angle), y + r * (float) Math.sin(angle), zBack + d);
+                sink.end();
+
+                sink.begin(GL_TRIANGLE_FAN);
+                sink.vertex(x, y, zBack + d);
+                for (int i = segments; i >= 0; i--) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    sink.vertex(x + r * cos, y + r * sin, zBack + d);
                 }
-                glEnd();
+                sink.end();
                 break;
 
             case "Top":
                 float yTop = mesh.height / 2.0f;
-                glBegin(GL_QUAD_STRIP);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    float cx = x + r * (float) Math.cos(angle);
-                    float cz = y + r * (float) Math.sin(angle);
-                    glVertex3f(cx, yTop, cz);
-                    glVertex3f(cx, yTop - d, cz);
+                sink.begin(GL_QUAD_STRIP);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    float cx = x + r * cos;
+                    float cz = y + r * sin;
+                    sink.vertex(cx, yTop, cz);
+                    sink.vertex(cx, yTop - d, cz);
                 }
-                glEnd();
-
-                glBegin(GL_TRIANGLE_FAN);
-                glVertex3f(x, yTop - d, y);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    glVertex3f(x + r * (float) Math.cos(angle), yTop - d, y + r * (float) Math.sin(angle));
+                sink.end();
+
+                sink.begin(GL_TRIANGLE_FAN);
+                sink.vertex(x, yTop - d, y);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    sink.vertex(x + r * cos, yTop - d, y + r * sin);
                 }
-                glEnd();
+                sink.end();
                 break;
 
             case "Bottom":
                 float yBottom = -mesh.height / 2.0f;
-                glBegin(GL_QUAD_STRIP);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    float cx = x + r * (float) Math.cos(angle);
-                    float cz = y + r * (float) Math.sin(angle);
-                    glVertex3f(cx, yBottom, cz);
-                    glVertex3f(cx, yBottom + d, cz);
+                sink.begin(GL_QUAD_STRIP);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    float cx = x + r * cos;
+                    float cz = y + r * sin;
+                    sink.vertex(cx, yBottom, cz);
+                    sink.vertex(cx, yBottom + d, cz);
                 }
-                glEnd();
-
-                glBegin(GL_TRIANGLE_FAN);
-                glVertex3f(x, yBottom + d, y);
-                for (int i = SEGMENTS; i >= 0; i--) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    glVertex3f(x + r * (float) Math.cos(angle), yBottom + d, y + r * (float) Math.sin(angle));
+                sink.end();
+
+                sink.begin(GL_TRIANGLE_FAN);
+                sink.vertex(x, yBottom + d, y);
+                for (int i = segments; i >= 0; i--) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    sink.vertex(x + r * cos, yBottom + d, y + r * sin);
                 }
-                glEnd();
+                sink.end();
                 break;
 
             case "Right":
                 float xRight = mesh.width / 2.0f;
-                glBegin(GL_QUAD_STRIP);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    float cy = y + r * (float) Math.cos(angle);
-                    float cz = x + r * (float) Math.sin(angle);
-                    glVertex3f(xRight, cy, cz);
-                    glVertex3f(xRight - d, cy, cz);
+                sink.begin(GL_QUAD_STRIP);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    float cy = y + r * cos;
+                    float cz = x + r * sin;
+                    sink.vertex(xRight, cy, cz);
+                    sink.vertex(xRight - d, cy, cz);
                 }
-                glEnd();
-
-                glBegin(GL_TRIANGLE_FAN);
-                glVertex3f(xRight - d, y, x);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    glVertex3f(xRight - d, y + r * (float) Math.cos(angle), x + r * (float) Math.sin(angle));
+                sink.end();
+
+                sink.begin(GL_TRIANGLE_FAN);
+                sink.vertex(xRight - d, y, x);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    sink.vertex(xRight - d, y + r * cos, x + r * sin);
                 }
-                glEnd();
+                sink.end();
                 break;
 
             case "Left":
                 float xLeft = -mesh.width / 2.0f;
-                glBegin(GL_QUAD_STRIP);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    float cy = y + r * (float) Math.cos(angle);
-                    float cz = x + r * (float) Math.sin(angle);
-                    glVertex3f(xLeft, cy, cz);
-                    glVertex3f(xLeft + d, cy, cz);
+                sink.begin(GL_QUAD_STRIP);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    float cy = y + r * cos;
+                    float cz = x + r * sin;
+                    sink.vertex(xLeft, cy, cz);
+                    sink.vertex(xLeft + d, cy, cz);
                 }
-                glEnd();
-
-                glBegin(GL_TRIANGLE_FAN);
-                glVertex3f(xLeft + d, y, x);
-                for (int i = SEGMENTS; i >= 0; i--) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    glVertex3f(xLeft + d, y + r * (float) Math.cos(angle), x + r * (float) Math.sin(angle));
+                sink.end();
+
+                sink.begin(GL_TRIANGLE_FAN);
+                sink.vertex(xLeft + d, y, x);
+                for (int i = segments; i >= 0; i--) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    sink.vertex(xLeft + d, y + r * cos, x + r * sin);
                 }
-                glEnd();
+                sink.end();
                 break;
         }
 
-        glEnable(GL_DEPTH_TEST);
+        sink.depthTest(true);
     }
 
-    private void drawExtrusionCylinder(Mesh mesh) {
+    private void drawExtrusionCylinder(Mesh mesh, GeometrySink sink, int level) {
         float r = radius;
         float d = depth;
+        int segments = LevelOfDetail.segments(SEGMENTS, level);
+        CircleTable circle = CircleTable.of(segments);
+        float rad = (float) Math.toRadians(rotation);
+        float cosRot = (float) Math.cos(rad);
+        float sinRot = (float) Math.sin(rad);
 
-        glDisable(GL_DEPTH_TEST);
-        glColor3f(0.2f, 0.2f, 0.2f);
+        sink.depthTest(false);
+        sink.color(0.2f, 0.2f, 0.2f);
 
         switch (plane) {
             case "Front":
                 float zFront = mesh.length / 2.0f;
-                glBegin(GL_QUAD_STRIP);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    float cx = x + r * (float) Math.cos(angle);
-                    float cy = y + r * (float) Math.sin(angle);
-                    glVertex3f(cx, cy, zFront);
-                    glVertex3f(cx, cy, zFront + d);
+                sink.begin(GL_QUAD_STRIP);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    float cx = x + r * cos;
+                    float cy = y + r * sin;
+                    sink.vertex(cx, cy, zFront);
+                    sink.vertex(cx, cy, zFront + d);
                 }
-                glEnd();
-
-                glBegin(GL_TRIANGLE_FAN);
-                glVertex3f(x, y, zFront + d);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    glVertex3f(x + r * (float) Math.cos(angle), y + r * (float) Math.sin(angle), zFront + d);
+                sink.end();
+
+                sink.begin(GL_TRIANGLE_FAN);
+                sink.vertex(x, y, zFront + d);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    sink.vertex(x + r * cos, y + r * sin, zFront + d);
                 }
-                glEnd();
+                sink.end();
                 break;
 
             case "Back":
                 float zBack = -mesh.length / 2.0f;
-                glBegin(GL_QUAD_STRIP);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    float cx = x + r * (float) Math.cos(angle);
-                    float cy = y + r * (float) Math.sin(angle);
-                    glVertex3f(cx, cy, zBack);
-                    glVertex3f(cx, cy, zBack - d);
+                sink.begin(GL_QUAD_STRIP);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    float cx = x + r * cos;
+                    float cy = y + r * sin;
+                    sink.vertex(cx, cy, zBack);
+                    sink.vertex(cx, cy, zBack - d);
                 }
-                glEnd();
-
-                glBegin(GL_TRIANGLE_FAN);
-                glVertex3f(x, y, zBack - d);
-                for (int i = SEGMENTS; i >= 0; i--) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    glVertex3f(x + r * (float) Math.cos(angle), y + r * (float) Math.sin(angle), zBack - d);
+                sink.end();
+
+                sink.begin(GL_TRIANGLE_FAN);
+                sink.vertex(x, y, zBack - d);
+                for (int i = segments; i >= 0; i--) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    sink.vertex(x + r * cos, y + r * sin, zBack - d);
                 }
-                glEnd();
+                sink.end();
                 break;
 
             case "Top":
                 float yTop = mesh.height / 2.0f;
-                glBegin(GL_QUAD_STRIP);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    float cx = x + r * (float) Math.cos(angle);
-                    float cz = y + r * (float) Math.sin(angle);
-                    glVertex3f(cx, yTop, cz);
-                    glVertex3f(cx, yTop + d, cz);
+                sink.begin(GL_QUAD_STRIP);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    float cx = x + r * cos;
+                    float cz = y + r * sin;
+                    sink.vertex(cx, yTop, cz);
+                    sink.vertex(cx, yTop + d, cz);
                 }
-                glEnd();
-
-                glBegin(GL_TRIANGLE_FAN);
-                glVertex3f(x, yTop + d, y);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    glVertex3f(x + r * (float) Math.cos(angle), yTop + d, y + r * (float) Math.sin(angle));
+                sink.end();
+
+                sink.begin(GL_TRIANGLE_FAN);
+                sink.vertex(x, yTop + d, y);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    sink.vertex(x + r * cos, yTop + d, y + r * sin);
                 }
-                glEnd();
+                sink.end();
                 break;
 
             case "Bottom":
                 float yBottom = -mesh.height / 2.0f;
-                glBegin(GL_QUAD_STRIP);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    float cx = x + r * (float) Math.cos(angle);
-                    float cz = y + r * (float) Math.sin(angle);
-                    glVertex3f(cx, yBottom, cz);
-                    glVertex3f(cx, yBottom - d, cz);
+                sink.begin(GL_QUAD_STRIP);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    float cx = x + r * cos;
+                    float cz = y + r * sin;
+                    sink.vertex(cx, yBottom, cz);
+                    sink.vertex(cx, yBottom - d, cz);
                 }
-                glEnd();
-
-                glBegin(GL_TRIANGLE_FAN);
-                glVertex3f(x, yBottom - d, y);
-                for (int i = SEGMENTS; i >= 0; i--) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    glVertex3f(x + r * (float) Math.cos(angle), yBottom - d, y + r * (float) Math.sin(angle));
+                sink.end();
+
+                sink.begin(GL_TRIANGLE_FAN);
+                sink.vertex(x, yBottom - d, y);
+                for (int i = segments; i >= 0; i--) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    sink.vertex(x + r * cos, yBottom - d, y + r * sin);
                 }
-                glEnd();
+                sink.end();
                 break;
 
             case "Right":
                 float xRight = mesh.width / 2.0f;
-                glBegin(GL_QUAD_STRIP);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    float cy = y + r * (float) Math.cos(angle);
-                    float cz = x + r * (float) Math.sin(angle);
-                    glVertex3f(xRight, cy, cz);
-                    glVertex3f(xRight + d, cy, cz);
+                sink.begin(GL_QUAD_STRIP);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    float cy = y + r * cos;
+                    float cz = x + r * sin;
+                    sink.vertex(xRight, cy, cz);
+                    sink.vertex(xRight + d, cy, cz);
                 }
-                glEnd();
-
-                glBegin(GL_TRIANGLE_FAN);
-                glVertex3f(xRight + d, y, x);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    glVertex3f(xRight + d, y + r * (float) Math.cos(angle), x + r * (float) Math.sin(angle));
+                sink.end();
+
+                sink.begin(GL_TRIANGLE_FAN);
+                sink.vertex(xRight + d, y, x);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    sink.vertex(xRight + d, y + r * cos, x + r * sin);
                 }
-                glEnd();
+                sink.end();
                 break;
 
             case "Left":
                 float xLeft = -mesh.width / 2.0f;
-                glBegin(GL_QUAD_STRIP);
-                for (int i = 0; i <= SEGMENTS; i++) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    float cy = y + r * (float) Math.cos(angle);
-                    float cz = x + r * (float) Math.sin(angle);
-                    glVertex3f(xLeft, cy, cz);
-                    glVertex3f(xLeft - d, cy, cz);
+                sink.begin(GL_QUAD_STRIP);
+                for (int i = 0; i <= segments; i++) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    float cy = y + r * cos;
+                    float cz = x + r * sin;
+                    sink.vertex(xLeft, cy, cz);
+                    sink.vertex(xLeft - d, cy, cz);
                 }
-                glEnd();
-
-                glBegin(GL_TRIANGLE_FAN);
-                glVertex3f(xLeft - d, y, x);
-                for (int i = SEGMENTS; i >= 0; i--) {
-                    float angle = (float) (2 * Math.PI * i / SEGMENTS) + (float) Math.toRadians(rotation);
-                    glVertex3f(xLeft - d, y + r * (float) Math.cos(angle), x + r * (float) Math.sin(angle));
+                sink.end();
+
+                sink.begin(GL_TRIANGLE_FAN);
+                sink.vertex(xLeft - d, y, x);
+                for (int i = segments; i >= 0; i--) {
+                    float cos = circle.cos(i, cosRot, sinRot);
+                    float sin = circle.sin(i, cosRot, sinRot);
+                    sink.vertex(xLeft - d, y + r * cos, x + r * sin);
                 }
-                glEnd();
+                sink.end();
                 break;
         }
 
-        glEnable(GL_DEPTH_TEST);
+        sink.depthTest(true);
     }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package glx.shape;
 
 import glx.mesh.Mesh;
+import glx.render.GeometrySink;
+import glx.render.ImmediateSink;
 
 public abstract class PlaneShape {
+    public static final int GEOMETRY_PARAMETER_COUNT = 9;
+
     public String name;
     public String plane;
     public float x = 0.0f;
@@ -20,7 +24,40 @@ public abstract class PlaneShape {
         this.plane = plane;
     }
 
-    public abstract void draw(Mesh mesh);
+    public void draw(Mesh mesh) {
+        draw(mesh, ImmediateSink.INSTANCE);
+    }
+
+    public void draw(Mesh mesh, GeometrySink sink) {
+        draw(mesh, sink, mesh.getLodLevel());
+    }
+
+    /**
+     * Tessellate at the given level of detail instead of the mesh's current one
+     */
+    public abstract void draw(Mesh mesh, GeometrySink sink, int level);
+
+    /**
+     * Whether the tessellation depends on the owning mesh's level of detail
+     */
+    public boolean hasLevelOfDetail() {
+        return false;
+    }
+
+    /**
+     * Write the values the shape's geometry depends on, used for geometry cache keys
+     */
+    public void getGeometryParameters(float[] out, int offset) {
+        out[offset] = x;
+        out[offset + 1] = y;
+        out[offset + 2] = width;
+        out[offset + 3] = height;
+        out[offset + 4] = radius;
+        out[offset + 5] = rotation;
+        out[offset + 6] = depth;
+        out[offset + 7] = intruded ? 1 : 0;
+        out[offset + 8] = extruded ? 1 : 0;
+    }
 
     @Override
     public String toString() {
@@ -13,6 +13,7 @@ import java.awt.*;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class Stage1Panel extends JPanel {
     private Functions functions;
@@ -312,6 +313,7 @@ public class Stage1Panel extends JPanel {
                 value = slider.getValue() / 100.0f;
             }
             callback.onValueChanged(value);
+            scene.requestRedraw();
             valueLabel.setText(String.format("%.2f", value));
             updateInfo();
         });
@@ -396,6 +398,7 @@ public class Stage1Panel extends JPanel {
         slider.addChangeListener(e -> {
             float value = slider.getValue() / 100.0f;
             callback.onValueChanged(value);
+            scene.requestRedraw();
             valueLabel.setText(String.format("%.2f", value));
             updateInfo();
         });
@@ -441,6 +444,7 @@ public class Stage1Panel extends JPanel {
         slider.addChangeListener(e -> {
             float value = slider.getValue() / 100.0f;
             callback.onValueChanged(value);
+            scene.requestRedraw();
             valueLabel.setText(String.format("%.2f", value));
             updateInfo();
         });
@@ -509,7 +513,7 @@ public class Stage1Panel extends JPanel {
     private void loadFromJSON() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Load GLX JSON File");
-        fileChooser.setFileFilter(new FileNameExtensionFilter("JSON Files (*.json)", "json"));
+        fileChooser.setFileFilter(new FileNameExtensionFilter("GLX Files (*.json, *.zst, *.lz4)", "json", "zst", "lz4"));
 
         int result = fileChooser.showOpenDialog(this);
 
@@ -541,34 +545,48 @@ public class Stage1Panel extends JPanel {
                 }
 
                 if (clearOption == JOptionPane.YES_OPTION) {
-                    // Clear existing meshes
-                    meshListModel.clear();
-                    List<Mesh> currentMeshes = scene.getMeshes();
-                    for (Mesh mesh : currentMeshes) {
-                        scene.removeMesh(mesh);
-                    }
                     meshCounter = 1;
                 }
 
-                // Add loaded meshes to scene and list
+                // Rename meshes in sequence
                 for (Mesh mesh : loadedMeshes) {
-                    // Rename mesh if needed
                     mesh.setName(mesh.getType() + " " + meshCounter++);
-                    scene.addMesh(mesh);
-                    meshListModel.addElement(mesh);
                 }
 
-                // Select first loaded mesh
-                if (!meshListModel.isEmpty()) {
-                    meshList.setSelectedIndex(clearOption == JOptionPane.YES_OPTION ? 0 : meshListModel.getSize() - loadedMeshes.size());
-                }
+                // Publish to the scene in one step, tessellation runs off the Swing thread
+                boolean replace = clearOption == JOptionPane.YES_OPTION;
+                CompletableFuture<Void> published = replace
+                        ? scene.replaceMeshes(loadedMeshes)
+                        : scene.addMeshes(loadedMeshes);
+
+                // Update the list with one event each once the meshes are in the scene
+                published.whenComplete((done, error) -> SwingUtilities.invokeLater(() -> {
+                    if (error != null) {
+                        JOptionPane.showMessageDialog(this,
+                                "Error loading file:\n" + error.getMessage(),
+                                "Load Error",
+                                JOptionPane.ERROR_MESSAGE);
+                        error.printStackTrace();
+                        return;
+                    }
 
-                // Show success message
-                JOptionPane.showMessageDialog(this,
-                        "Successfully loaded " + loadedMeshes.size() + " mesh(es) from:\n" +
-                                selectedFile.getName(),
-                        "Load Successful",
-                        JOptionPane.INFORMATION_MESSAGE);
+                    if (replace) {
+                        meshListModel.clear();
+                    }
+                    meshListModel.addAll(loadedMeshes);
+
+                    // Select first loaded mesh
+                    if (!meshListModel.isEmpty()) {
+                        meshList.setSelectedIndex(replace ? 0 : meshListModel.getSize() - loadedMeshes.size());
+                    }
+
+                    // Show success message
+                    JOptionPane.showMessageDialog(this,
+                            "Successfully loaded " + loadedMeshes.size() + " mesh(es) from:\n" +
+                                    selectedFile.getName(),
+                            "Load Successful",
+                            JOptionPane.INFORMATION_MESSAGE);
+                }));
 
             } catch (IOException e) {
                 JOptionPane.showMessageDialog(this,
@@ -596,6 +614,7 @@ public class Stage1Panel extends JPanel {
             } else if (selected instanceof TriangleMesh) {
                 ((TriangleMesh)selected).setSlopeFactor(1.0f);
             }
+            scene.requestRedraw();
             updateControlsForSelectedMesh(selected);
         }
     }
@@ -314,6 +314,7 @@ public class Stage2Panel extends JPanel {
         slider.addChangeListener(e -> {
             float value = isRotation ? slider.getValue() : slider.getValue() / 100.0f;
             callback.onValueChanged(value);
+            scene.requestRedraw();
             valueLabel.setText(String.format("%.2f", value));
         });
 
@@ -355,6 +356,7 @@ public class Stage2Panel extends JPanel {
         }
 
         mesh.addShape(shape);
+        scene.requestRedraw();
         updateShapeList();
         shapeList.setSelectedValue(shape, true);
     }
@@ -380,6 +382,7 @@ public class Stage2Panel extends JPanel {
 
             if (confirm == JOptionPane.YES_OPTION) {
                 mesh.removeShape(shape);
+                scene.requestRedraw();
                 updateShapeList();
             }
         }
@@ -492,6 +495,7 @@ public class Stage2Panel extends JPanel {
                 case "rotation": shape.rotation = value; break;
                 case "depth": shape.depth = value; break;
             }
+            invalidateSelectedMesh();
         }
     }
 
@@ -499,6 +503,7 @@ public class Stage2Panel extends JPanel {
         PlaneShape shape = shapeList.getSelectedValue();
         if (shape != null) {
             shape.plane = (String) planeCombo.getSelectedItem();
+            invalidateSelectedMesh();
         }
     }
 
@@ -519,6 +524,7 @@ public class Stage2Panel extends JPanel {
             return;
         }
         shape.intruded = true;
+        invalidateSelectedMesh();
         JOptionPane.showMessageDialog(this,
                 "Shape '" + shape.name + "' has been intruded with depth " + String.format("%.2f", shape.depth),
                 "Intrusion Complete",
@@ -526,6 +532,14 @@ public class Stage2Panel extends JPanel {
         shapeList.repaint();
     }
 
+    private void invalidateSelectedMesh() {
+        Mesh mesh = meshList.getSelectedValue();
+        if (mesh != null) {
+            mesh.invalidateGeometry();
+        }
+        scene.requestRedraw();
+    }
+
     @FunctionalInterface
     interface SliderCallback {
         void onValueChanged(float value);
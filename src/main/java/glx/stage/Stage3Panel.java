@@ -262,6 +262,7 @@ public class Stage3Panel extends JPanel {
                 value = slider.getValue() / 100.0f;
             }
             callback.onValueChanged(value);
+            scene.requestRedraw();
             valueLabel.setText(String.format("%.2f", value));
         });
 
@@ -324,6 +325,7 @@ public class Stage3Panel extends JPanel {
         slider.addChangeListener(e -> {
             float value = slider.getValue() / 100.0f;
             callback.onValueChanged(value);
+            scene.requestRedraw();
             valueLabel.setText(String.format("%.2f", value));
         });
 
@@ -348,6 +350,7 @@ public class Stage3Panel extends JPanel {
         }
 
         mesh.addShape(shape);
+        scene.requestRedraw();
         updateShapeList();
         shapeList.setSelectedValue(shape, true);
     }
@@ -357,6 +360,7 @@ public class Stage3Panel extends JPanel {
         Mesh mesh = meshList.getSelectedValue();
         if (shape != null && mesh != null) {
             mesh.removeShape(shape);
+            scene.requestRedraw();
             updateShapeList();
         }
     }
@@ -452,6 +456,7 @@ public class Stage3Panel extends JPanel {
                 case "rotation": shape.rotation = value; break;
                 case "depth": shape.depth = value; break;
             }
+            invalidateSelectedMesh();
         }
     }
 
@@ -459,6 +464,7 @@ public class Stage3Panel extends JPanel {
         PlaneShape shape = shapeList.getSelectedValue();
         if (shape != null) {
             shape.plane = (String) planeCombo.getSelectedItem();
+            invalidateSelectedMesh();
         }
     }
 
@@ -474,9 +480,18 @@ public class Stage3Panel extends JPanel {
         }
         shape.extruded = true;
         shape.intruded = false;
+        invalidateSelectedMesh();
         shapeList.repaint();
     }
 
+    private void invalidateSelectedMesh() {
+        Mesh mesh = meshList.getSelectedValue();
+        if (mesh != null) {
+            mesh.invalidateGeometry();
+        }
+        scene.requestRedraw();
+    }
+
     @FunctionalInterface
     interface SliderCallback {
         void onValueChanged(float value);
@@ -254,6 +254,7 @@ public class Stage4Panel extends JPanel {
                 value = slider.getValue() / 100.0f;
             }
             callback.onValueChanged(value);
+            scene.requestRedraw();
             valueLabel.setText(String.format("%.2f", value));
         });
 
@@ -316,6 +317,7 @@ public class Stage4Panel extends JPanel {
         slider.addChangeListener(e -> {
             float value = slider.getValue() / 100.0f;
             callback.onValueChanged(value);
+            scene.requestRedraw();
             valueLabel.setText(String.format("%.2f", value));
         });
 
@@ -340,6 +342,7 @@ public class Stage4Panel extends JPanel {
         }
 
         mesh.addShape(shape);
+        scene.requestRedraw();
         updateShapeList();
         shapeList.setSelectedValue(shape, true);
     }
@@ -349,6 +352,7 @@ public class Stage4Panel extends JPanel {
         Mesh mesh = meshList.getSelectedValue();
         if (shape != null && mesh != null) {
             mesh.removeShape(shape);
+            scene.requestRedraw();
             updateShapeList();
         }
     }
@@ -435,6 +439,7 @@ public class Stage4Panel extends JPanel {
                 case "radius": shape.radius = value; break;
                 case "rotation": shape.rotation = value; break;
             }
+            invalidateSelectedMesh();
         }
     }
 
@@ -442,9 +447,18 @@ public class Stage4Panel extends JPanel {
         PlaneShape shape = shapeList.getSelectedValue();
         if (shape != null) {
             shape.plane = (String) planeCombo.getSelectedItem();
+            invalidateSelectedMesh();
         }
     }
 
+    private void invalidateSelectedMesh() {
+        Mesh mesh = meshList.getSelectedValue();
+        if (mesh != null) {
+            mesh.invalidateGeometry();
+        }
+        scene.requestRedraw();
+    }
+
     @FunctionalInterface
     interface SliderCallback {
         void onValueChanged(float value);
@@ -0,0 +1,133 @@
+package glx;
+
+import glx.mesh.Mesh;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GLXBatchLoaderTest {
+    @Test
+    void resultsKeepTheOrderTheFilesWereGiven(@TempDir Path dir) throws Exception {
+        String[] samples = { "camera.json", "speaker.json", "webcam.json" };
+        List<Path> files = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            List<Mesh> meshes = GLXReader.loadFromFile(samples[i % samples.length]);
+            expected.add(GLXWriter.generateJSON(meshes));
+            // Every format the loader accepts
+            Path file;
+            switch (i % 4) {
+                case 0: file = dir.resolve(i + ".json"); break;
+                case 1: file = dir.resolve(i + ".zst"); break;
+                case 2: file = dir.resolve(i + ".lz4"); break;
+                default: file = dir.resolve(i + ".glxb"); break;
+            }
+            if (i % 4 == 3) {
+                GLXBinaryWriter.saveToFile(meshes, file.toString());
+            } else {
+                GLXWriter.saveToFile(meshes, file.toString());
+            }
+            files.add(file);
+        }
+
+        List<GLXBatchLoader.Result> results = new GLXBatchLoader(2, 3).loadAll(files);
+        assertEquals(files.size(), results.size());
+        for (int i = 0; i < files.size(); i++) {
+            GLXBatchLoader.Result result = results.get(i);
+            assertTrue(result.isSuccess(), result.toString());
+            assertEquals(files.get(i), result.path);
+            assertEquals(expected.get(i), GLXWriter.generateJSON(result.meshes), result.path.toString());
+        }
+    }
+
+    @Test
+    void failuresAreReportedPerFile(@TempDir Path dir) throws Exception {
+        Path good = dir.resolve("good.json");
+        GLXWriter.saveToFile(GLXReader.loadFromFile("camera.json"), good.toString());
+        Path missing = dir.resolve("missing.json");
+        Path corrupt = dir.resolve("corrupt.json");
+        Files.writeString(corrupt, "{\"nodes\": [ {\"type\": ");
+        Path empty = dir.resolve("empty.json");
+        Files.writeString(empty, "{}");
+
+        List<GLXBatchLoader.Result> results = new GLXBatchLoader().loadAll(List.of(good, missing, corrupt, empty));
+
+        assertTrue(results.get(0).isSuccess());
+        assertInstanceOf(NoSuchFileException.class, results.get(1).error);
+        assertFalse(results.get(2).isSuccess());
+        assertNull(results.get(2).meshes);
+        assertInstanceOf(IllegalArgumentException.class, results.get(3).error);
+    }
+
+    @Test
+    void listenerSeesEveryFileOnce(@TempDir Path dir) throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Path file = dir.resolve(i + ".json");
+            GLXWriter.saveToFile(GLXReader.loadFromFile("speaker.json"), file.toString());
+            files.add(file);
+        }
+
+        Set<Path> seen = new HashSet<>();
+        Set<Integer> counts = new HashSet<>();
+        GLXBatchLoader.Job job = new GLXBatchLoader(3).start(files, (result, completed, total) -> {
+            synchronized (seen) {
+                assertTrue(seen.add(result.path));
+                assertTrue(counts.add(completed));
+                assertEquals(files.size(), total);
+            }
+        });
+        job.await();
+
+        assertTrue(job.isDone());
+        assertEquals(files.size(), job.getCompletedCount());
+        assertEquals(new HashSet<>(files), seen);
+        for (int i = 1; i <= files.size(); i++) {
+            assertTrue(counts.contains(i));
+        }
+    }
+
+    @Test
+    void cancelFinishesEveryFile(@TempDir Path dir) throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Path file = dir.resolve(i + ".json");
+            GLXWriter.saveToFile(GLXReader.loadFromFile("camera.json"), file.toString());
+            files.add(file);
+        }
+
+        GLXBatchLoader.Job job = new GLXBatchLoader(1, 1).start(files, null);
+        job.cancel();
+        List<GLXBatchLoader.Result> results = job.await();
+
+        assertTrue(job.isCancelled());
+        assertTrue(job.isDone());
+        assertEquals(files.size(), results.size());
+        for (GLXBatchLoader.Result result : results) {
+            assertNotNull(result);
+            assertTrue(result.isSuccess() || result.error instanceof CancellationException, result.toString());
+        }
+    }
+
+    @Test
+    void emptyBatchCompletesAtOnce() throws Exception {
+        assertEquals(List.of(), new GLXBatchLoader().loadAll(List.of()));
+    }
+
+    @Test
+    void rejectsInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new GLXBatchLoader(0));
+        assertThrows(IllegalArgumentException.class, () -> new GLXBatchLoader(4, 2));
+    }
+}
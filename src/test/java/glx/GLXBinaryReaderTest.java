@@ -0,0 +1,95 @@
+package glx;
+
+import glx.mesh.CubeMesh;
+import glx.mesh.Mesh;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GLXBinaryReaderTest {
+    @Test
+    void samplesRoundTripLosslessly() throws IOException {
+        for (String sample : new String[] { "camera.json", "speaker.json", "webcam.json" }) {
+            List<Mesh> meshes = GLXReader.loadFromFile(sample);
+            ByteBuffer data = write(meshes.toArray(new Mesh[0]));
+            GLXBinaryReader reader = GLXBinaryReader.wrap(data);
+
+            assertEquals(meshes.size(), reader.getMeshCount(), sample);
+            assertEquals(GLXWriter.generateJSON(meshes), GLXWriter.generateJSON(reader.readAll()), sample);
+        }
+    }
+
+    @Test
+    void roundTripKeepsUnroundedValuesAndIds() throws IOException {
+        Mesh cube = new CubeMesh("Cube \u00e9 \"quoted\"");
+        cube.setWidth(1.0f / 3.0f);
+        cube.setRotationY(-12.345678f);
+        cube.setId(4242);
+
+        Mesh read = GLXBinaryReader.wrap(write(cube)).readMesh(0);
+        assertEquals(cube.getName(), read.getName());
+        assertEquals(cube.getWidth(), read.getWidth());
+        assertEquals(cube.getRotationY(), read.getRotationY());
+        assertEquals(4242, read.getId());
+    }
+
+    @Test
+    void readsNamesBack() throws IOException {
+        ByteBuffer data = write(new CubeMesh("Cube"));
+        GLXBinaryReader reader = GLXBinaryReader.wrap(data);
+        assertEquals(1, reader.getMeshCount());
+        assertEquals("Cube", reader.getMeshName(0));
+    }
+
+    @Test
+    void rejectsStringPastTheStringBlock() throws IOException {
+        ByteBuffer data = write(new CubeMesh("Cube"), new CubeMesh("Other"));
+        int offsets = stringOffsets(data);
+        assertTrue(data.getInt(GLXBinaryFormat.HEADER_STRING_COUNT) > 1);
+        // Point the first string's end past the string bytes, the last offset stays valid
+        data.putInt(offsets + 4, data.getInt(offsets + 4) + 1000);
+
+        IOException e = assertThrows(IOException.class, () -> GLXBinaryReader.wrap(data).readAll());
+        assertTrue(e.getMessage().startsWith("Corrupt binary GLX string"), e.getMessage());
+    }
+
+    @Test
+    void rejectsStringEndingBeforeItStarts() throws IOException {
+        ByteBuffer data = write(new CubeMesh("Cube"));
+        int offsets = stringOffsets(data);
+        data.putInt(offsets, 3);
+        data.putInt(offsets + 4, 1);
+
+        GLXBinaryReader reader = GLXBinaryReader.wrap(data);
+        IOException e = assertThrows(IOException.class, () -> reader.getMeshName(0));
+        assertTrue(e.getMessage().startsWith("Corrupt binary GLX string"), e.getMessage());
+    }
+
+    @Test
+    void rejectsNegativeStringBlockLength() throws IOException {
+        ByteBuffer data = write(new CubeMesh("Cube"));
+        int offsets = stringOffsets(data);
+        int count = data.getInt(GLXBinaryFormat.HEADER_STRING_COUNT);
+        data.putInt(offsets + 4 * count, -1);
+
+        IOException e = assertThrows(IOException.class, () -> GLXBinaryReader.wrap(data));
+        assertEquals("Truncated binary GLX string table", e.getMessage());
+    }
+
+    private static ByteBuffer write(Mesh... meshes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GLXBinaryWriter.write(List.of(meshes), Channels.newChannel(out));
+        return ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int stringOffsets(ByteBuffer data) {
+        return (int) data.getLong(GLXBinaryFormat.HEADER_STRING_TABLE);
+    }
+}
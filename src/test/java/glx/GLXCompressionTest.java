@@ -0,0 +1,117 @@
+package glx;
+
+import glx.mesh.Mesh;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GLXCompressionTest {
+    @Test
+    void streamsRoundTrip() throws IOException {
+        Random random = new Random(1);
+        byte[] noise = new byte[3 << 20];
+        random.nextBytes(noise);
+        byte[] text = "{\"type\": \"Cube\"}, ".repeat(200_000).getBytes(StandardCharsets.UTF_8);
+
+        for (GLXCompression compression : GLXCompression.values()) {
+            for (byte[] data : new byte[][] { new byte[0], { 42 }, text, noise }) {
+                byte[] compressed = compress(compression, data);
+                assertArrayEquals(data, decompress(compression, compressed),
+                        compression + ", " + data.length + " bytes");
+            }
+        }
+    }
+
+    @Test
+    void compressedTextIsSmaller() throws IOException {
+        byte[] text = "{\"type\": \"Cube\"}, ".repeat(10_000).getBytes(StandardCharsets.UTF_8);
+        assertTrue(compress(GLXCompression.ZSTD, text).length < text.length / 10);
+        assertTrue(compress(GLXCompression.LZ4, text).length < text.length / 10);
+    }
+
+    @Test
+    void singleByteReadsMatchBulkReads() throws IOException {
+        byte[] text = "nodes ".repeat(5000).getBytes(StandardCharsets.UTF_8);
+        for (GLXCompression compression : GLXCompression.values()) {
+            byte[] compressed = compress(compression, text);
+            ByteArrayOutputStream read = new ByteArrayOutputStream();
+            try (InputStream in = compression.decompress(Channels.newChannel(new ByteArrayInputStream(compressed)))) {
+                int b;
+                while ((b = in.read()) >= 0) {
+                    read.write(b);
+                }
+            }
+            assertArrayEquals(text, read.toByteArray(), compression.toString());
+        }
+    }
+
+    @Test
+    void framesAreDetectedByMagic() throws IOException {
+        byte[] text = "{\"nodes\": []}".getBytes(StandardCharsets.UTF_8);
+        for (GLXCompression compression : GLXCompression.values()) {
+            byte[] compressed = compress(compression, text);
+            int magic = ByteBuffer.wrap(compressed).order(ByteOrder.LITTLE_ENDIAN).getInt(0);
+            assertEquals(compression, GLXCompression.detect(magic));
+        }
+    }
+
+    @Test
+    void loadFromBytesDetectsEveryFormat() throws IOException {
+        List<Mesh> meshes = GLXReader.loadFromFile("camera.json");
+        String expected = GLXWriter.generateJSON(meshes);
+
+        for (GLXCompression compression : GLXCompression.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (OutputStream compressed = compression.compress(Channels.newChannel(out))) {
+                GLXWriter.write(meshes, compressed, true);
+            }
+            assertEquals(expected, GLXWriter.generateJSON(GLXReader.loadFromBytes(out.toByteArray())),
+                    compression.toString());
+        }
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        GLXBinaryWriter.write(meshes, Channels.newChannel(binary));
+        assertEquals(expected, GLXWriter.generateJSON(GLXReader.loadFromBytes(binary.toByteArray())));
+    }
+
+    @Test
+    void filesAreCompressedByNameAndReadByMagic(@TempDir Path dir) throws IOException {
+        List<Mesh> meshes = GLXReader.loadFromFile("webcam.json");
+        String expected = GLXWriter.generateJSON(meshes);
+
+        for (String name : new String[] { "scene.json", "scene.zst", "scene.lz4" }) {
+            Path file = dir.resolve(name);
+            GLXWriter.saveToFile(meshes, file.toString(), true, GLXCompression.forFileName(name));
+            assertEquals(GLXCompression.forFileName(name), GLXCompression.detect(file), name);
+            assertEquals(expected, GLXWriter.generateJSON(GLXReader.loadFromFile(file.toString())), name);
+        }
+    }
+
+    private static byte[] compress(GLXCompression compression, byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream compressed = compression.compress(Channels.newChannel(out))) {
+            compressed.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] decompress(GLXCompression compression, byte[] data) throws IOException {
+        try (InputStream in = compression.decompress(Channels.newChannel(new ByteArrayInputStream(data)))) {
+            return in.readAllBytes();
+        }
+    }
+}
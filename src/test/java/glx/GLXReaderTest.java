@@ -0,0 +1,136 @@
+package glx;
+
+import glx.mesh.Mesh;
+import glx.shape.PlaneShape;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GLXReaderTest {
+    @Test
+    void shapesWithUnknownMeshIdKeepDocumentOrder() {
+        // Interleaved shapes naming ids no mesh has, all falling back to node 1
+        StringBuilder json = new StringBuilder("{\"nodes\": [");
+        int[] meshIds = { 900, 17, 900, 5, 17, 300, 5, 900 };
+        for (int i = 0; i < meshIds.length; i++) {
+            json.append(circle(meshIds[i], 1, i + 1)).append(',');
+        }
+        json.append("{\"type\": \"Cube\", \"id\": 1, \"data\": {\"size\": {\"h\": 1, \"w\": 1, \"l\": 1}}}");
+        json.append("]}");
+
+        List<Mesh> meshes = GLXReader.loadFromString(json.toString());
+        assertEquals(1, meshes.size());
+        List<PlaneShape> shapes = meshes.get(0).getShapes();
+        assertEquals(meshIds.length, shapes.size());
+        for (int i = 0; i < shapes.size(); i++) {
+            assertEquals((i + 1) / 100.0f, shapes.get(i).radius, "shape " + i);
+        }
+    }
+
+    @Test
+    void shapesWithKnownMeshIdGoToThatMesh() {
+        String json = "{\"nodes\": [" +
+                circle(2, 1, 1) + "," +
+                "{\"type\": \"Cube\", \"id\": 1, \"data\": {\"size\": {\"h\": 1, \"w\": 1, \"l\": 1}}}," +
+                "{\"type\": \"Cube\", \"id\": 2, \"data\": {\"size\": {\"h\": 1, \"w\": 1, \"l\": 1}}}," +
+                circle(2, 1, 2) + "," + circle(7, 2, 3) + "]}";
+
+        List<Mesh> meshes = GLXReader.loadFromString(json);
+        assertEquals(0, meshes.get(0).getShapes().size());
+        List<PlaneShape> shapes = meshes.get(1).getShapes();
+        assertEquals(3, shapes.size());
+        assertEquals(0.01f, shapes.get(0).radius);
+        assertEquals(0.02f, shapes.get(1).radius);
+        assertEquals(0.03f, shapes.get(2).radius);
+    }
+
+    @Test
+    void mixedReferencesKeepDocumentOrder() {
+        // Shapes reach mesh 2 (id 7) by node number, by id, and by the node fallback of an
+        // unknown id, some before and some after the mesh
+        String cube = "{\"type\": \"Cube\", \"id\": %d, \"data\": {\"size\": {\"h\": 1, \"w\": 1, \"l\": 1}}}";
+        String json = "{\"nodes\": [" +
+                circle(0, 2, 1) + "," +
+                circle(7, 1, 2) + "," +
+                circle(99, 2, 3) + "," +
+                String.format(cube, 1) + "," +
+                circle(0, 2, 4) + "," +
+                String.format(cube, 7) + "," +
+                circle(99, 2, 5) + "," +
+                circle(0, 2, 6) + "," +
+                circle(1, 2, 8) + "," +
+                circle(7, 1, 7) + "]}";
+
+        List<Mesh> meshes = GLXReader.loadFromString(json);
+        assertEquals(2, meshes.size());
+        List<PlaneShape> first = meshes.get(0).getShapes();
+        assertEquals(1, first.size());
+        assertEquals(0.08f, first.get(0).radius);
+
+        List<PlaneShape> shapes = meshes.get(1).getShapes();
+        assertEquals(7, shapes.size());
+        for (int i = 0; i < shapes.size(); i++) {
+            assertEquals((i + 1) / 100.0f, shapes.get(i).radius, "shape " + i);
+        }
+    }
+
+    @Test
+    void samplesLoadAsExpected() throws IOException {
+        // Mesh order, types, names, transforms and sizes, then each mesh's shapes in order
+        assertSample("camera.json",
+                "Cylinder 'Cylinder_1' at 0.0 0.0 0.0, rotated 90.0 0.0 0.0, size 0.8 1.0 0.8",
+                "  CircleShape Top at 0.0 0.0, size 0.3 0.3, r 0.35, rotated 0.0, depth 0.1, intruded",
+                "  CircleShape Top at 0.0 0.0, size 0.3 0.3, r 0.15, rotated 0.0, depth 0.05, extruded",
+                "  CircleShape Top at 0.0 0.0, size 0.3 0.3, r 0.08, rotated 0.0, depth 0.05, intruded",
+                "  CircleShape Top at 0.25 0.0, size 0.3 0.3, r 0.04, rotated 0.0, depth 0.0",
+                "  CircleShape Top at -0.25 0.0, size 0.3 0.3, r 0.04, rotated 0.0, depth 0.0",
+                "  CircleShape Top at 0.0 0.25, size 0.3 0.3, r 0.04, rotated 0.0, depth 0.0",
+                "  CircleShape Top at 0.0 -0.25, size 0.3 0.3, r 0.04, rotated 0.0, depth 0.0",
+                "Cylinder 'Cylinder_2' at 0.0 0.1 0.1, rotated 90.0 0.0 0.0, size 0.84 1.0 0.84",
+                "Cube 'Cube_3' at 0.0 -0.6 -0.5, rotated 0.0 0.0 0.0, size 0.2 0.3 1.0",
+                "Cube 'Cube_4' at 0.0 -0.6 -1.0, rotated 0.0 0.0 0.0, size 0.5 0.8 0.1",
+                "Cylinder 'Cylinder_5' at 0.0 -0.4 0.0, rotated 0.0 0.0 0.0, size 0.3 1.0 0.3");
+        assertSample("speaker.json",
+                "Cube 'Cube_1' at 0.0 0.0 0.0, rotated 0.0 0.0 0.0, size 0.3 0.5 0.35",
+                "  CircleShape Front at 0.0 -0.1, size 0.3 0.3, r 0.12, rotated 0.0, depth 0.05, intruded",
+                "  CircleShape Front at 0.0 -0.1, size 0.3 0.3, r 0.09, rotated 0.0, depth 0.08, intruded",
+                "  CircleShape Front at 0.0 0.12, size 0.3 0.3, r 0.05, rotated 0.0, depth 0.04, intruded");
+        assertSample("webcam.json",
+                "Cube 'Cube_1' at 0.0 0.5 0.0, rotated 0.0 0.0 0.0, size 1.2 0.4 0.2",
+                "  CircleShape Front at 0.0 0.0, size 0.3 0.3, r 0.18, rotated 0.0, depth 0.05, intruded",
+                "  CircleShape Front at 0.0 0.0, size 0.3 0.3, r 0.12, rotated 0.0, depth 0.04, extruded",
+                "  CircleShape Front at 0.0 0.0, size 0.3 0.3, r 0.08, rotated 0.0, depth 0.02, intruded",
+                "  CircleShape Front at -0.3 0.0, size 0.3 0.3, r 0.01, rotated 0.0, depth 0.01, intruded",
+                "  CircleShape Front at 0.3 0.0, size 0.3 0.3, r 0.01, rotated 0.0, depth 0.01, intruded",
+                "Cylinder 'Cylinder_2' at 0.0 0.25 0.0, rotated 0.0 0.0 0.0, size 0.16 1.0 0.16",
+                "Cube 'Cube_3' at 0.0 0.0 0.0, rotated 0.0 0.0 0.0, size 0.6 0.3 0.4");
+    }
+
+    private static void assertSample(String sample, String... expected) throws IOException {
+        List<String> actual = new ArrayList<>();
+        for (Mesh mesh : GLXReader.loadFromFile(sample)) {
+            actual.add(String.format("%s '%s' at %s %s %s, rotated %s %s %s, size %s %s %s",
+                    mesh.getType(), mesh.getName(),
+                    mesh.getPositionX(), mesh.getPositionY(), mesh.getPositionZ(),
+                    mesh.getRotationX(), mesh.getRotationY(), mesh.getRotationZ(),
+                    mesh.getWidth(), mesh.getHeight(), mesh.getLength()));
+            for (PlaneShape shape : mesh.getShapes()) {
+                actual.add(String.format("  %s %s at %s %s, size %s %s, r %s, rotated %s, depth %s%s%s",
+                        shape.getClass().getSimpleName(), shape.plane, shape.x, shape.y,
+                        shape.width, shape.height, shape.radius, shape.rotation, shape.depth,
+                        shape.intruded ? ", intruded" : "", shape.extruded ? ", extruded" : ""));
+            }
+        }
+        assertEquals(List.of(expected), actual, sample);
+    }
+
+    private static String circle(int meshId, int node, int order) {
+        return "{\"type\": \"Cut-Extrude-Circle\", \"meshId\": " + meshId + ", \"node\": " + node +
+                ", \"plane\": \"+Y\", \"data\": {\"coordinates\": {\"x\": 0, \"y\": 0}, \"size\": {\"r\": " +
+                order / 100.0f + "}, \"extrude\": {\"depth\": 0.05}}}";
+    }
+}
@@ -0,0 +1,132 @@
+package glx;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GLXValidatorTest {
+    @Test
+    void samplesAreValid() throws IOException {
+        for (String sample : new String[] { "camera.json", "speaker.json", "webcam.json" }) {
+            GLXValidator.Result result = GLXValidator.validateFile(sample);
+            assertTrue(result.isValid(), sample + ": " + result);
+
+            List<glx.mesh.Mesh> meshes = GLXReader.loadFromFile(sample);
+            assertEquals(meshes.size(), result.meshCount, sample);
+            assertEquals(meshes.stream().mapToInt(mesh -> mesh.getShapes().size()).sum(), result.shapeCount, sample);
+            assertTrue(GLXValidator.validate(GLXWriter.generateJSON(meshes)).isValid(), sample);
+        }
+    }
+
+    @Test
+    void reportsMissingFieldsUnknownTypesAndPlanes() {
+        GLXValidator.Result result = GLXValidator.validate(lines(
+                "{\"nodes\": [",
+                "  {\"type\": \"Cube\", \"id\": 1, \"data\": {}},",
+                "  {},",
+                "  {\"type\": \"Sphere\", \"data\": {}},",
+                "  {\"type\": \"Plane-Circle\", \"meshId\": 1, \"plane\": \"+W\", \"data\": {}},",
+                "  {\"type\": \"Plane-Square\", \"meshId\": 1, \"data\": {}},",
+                "  {\"type\": \"Cut-Extrude-Circle\", \"plane\": \"+X\", \"data\": {}}",
+                "]}"));
+
+        assertProblems(result,
+                "line 3, column 5, node 1: Node without 'type'",
+                "line 3, column 5, node 1: Node without 'data'",
+                "line 4, column 20, node 2: Unknown node type 'Sphere'",
+                "line 5, column 54, node 3: Invalid plane '+W', expected one of +X, -X, +Y, -Y, +Z, -Z",
+                "line 6, column 52, node 4: Shape without 'plane'",
+                "line 7, column 60, node 5: Shape without 'node' or 'meshId'");
+        assertEquals(1, result.meshCount);
+        assertEquals(3, result.shapeCount);
+    }
+
+    @Test
+    void planeOfAMeshIsIgnored() {
+        // Only shapes have planes, the type may follow the plane
+        GLXValidator.Result result = GLXValidator.validate(
+                "{\"nodes\": [{\"plane\": \"+W\", \"type\": \"Cube\", \"data\": {}}]}");
+        assertTrue(result.isValid(), result.toString());
+    }
+
+    @Test
+    void reportsDuplicateIdsAndUnresolvedReferences() {
+        GLXValidator.Result result = GLXValidator.validate(lines(
+                "{\"nodes\": [",
+                "  {\"type\": \"Cube\", \"id\": 1, \"data\": {}},",
+                "  {\"type\": \"Cube\", \"id\": 1, \"data\": {}},",
+                "  {\"type\": \"Plane-Circle\", \"node\": 4, \"plane\": \"+X\", \"data\": {}},",
+                "  {\"type\": \"Plane-Circle\", \"meshId\": 9, \"plane\": \"+X\", \"data\": {}},",
+                "  {\"type\": \"Plane-Circle\", \"node\": 3, \"plane\": \"+X\", \"data\": {}},",
+                "  {\"type\": \"Plane-Circle\", \"meshId\": 5, \"plane\": \"+X\", \"data\": {}},",
+                "  {\"type\": \"Donut\", \"id\": 5, \"data\": {\"size\": {\"r\": \"big\"}}}",
+                "]}"));
+
+        // Node 3 and mesh id 5 come later in the document and resolve
+        assertProblems(result,
+                "line 3, column 27, node 1: Duplicate mesh id 1",
+                "line 4, column 37, node 2: Shape refers to mesh 4 but the document has 3 meshes",
+                "line 5, column 39, node 3: Shape refers to mesh id 9, which no mesh has",
+                "line 8, column 58, node 6: 'size.r' is not a number: 'big'");
+    }
+
+    @Test
+    void forwardReferencesToLaterMeshesAreValid() {
+        StringBuilder json = new StringBuilder("{\"nodes\": [");
+        int meshes = 50;
+        for (int i = 1; i <= meshes; i++) {
+            json.append("{\"type\": \"Plane-Square\", \"node\": ").append(meshes + 1 - i)
+                    .append(", \"plane\": \"+Z\", \"data\": {}},");
+            json.append("{\"type\": \"Plane-Square\", \"meshId\": ").append(1000 + meshes + 1 - i)
+                    .append(", \"plane\": \"+Z\", \"data\": {}},");
+        }
+        for (int i = 1; i <= meshes; i++) {
+            json.append("{\"type\": \"Cylinder\", \"id\": ").append(1000 + i).append(", \"data\": {}}");
+            json.append(i < meshes ? "," : "]}");
+        }
+
+        GLXValidator.Result result = GLXValidator.validate(json.toString());
+        assertTrue(result.isValid(), result.toString());
+        assertEquals(meshes, result.meshCount);
+        assertEquals(2 * meshes, result.shapeCount);
+    }
+
+    @Test
+    void reportsMalformedJsonWithItsLocation() {
+        GLXValidator.Result result = GLXValidator.validate(lines(
+                "{\"nodes\": [",
+                "  {\"type\": \"Cube\", \"data\": {}},",
+                "  {\"type\": }"));
+        assertProblems(result, "line 3, column 12, node 1: Malformed JSON: Expected value");
+
+        assertProblems(GLXValidator.validate("[]"), "line 1, column 2: Document must be an object, found an array");
+        assertProblems(GLXValidator.validate("{}"), "line 1, column 3: Missing 'nodes' array");
+    }
+
+    @Test
+    void stopsRecordingAtTheErrorLimit() throws IOException {
+        StringBuilder json = new StringBuilder("{\"nodes\": [");
+        for (int i = 0; i < 20; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"type\": \"Sphere\", \"data\": {}}");
+        }
+        json.append("]}");
+
+        GLXValidator.Result result = GLXValidator.validate(new StringReader(json.toString()), 5);
+        assertEquals(5, result.errors.size());
+        assertTrue(result.truncated);
+        assertFalse(GLXValidator.validate(json.toString()).truncated);
+    }
+
+    private static String lines(String... lines) {
+        return String.join("\n", lines);
+    }
+
+    private static void assertProblems(GLXValidator.Result result, String... expected) {
+        assertFalse(result.isValid());
+        assertEquals(List.of(expected), result.errors.stream().map(Object::toString).toList());
+    }
+}
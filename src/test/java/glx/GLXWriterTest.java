@@ -0,0 +1,57 @@
+package glx;
+
+import glx.mesh.Mesh;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GLXWriterTest {
+    private static final String[] SAMPLES = { "camera", "speaker", "webcam" };
+
+    @Test
+    void prettyOutputMatchesTreeBasedWriter() throws IOException {
+        for (String sample : SAMPLES) {
+            String written = GLXWriter.generateJSON(GLXReader.loadFromFile(sample + ".json"));
+            // The old writer had no mesh ids, otherwise the output is unchanged
+            String withoutIds = written.replaceAll("(?m)^ *\"(id|meshId)\": \\d+,\n", "");
+
+            assertEquals(baseline(sample), withoutIds, sample);
+        }
+    }
+
+    @Test
+    void streamAndChannelMatchString() throws IOException {
+        for (String sample : SAMPLES) {
+            List<Mesh> meshes = GLXReader.loadFromFile(sample + ".json");
+            String expected = GLXWriter.generateJSON(meshes);
+
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            GLXWriter.write(meshes, stream, true);
+            assertEquals(expected, stream.toString(StandardCharsets.UTF_8), sample);
+
+            ByteArrayOutputStream channel = new ByteArrayOutputStream();
+            GLXWriter.write(meshes, Channels.newChannel(channel), true);
+            assertEquals(expected, channel.toString(StandardCharsets.UTF_8), sample);
+        }
+    }
+
+    @Test
+    void emptySceneMatchesPrettyEmpty() {
+        assertEquals(GLXWriter.PRETTY_EMPTY, GLXWriter.generateJSON(List.of()));
+    }
+
+    // Pretty output of the tree-based writer this one replaced, for the same sample
+    private static String baseline(String sample) throws IOException {
+        try (InputStream in = GLXWriterTest.class.getResourceAsStream("baseline/" + sample + ".json")) {
+            assertNotNull(in, "missing baseline for " + sample);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
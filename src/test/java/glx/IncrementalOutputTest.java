@@ -0,0 +1,169 @@
+package glx;
+
+import glx.mesh.CubeMesh;
+import glx.mesh.CylinderMesh;
+import glx.mesh.DonutMesh;
+import glx.mesh.Mesh;
+import glx.mesh.TriangleMesh;
+import glx.shape.CircleShape;
+import glx.shape.PlaneShape;
+import glx.shape.SquareShape;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.PlainDocument;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalOutputTest {
+    private final IncrementalOutput output = new IncrementalOutput();
+    private final Document document = new PlainDocument();
+    // Characters removed and inserted by the last update
+    private int removed;
+    private int inserted;
+
+    IncrementalOutputTest() {
+        document.addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { inserted += e.getLength(); }
+            public void removeUpdate(DocumentEvent e) { removed += e.getLength(); }
+            public void changedUpdate(DocumentEvent e) { }
+        });
+    }
+
+    @Test
+    void editsPatchOnlyTheirMesh() throws Exception {
+        List<Mesh> meshes = new ArrayList<>(GLXReader.loadFromFile("camera.json"));
+        update(meshes);
+        int length = document.getLength();
+
+        assertFalse(output.update(meshes, document));
+        assertEquals(length, document.getLength());
+
+        for (int i : new int[] { 0, meshes.size() / 2, meshes.size() - 1 }) {
+            long serialized = output.getSerializedFragmentCount();
+            meshes.get(i).setPositionY(meshes.get(i).getPositionY() + 0.25f);
+            update(meshes);
+            assertEquals(serialized + 1, output.getSerializedFragmentCount(), "mesh " + i);
+            // Only that mesh's nodes were replaced, not the whole document
+            int fragment = GLXWriter.generateMeshFragment(meshes.get(i), i + 1).length() +
+                    GLXWriter.PRETTY_NODE_SEPARATOR.length();
+            assertTrue(removed <= fragment && inserted <= fragment, "mesh " + i);
+        }
+    }
+
+    @Test
+    void addsAndRemovesAtEitherEnd() throws Exception {
+        List<Mesh> meshes = new ArrayList<>(GLXReader.loadFromFile("camera.json"));
+        meshes.addAll(GLXReader.loadFromFile("webcam.json"));
+        update(meshes);
+
+        // At the front every later shape node is renumbered
+        meshes.add(0, withShape(new CubeMesh("First")));
+        update(meshes);
+        meshes.add(withShape(new DonutMesh("Last")));
+        update(meshes);
+        meshes.add(3, new TriangleMesh("Middle"));
+        update(meshes);
+
+        meshes.remove(0);
+        update(meshes);
+        meshes.remove(meshes.size() - 1);
+        update(meshes);
+        meshes.remove(2);
+        update(meshes);
+
+        Mesh last = meshes.get(meshes.size() - 1);
+        last.addShape(new SquareShape("Front", "Front"));
+        update(meshes);
+        Mesh first = meshes.get(0);
+        first.removeShape(first.getShapes().get(0));
+        update(meshes);
+    }
+
+    @Test
+    void emptiesAndRefills() throws Exception {
+        List<Mesh> meshes = new ArrayList<>(GLXReader.loadFromFile("speaker.json"));
+        update(meshes);
+
+        List<Mesh> removedMeshes = new ArrayList<>(meshes);
+        meshes.clear();
+        update(meshes);
+        assertEquals(GLXWriter.PRETTY_EMPTY, text());
+
+        meshes.addAll(removedMeshes);
+        meshes.add(new CylinderMesh("Cylinder"));
+        update(meshes);
+    }
+
+    @Test
+    void rewritesAfterInvalidate() throws Exception {
+        List<Mesh> meshes = new ArrayList<>(GLXReader.loadFromFile("webcam.json"));
+        update(meshes);
+
+        // Cleared by the user, as the output panel does
+        document.remove(0, document.getLength());
+        output.invalidate();
+        meshes.get(1).setPositionX(2.0f);
+        update(meshes);
+    }
+
+    @Test
+    void randomEditsMatchFullRegeneration() throws Exception {
+        Random random = new Random(7);
+        List<Mesh> meshes = new ArrayList<>(GLXReader.loadFromFile("camera.json"));
+        update(meshes);
+
+        for (int step = 0; step < 300; step++) {
+            int operation = random.nextInt(meshes.isEmpty() ? 1 : 5);
+            int at = random.nextInt(meshes.size() + 1);
+            switch (operation) {
+                case 0:
+                    Mesh mesh = random.nextBoolean()
+                            ? new CubeMesh("Cube " + step) : new CylinderMesh("Cylinder " + step);
+                    meshes.add(at, random.nextBoolean() ? withShape(mesh) : mesh);
+                    break;
+                case 1:
+                    meshes.remove(Math.min(at, meshes.size() - 1));
+                    break;
+                case 2:
+                    meshes.get(Math.min(at, meshes.size() - 1)).setPositionZ(random.nextInt(100) / 10.0f);
+                    break;
+                case 3:
+                    withShape(meshes.get(Math.min(at, meshes.size() - 1)));
+                    break;
+                default:
+                    // Moves a mesh, its shapes follow it to the new node number
+                    meshes.add(at > 0 ? at - 1 : 0, meshes.remove(Math.min(at, meshes.size() - 1)));
+            }
+            update(meshes);
+        }
+    }
+
+    private static Mesh withShape(Mesh mesh) {
+        PlaneShape shape = new CircleShape("Top", "Top");
+        shape.radius = 0.05f + mesh.getShapes().size() / 100.0f;
+        mesh.addShape(shape);
+        return mesh;
+    }
+
+    /**
+     * Update the document and check it against a full regeneration
+     */
+    private void update(List<Mesh> meshes) throws BadLocationException, IOException {
+        removed = 0;
+        inserted = 0;
+        output.update(meshes, document);
+        assertEquals(GLXWriter.generateJSON(meshes), text());
+    }
+
+    private String text() throws BadLocationException {
+        return document.getText(0, document.getLength());
+    }
+}
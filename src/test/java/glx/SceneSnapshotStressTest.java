@@ -0,0 +1,148 @@
+package glx;
+
+import glx.mesh.CubeMesh;
+import glx.mesh.Mesh;
+import glx.render.InstanceBatch;
+import glx.render.InstanceBatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writers add, remove and select meshes from many threads while a reader
+ * batches every published snapshot the way Scene.render does
+ */
+class SceneSnapshotStressTest {
+    private static final int WRITERS = 8;
+    private static final int ITERATIONS = 500;
+
+    @Test
+    void concurrentWritersAndReader() throws Exception {
+        Scene scene = new Scene();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Mesh> kept = new ArrayList<>();
+
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            List<Mesh> own = new ArrayList<>();
+            int writer = w;
+            writers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        Mesh keep = new CubeMesh("Keep" + writer + "_" + i);
+                        Mesh drop = new CubeMesh("Drop" + writer + "_" + i);
+                        drop.setWidth(2.0f);
+                        scene.addMesh(keep);
+                        scene.addMesh(drop);
+                        scene.setSelectedMesh(drop);
+                        scene.removeMesh(drop);
+                        scene.setSelectedMesh(keep);
+                        own.add(keep);
+                    }
+                    synchronized (kept) {
+                        kept.addAll(own);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }, "writer-" + w));
+        }
+
+        long[] snapshotsRead = new long[1];
+        Thread reader = new Thread(() -> {
+            InstanceBatcher batcher = new InstanceBatcher();
+            long lastVersion = -1;
+            try {
+                start.await();
+                while (writing.get()) {
+                    SceneSnapshot snapshot = scene.getSnapshot();
+                    assertTrue(snapshot.getVersion() >= lastVersion, "snapshot version went backwards");
+                    lastVersion = snapshot.getVersion();
+
+                    int instances = 0;
+                    for (InstanceBatch batch : batcher.build(snapshot.getMeshes())) {
+                        instances += batch.count;
+                    }
+                    assertEquals(snapshot.getMeshes().size(), instances);
+
+                    Mesh selected = snapshot.getSelectedMesh();
+                    assertTrue(selected == null || snapshot.getMeshes().contains(selected),
+                            "selected mesh is not in its snapshot");
+                    snapshotsRead[0]++;
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        }, "reader");
+
+        reader.start();
+        writers.forEach(Thread::start);
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join(60_000);
+            assertFalse(writer.isAlive(), writer.getName() + " did not finish");
+        }
+        writing.set(false);
+        reader.join(60_000);
+
+        Throwable thrown = failure.get();
+        assertFalse(thrown instanceof ConcurrentModificationException, "ConcurrentModificationException");
+        if (thrown != null) {
+            fail(thrown);
+        }
+
+        SceneSnapshot last = scene.getSnapshot();
+        assertEquals(WRITERS * ITERATIONS, last.getMeshes().size());
+        // Every add and remove published its own version
+        assertTrue(last.getVersion() >= 3L * WRITERS * ITERATIONS);
+        assertTrue(snapshotsRead[0] > 0);
+
+        assertEquals(new HashSet<>(kept), new HashSet<>(last.getMeshes()));
+        Set<Integer> ids = new HashSet<>();
+        for (Mesh mesh : last.getMeshes()) {
+            assertTrue(ids.add(mesh.getId()), "duplicate mesh id " + mesh.getId());
+        }
+    }
+
+    @Test
+    void concurrentInvalidationsAreNotLost() throws Exception {
+        Mesh mesh = new CubeMesh("Cube");
+        int version = mesh.getGeometryVersion();
+        int revision = mesh.getRevision();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < ITERATIONS * 20; i++) {
+                    mesh.invalidateGeometry();
+                }
+            }, "writer-" + w));
+        }
+        writers.forEach(Thread::start);
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join(60_000);
+        }
+
+        assertEquals(version + WRITERS * ITERATIONS * 20, mesh.getGeometryVersion());
+        assertEquals(revision + WRITERS * ITERATIONS * 20, mesh.getRevision());
+    }
+}
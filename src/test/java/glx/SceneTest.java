@@ -0,0 +1,180 @@
+package glx;
+
+import glx.mesh.CubeMesh;
+import glx.mesh.CylinderMesh;
+import glx.mesh.DonutMesh;
+import glx.mesh.Mesh;
+import glx.render.GeometryCache;
+import glx.render.LevelOfDetail;
+import glx.render.MeshRenderer;
+import glx.render.RecordingRenderBackend;
+import glx.shape.CircleShape;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SceneTest {
+    @Test
+    void addMeshesPublishesTessellatedMeshes() {
+        Scene scene = new Scene();
+        Mesh existing = new CubeMesh("Existing");
+        scene.addMesh(existing);
+        List<Mesh> loaded = List.of(new CylinderMesh("Cylinder"), new DonutMesh("Donut"), new CubeMesh("Cube"));
+
+        scene.addMeshes(loaded).join();
+
+        List<Mesh> meshes = scene.getMeshes();
+        assertEquals(4, meshes.size());
+        assertSame(existing, meshes.get(0));
+        assertEquals(loaded, meshes.subList(1, 4));
+        for (Mesh mesh : loaded) {
+            // Every level the renderer can pick is already cached
+            GeometryCache cache = mesh.getGeometryCache();
+            cache.resetStatistics();
+            int levels = mesh.hasLevelOfDetail() ? LevelOfDetail.LEVELS : 1;
+            for (int level = 0; level < levels; level++) {
+                cache.get(level);
+            }
+            assertEquals(0, cache.getMisses(), mesh.getName());
+            assertEquals(levels, cache.getHits(), mesh.getName());
+        }
+    }
+
+    @Test
+    void addMeshesResolvesIdClashes() {
+        Scene scene = new Scene();
+        Mesh existing = new CubeMesh("Existing");
+        scene.addMesh(existing);
+
+        Mesh clash = new CubeMesh("Clash");
+        clash.setId(existing.getId());
+        Mesh twin = new CubeMesh("Twin");
+        twin.setId(existing.getId());
+        scene.addMeshes(List.of(clash, twin)).join();
+
+        Set<Integer> ids = new HashSet<>();
+        for (Mesh mesh : scene.getMeshes()) {
+            assertTrue(ids.add(mesh.getId()), "duplicate mesh id " + mesh.getId());
+        }
+        assertSame(existing, scene.getMeshById(existing.getId()));
+    }
+
+    @Test
+    void replaceMeshesDropsEarlierMeshes() {
+        Scene scene = new Scene();
+        Mesh old = new CubeMesh("Old");
+        scene.addMesh(old);
+        scene.setSelectedMesh(old);
+
+        Mesh first = new CylinderMesh("First");
+        Mesh second = new CubeMesh("Second");
+        // Loaded from a file that reuses the old mesh's id, which is free again after the replace
+        first.setId(old.getId());
+        second.setId(old.getId());
+        List<Mesh> loaded = new ArrayList<>(List.of(first, second));
+        scene.replaceMeshes(loaded).join();
+        // The scene keeps its own copy of the list
+        loaded.clear();
+
+        assertEquals(List.of(first, second), scene.getMeshes());
+        assertEquals(old.getId(), first.getId());
+        assertNotEquals(first.getId(), second.getId());
+        assertSame(first, scene.getSelectedMesh());
+    }
+
+    @Test
+    void frustumCullingSkipsMeshesOutOfView() {
+        Scene scene = new Scene();
+        Mesh cube = new CubeMesh("Cube");
+        Mesh copy = cube.duplicate("Copy");
+        copy.setPositionX(0.5f);
+        Mesh cylinder = new CylinderMesh("Cylinder");
+        cylinder.setPositionY(0.5f);
+        Mesh donut = new DonutMesh("Donut");
+        donut.setPositionZ(0.5f);
+        List<Mesh> inside = List.of(cube, copy, cylinder, donut);
+
+        // Past the far plane or off to a side, whichever way the camera looks
+        List<Mesh> outside = new ArrayList<>();
+        for (int axis = 0; axis < 3; axis++) {
+            for (int sign = -1; sign <= 1; sign += 2) {
+                Mesh far = new CubeMesh("Far " + axis + " " + sign);
+                far.setPositionX(axis == 0 ? 50 * sign : 0);
+                far.setPositionY(axis == 1 ? 50 * sign : 0);
+                far.setPositionZ(axis == 2 ? 50 * sign : 0);
+                outside.add(far);
+            }
+        }
+        for (int i = 0; i < outside.size(); i++) {
+            if (i < inside.size()) {
+                scene.addMesh(inside.get(i));
+            }
+            scene.addMesh(outside.get(i));
+        }
+
+        List<Mesh> visible = scene.cull(scene.getMeshes(), 800, 600);
+        assertEquals(inside, visible);
+        assertEquals(4, scene.getDrawnMeshCount());
+        assertEquals(6, scene.getCulledMeshCount());
+
+        // Only the visible meshes reach the backend, the two cubes as one batch
+        RecordingRenderBackend backend = new RecordingRenderBackend();
+        MeshRenderer renderer = new MeshRenderer(backend);
+        renderer.beginFrame();
+        scene.drawInstanced(renderer, visible);
+        renderer.endFrame();
+        assertEquals(3, backend.instancedDraws);
+        assertEquals(3, backend.uploads.size());
+        assertEquals(4, renderer.getInstancesThisFrame());
+
+        Mesh moved = outside.get(0);
+        moved.setPositionX(-1.0f);
+        scene.cull(scene.getMeshes(), 800, 600);
+        assertEquals(5, scene.getDrawnMeshCount());
+        assertEquals(5, scene.getCulledMeshCount());
+
+        scene.frustumCulling = false;
+        assertEquals(scene.getMeshes(), scene.cull(scene.getMeshes(), 800, 600));
+        assertEquals(10, scene.getDrawnMeshCount());
+        assertEquals(0, scene.getCulledMeshCount());
+    }
+
+    @Test
+    void idleSceneRendersNoFrames() {
+        Scene scene = new Scene();
+        Mesh cube = new CubeMesh("Cube");
+        scene.addMesh(cube);
+        GLX window = new GLX();
+
+        // The first frame after the change, then an hour of idle loop iterations
+        assertEquals(1, frames(scene, window, 0, 1));
+        assertEquals(0, frames(scene, window, 1, 3600));
+
+        // Adding and removing a shape are changes too
+        Functions functions = new Functions(scene);
+        CircleShape shape = new CircleShape("Circle", "Top");
+        functions.addShapeToMesh(cube, shape);
+        assertEquals(1, frames(scene, window, 1, 3600));
+        functions.removeShapeFromMesh(cube, shape);
+        assertEquals(1, frames(scene, window, 1, 3600));
+    }
+
+    // Frames the render loop draws over the given number of wake-ups, each the given seconds apart
+    private static int frames(Scene scene, GLX window, double secondsApart, int iterations) {
+        int frames = 0;
+        double idle = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (window.shouldRender(scene.consumeRedrawRequest(), idle)) {
+                frames++;
+                idle = 0;
+            }
+            idle += secondsApart;
+        }
+        return frames;
+    }
+}
@@ -0,0 +1,158 @@
+package glx;
+
+import glx.mesh.CubeMesh;
+import glx.mesh.Mesh;
+import glx.render.Camera;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.lwjgl.glfw.GLFW.*;
+
+class WindowInputTest {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+
+    private Scene scene;
+    private WindowInput input;
+    private Mesh cube;
+
+    @BeforeEach
+    void setUp() {
+        scene = new Scene();
+        input = new WindowInput(scene);
+        input.onWindowSize(WIDTH, HEIGHT);
+        input.onFramebufferSize(2 * WIDTH, 2 * HEIGHT);
+        cube = new CubeMesh("Cube");
+        scene.addMesh(cube);
+        scene.consumeRedrawRequest();
+    }
+
+    @Test
+    void tracksSizesAndCursor() {
+        input.onWindowSize(1024, 768);
+        input.onCursorPos(10.5, 20.25);
+
+        assertEquals(1024, input.getWindowWidth());
+        assertEquals(768, input.getWindowHeight());
+        assertEquals(2 * WIDTH, input.getFramebufferWidth());
+        assertEquals(10.5, input.getCursorX());
+        assertEquals(20.25, input.getCursorY());
+        // Moving the cursor without a button held changes nothing in the scene
+        assertFalse(scene.consumeRedrawRequest());
+
+        input.onFramebufferSize(640, 480);
+        assertEquals(640, input.getFramebufferWidth());
+        assertTrue(scene.consumeRedrawRequest());
+    }
+
+    @Test
+    void dragRotatesCamera() {
+        float rotationX = scene.cameraRotationX;
+        float rotationY = scene.cameraRotationY;
+        input.onCursorPos(5, 5);
+        input.onMouseButton(GLFW_MOUSE_BUTTON_LEFT, GLFW_PRESS);
+        input.onCursorPos(25, 15);
+
+        assertTrue(input.isDragging());
+        assertEquals(rotationY + 10.0f, scene.cameraRotationY);
+        assertEquals(rotationX + 5.0f, scene.cameraRotationX);
+
+        input.onMouseButton(GLFW_MOUSE_BUTTON_LEFT, GLFW_RELEASE);
+        input.onCursorPos(100, 100);
+        assertFalse(input.isDragging());
+        assertEquals(rotationY + 10.0f, scene.cameraRotationY);
+    }
+
+    @Test
+    void dragOnGizmoMovesSelectedMesh() {
+        scene.setSelectedMesh(cube);
+        float[] handle = gizmoXHandle();
+        input.onCursorPos(handle[0], handle[1]);
+        input.onMouseButton(GLFW_MOUSE_BUTTON_LEFT, GLFW_PRESS);
+        assertTrue(input.isGizmoDragging());
+        assertEquals(0, scene.draggedAxis);
+
+        input.onCursorPos(handle[0] + 40, handle[1]);
+        assertNotEquals(0.0f, cube.getPositionX());
+        assertEquals(0.0f, cube.getPositionY());
+        assertEquals(0.0f, cube.getPositionZ());
+    }
+
+    @Test
+    void scrollClampsDistance() {
+        for (int i = 0; i < 100; i++) {
+            input.onScroll(1);
+        }
+        assertEquals(3.0f, scene.cameraDistance);
+        for (int i = 0; i < 100; i++) {
+            input.onScroll(-1);
+        }
+        assertEquals(15.0f, scene.cameraDistance);
+    }
+
+    @Test
+    void callbacksDoNotAllocate() {
+        scene.setSelectedMesh(cube);
+        float[] handle = gizmoXHandle();
+        // Warm up through the same method so the measured run is compiled code,
+        // not an OSR transition
+        for (int i = 0; i < 5; i++) {
+            allocatedBy(handle, 10_000);
+        }
+
+        // A deoptimization while measuring puts the objects the JIT had eliminated on the heap
+        // once, allocation in the callbacks shows up in every run
+        long least = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            least = Math.min(least, allocatedBy(handle, 10_000));
+        }
+        assertEquals(0, least, "bytes allocated by 10000 rounds of callbacks");
+    }
+
+    private long allocatedBy(float[] handle, int rounds) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < rounds; i++) {
+            events(handle, i);
+        }
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    /**
+     * One round of everything the callbacks see: resizes, hovering, a camera
+     * drag, a gizmo drag and scrolling
+     */
+    private void events(float[] handle, int i) {
+        input.onWindowSize(WIDTH, HEIGHT);
+        input.onFramebufferSize(2 * WIDTH, 2 * HEIGHT);
+        input.onCursorPos(i % WIDTH, i % HEIGHT);
+
+        input.onCursorPos(5, 5);
+        input.onMouseButton(GLFW_MOUSE_BUTTON_LEFT, GLFW_PRESS);
+        input.onCursorPos(5 + i % 7, 5 - i % 5);
+        input.onMouseButton(GLFW_MOUSE_BUTTON_LEFT, GLFW_RELEASE);
+
+        input.onCursorPos(handle[0], handle[1]);
+        input.onMouseButton(GLFW_MOUSE_BUTTON_LEFT, GLFW_PRESS);
+        input.onCursorPos(handle[0] + i % 11, handle[1]);
+        input.onMouseButton(GLFW_MOUSE_BUTTON_LEFT, GLFW_RELEASE);
+
+        input.onScroll(i % 2 == 0 ? 1 : -1);
+        scene.consumeRedrawRequest();
+    }
+
+    // Window position halfway along the selected mesh's x gizmo handle
+    private float[] gizmoXHandle() {
+        Mesh mesh = scene.getSelectedMesh();
+        Camera camera = new Camera();
+        camera.update(scene.cameraRotationX, scene.cameraRotationY, scene.cameraDistance, WIDTH, HEIGHT);
+        float[] origin = new float[3];
+        float[] end = new float[3];
+        camera.project(mesh.getPositionX(), mesh.getPositionY(), mesh.getPositionZ(), WIDTH, HEIGHT, origin);
+        camera.project(mesh.getPositionX() + 1, mesh.getPositionY(), mesh.getPositionZ(), WIDTH, HEIGHT, end);
+        return new float[] { (origin[0] + end[0]) / 2, (origin[1] + end[1]) / 2 };
+    }
+}
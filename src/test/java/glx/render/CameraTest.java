@@ -0,0 +1,176 @@
+package glx.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CameraTest {
+    private static final int WIDTH = 1600;
+    private static final int HEIGHT = 900;
+
+    @Test
+    void projectsOriginToViewportCenter() {
+        Camera camera = new Camera();
+        camera.update(0, 0, 10, 800, 800);
+        float[] out = new float[3];
+
+        assertTrue(camera.project(0, 0, 0, 800, 800, out));
+        assertEquals(400.0f, out[0], 1e-3f);
+        assertEquals(400.0f, out[1], 1e-3f);
+        assertEquals(10.0f, camera.viewDepth(0, 0, 0), 1e-5f);
+    }
+
+    @Test
+    void matchesHandComputedFrustum() {
+        Camera camera = new Camera();
+        camera.update(0, 0, 10, 800, 800);
+        float[] out = new float[3];
+
+        // glFrustum(-1, 1, -1, 1, 2, 20): x_clip = 2 * x, w_clip = 10, so x_ndc = 0.2
+        camera.project(1, 0, 0, 800, 800, out);
+        assertEquals(480.0f, out[0], 1e-3f);
+        assertEquals(400.0f, out[1], 1e-3f);
+        // Window y grows downwards
+        camera.project(0, 1, 0, 800, 800, out);
+        assertEquals(320.0f, out[1], 1e-3f);
+        // Points on the near and far plane get depth 0 and 1
+        camera.project(0, 0, 8, 800, 800, out);
+        assertEquals(0.0f, out[2], 1e-5f);
+        camera.project(0, 0, -10, 800, 800, out);
+        assertEquals(1.0f, out[2], 1e-5f);
+    }
+
+    @Test
+    void matchesFixedFunctionMatrices() {
+        float[][] states = { { 0, 0, 12 }, { 30, 45, 12 }, { -20, 200, 6 }, { 89, -135, 15 } };
+        float[][] points = { { 0, 0, 0 }, { 1, 2, 3 }, { -2.5f, 0.5f, 1 }, { 3, -1, -4 } };
+        Camera camera = new Camera();
+        float[] out = new float[3];
+
+        for (float[] state : states) {
+            camera.update(state[0], state[1], state[2], WIDTH, HEIGHT);
+            double aspect = (double) WIDTH / HEIGHT;
+            // What Scene.render used to load: glFrustum, then glTranslatef(0, 0, -distance),
+            // glRotatef(rotationX, 1, 0, 0) and glRotatef(rotationY, 0, 1, 0)
+            double[] view = multiply(translate(0, 0, -state[2]),
+                    multiply(rotate(state[0], 1, 0, 0), rotate(state[1], 0, 1, 0)));
+            double[] viewProjection = multiply(frustum(-aspect, aspect, -1, 1, Camera.NEAR, Camera.FAR), view);
+
+            for (float[] p : points) {
+                double[] clip = transform(viewProjection, p);
+                double[] eye = transform(view, p);
+                boolean inFront = camera.project(p[0], p[1], p[2], WIDTH, HEIGHT, out);
+
+                assertEquals(clip[3] > 0, inFront);
+                assertEquals(WIDTH * (clip[0] / clip[3] + 1) / 2, out[0], 1e-2);
+                assertEquals(HEIGHT * (1 - (clip[1] / clip[3] + 1) / 2), out[1], 1e-2);
+                assertEquals((clip[2] / clip[3] + 1) / 2, out[2], 1e-4);
+                assertEquals(-eye[2], camera.viewDepth(p[0], p[1], p[2]), 1e-4);
+            }
+        }
+    }
+
+    @Test
+    void recomputesOnlyWhenInputsChange() {
+        Camera camera = new Camera();
+        camera.update(30, 45, 12, WIDTH, HEIGHT);
+        camera.update(30, 45, 12, WIDTH, HEIGHT);
+        assertEquals(1, camera.getUpdateCount());
+
+        camera.update(30, 45, 12, WIDTH, HEIGHT + 1);
+        camera.update(31, 45, 12, WIDTH, HEIGHT + 1);
+        assertEquals(3, camera.getUpdateCount());
+    }
+
+    @Test
+    void updateAndProjectDoNotAllocate() {
+        Camera camera = new Camera();
+        float[] out = new float[3];
+        // Warm up so the measured loop runs compiled code
+        run(camera, out, 20_000);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.getCurrentThreadAllocatedBytes();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        run(camera, out, 10_000);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(0, allocated, "bytes allocated by 10000 updates");
+    }
+
+    private static void run(Camera camera, float[] out, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            // A new rotation every call, so every update recomputes the matrices
+            camera.update(i % 360, (i * 7) % 360, 12, WIDTH, HEIGHT);
+            camera.project(1, 2, 3, WIDTH, HEIGHT, out);
+            camera.viewDepth(1, 2, 3);
+        }
+    }
+
+    // Reference matrices in double precision, column-major as the GL specification defines them
+
+    private static double[] frustum(double l, double r, double b, double t, double n, double f) {
+        double[] m = new double[16];
+        m[0] = 2 * n / (r - l);
+        m[5] = 2 * n / (t - b);
+        m[8] = (r + l) / (r - l);
+        m[9] = (t + b) / (t - b);
+        m[10] = -(f + n) / (f - n);
+        m[11] = -1;
+        m[14] = -2 * f * n / (f - n);
+        return m;
+    }
+
+    private static double[] translate(double x, double y, double z) {
+        double[] m = identity();
+        m[12] = x;
+        m[13] = y;
+        m[14] = z;
+        return m;
+    }
+
+    // glRotate's axis-angle matrix for a unit axis
+    private static double[] rotate(double degrees, double x, double y, double z) {
+        double a = Math.toRadians(degrees);
+        double c = Math.cos(a), s = Math.sin(a), t = 1 - c;
+        double[] m = identity();
+        m[0] = x * x * t + c;
+        m[1] = y * x * t + z * s;
+        m[2] = x * z * t - y * s;
+        m[4] = x * y * t - z * s;
+        m[5] = y * y * t + c;
+        m[6] = y * z * t + x * s;
+        m[8] = x * z * t + y * s;
+        m[9] = y * z * t - x * s;
+        m[10] = z * z * t + c;
+        return m;
+    }
+
+    private static double[] identity() {
+        double[] m = new double[16];
+        m[0] = m[5] = m[10] = m[15] = 1;
+        return m;
+    }
+
+    private static double[] multiply(double[] a, double[] b) {
+        double[] out = new double[16];
+        for (int col = 0; col < 4; col++) {
+            for (int row = 0; row < 4; row++) {
+                for (int k = 0; k < 4; k++) {
+                    out[col * 4 + row] += a[k * 4 + row] * b[col * 4 + k];
+                }
+            }
+        }
+        return out;
+    }
+
+    private static double[] transform(double[] m, float[] p) {
+        double[] out = new double[4];
+        for (int row = 0; row < 4; row++) {
+            out[row] = m[row] * p[0] + m[4 + row] * p[1] + m[8 + row] * p[2] + m[12 + row];
+        }
+        return out;
+    }
+}
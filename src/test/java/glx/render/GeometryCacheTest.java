@@ -0,0 +1,107 @@
+package glx.render;
+
+import glx.mesh.CubeMesh;
+import glx.mesh.CylinderMesh;
+import glx.mesh.Mesh;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeometryCacheTest {
+    @Test
+    void firstLookupIsAMiss() {
+        Mesh cube = new CubeMesh("Cube");
+        GeometryCache cache = cube.getGeometryCache();
+        cache.get();
+
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getRebuilds());
+    }
+
+    @Test
+    void repeatedLookupsOnlyHit() {
+        Mesh cube = new CubeMesh("Cube");
+        GeometryCache cache = cube.getGeometryCache();
+        MeshGeometry first = cache.get();
+        cache.resetStatistics();
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(first, cache.get());
+        }
+        assertEquals(100, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertEquals(0, cache.getRebuilds());
+    }
+
+    @Test
+    void sameValueSetterDoesNotRebuild() {
+        Mesh cylinder = new CylinderMesh("Cylinder");
+        GeometryCache cache = cylinder.getGeometryCache();
+        MeshGeometry first = cache.get();
+        cache.resetStatistics();
+
+        cylinder.setWidth(cylinder.getWidth());
+        cylinder.setHeight(cylinder.getHeight());
+        assertSame(first, cache.get());
+        assertEquals(0, cache.getRebuilds());
+    }
+
+    @Test
+    void invalidationWithoutChangeDoesNotRebuild() {
+        Mesh cube = new CubeMesh("Cube");
+        GeometryCache cache = cube.getGeometryCache();
+        MeshGeometry first = cache.get();
+        cache.resetStatistics();
+
+        cube.invalidateGeometry();
+        assertSame(first, cache.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(0, cache.getRebuilds());
+    }
+
+    @Test
+    void realChangeRebuildsOnce() {
+        Mesh cube = new CubeMesh("Cube");
+        GeometryCache cache = cube.getGeometryCache();
+        MeshGeometry first = cache.get();
+        cache.resetStatistics();
+
+        cube.setWidth(2.5f);
+        MeshGeometry changed = cache.get();
+        for (int i = 0; i < 10; i++) {
+            assertSame(changed, cache.get());
+        }
+
+        assertNotSame(first, changed);
+        assertEquals(1, cache.getRebuilds());
+        assertEquals(0, cache.getMisses());
+        assertEquals(10, cache.getHits());
+        assertEquals(cube.getGeometryKey(), cache.getKey());
+    }
+
+    @Test
+    void indexedGeometryMatchesTheLevelReadOnce() {
+        // The render thread may switch the level between any two reads
+        Mesh switching = new CylinderMesh("Switching") {
+            private int reads = 0;
+
+            @Override
+            public int getLodLevel() {
+                return reads++ % 2 == 0 ? 0 : 2;
+            }
+        };
+        Mesh full = new CylinderMesh("Full");
+        Mesh coarse = new CylinderMesh("Coarse");
+        coarse.setLodLevel(2);
+        int fullTriangles = full.getIndexedGeometry().getTriangleCount();
+        int coarseTriangles = coarse.getIndexedGeometry().getTriangleCount();
+        assertNotEquals(fullTriangles, coarseTriangles);
+
+        GeometryCache cache = switching.getGeometryCache();
+        assertEquals(fullTriangles, cache.getIndexed().getTriangleCount());
+        assertEquals(coarseTriangles, cache.getIndexed().getTriangleCount());
+        assertEquals(fullTriangles, cache.getIndexed().getTriangleCount());
+        assertEquals(coarseTriangles, cache.getIndexed().getTriangleCount());
+    }
+}
@@ -0,0 +1,87 @@
+package glx.render;
+
+import glx.mesh.CubeMesh;
+import glx.mesh.CylinderMesh;
+import glx.mesh.DonutMesh;
+import glx.mesh.Mesh;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeometryOptimizerTest {
+    @Test
+    void optimizeDoesNotWorsenVertexCache() {
+        for (Mesh mesh : List.of(new CubeMesh("Cube"), new CylinderMesh("Cylinder"), new DonutMesh("Donut"))) {
+            IndexedGeometry geometry = mesh.getIndexedGeometry();
+            IndexedGeometry optimized = GeometryOptimizer.optimize(geometry);
+
+            assertEquals(geometry.getTriangleCount(), optimized.getTriangleCount(), mesh.getName());
+            assertTrue(GeometryOptimizer.analyze(optimized).acmr <= GeometryOptimizer.analyze(geometry).acmr,
+                    mesh.getName());
+        }
+    }
+
+    @Test
+    void levelsRoughlyHalveTheTriangles() {
+        IndexedGeometry geometry = new DonutMesh("Donut").getIndexedGeometry();
+        List<IndexedGeometry> levels = GeometryOptimizer.generateLevels(geometry, LevelOfDetail.LEVELS);
+
+        assertEquals(LevelOfDetail.LEVELS, levels.size());
+        assertEquals(geometry.getTriangleCount(), levels.get(0).getTriangleCount());
+        for (int level = 1; level < levels.size(); level++) {
+            int previous = levels.get(level - 1).getTriangleCount();
+            int current = levels.get(level).getTriangleCount();
+            assertTrue(current >= previous * 0.4 && current <= previous * 0.6,
+                    "level " + level + ": " + previous + " -> " + current + " triangles");
+        }
+    }
+
+    @Test
+    void equalMeshesShareOneEntry() {
+        OptimizedGeometryCache cache = new OptimizedGeometryCache();
+        Mesh donut = new DonutMesh("Donut");
+        Mesh copy = donut.duplicate("Copy");
+
+        IndexedGeometry optimized = cache.getOptimized(donut);
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        assertSame(optimized, cache.getOptimized(copy));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+
+        // An edited mesh moves to its own entry
+        ((DonutMesh) copy).setOuterRadius(0.9f);
+        assertNotSame(optimized, cache.getOptimized(copy));
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void entriesFollowTheLevelReadOnce() {
+        OptimizedGeometryCache cache = new OptimizedGeometryCache();
+        Mesh full = new CylinderMesh("Full");
+        Mesh coarse = new CylinderMesh("Coarse");
+        coarse.setLodLevel(2);
+        int fullTriangles = cache.getOptimized(full).getTriangleCount();
+        int coarseTriangles = cache.getOptimized(coarse).getTriangleCount();
+        assertNotEquals(fullTriangles, coarseTriangles);
+
+        // The render thread may switch the level between any two reads
+        Mesh switching = new CylinderMesh("Switching") {
+            private int reads = 0;
+
+            @Override
+            public int getLodLevel() {
+                return reads++ % 2 == 0 ? 0 : 2;
+            }
+        };
+        assertEquals(fullTriangles, cache.getOptimized(switching).getTriangleCount());
+        assertEquals(coarseTriangles, cache.getOptimized(switching).getTriangleCount());
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getHits());
+    }
+}
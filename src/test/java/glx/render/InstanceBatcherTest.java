@@ -0,0 +1,174 @@
+package glx.render;
+
+import glx.mesh.CubeMesh;
+import glx.mesh.CylinderMesh;
+import glx.mesh.Mesh;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstanceBatcherTest {
+    @Test
+    void duplicatesShareOneBatch() {
+        Mesh cube = new CubeMesh("Cube");
+        Mesh copy1 = cube.duplicate("Copy1");
+        Mesh copy2 = cube.duplicate("Copy2");
+        copy1.setPositionX(2.0f);
+        copy2.setRotationY(90.0f);
+        Mesh cylinder = new CylinderMesh("Cylinder");
+
+        InstanceBatcher batcher = new InstanceBatcher();
+        List<InstanceBatch> batches = batcher.build(List.of(cube, cylinder, copy1, copy2));
+
+        assertEquals(2, batches.size());
+        assertEquals(2, batcher.getBatchCount());
+        InstanceBatch cubes = batches.get(0);
+        assertEquals(3, cubes.count);
+        assertArrayEquals(new Mesh[] { cube, copy1, copy2 }, Arrays.copyOf(cubes.meshes, cubes.count));
+        assertEquals(cube.getGeometryKey(), cubes.key);
+        assertSame(cube.getGeometry(), cubes.geometry);
+        assertEquals(1, batches.get(1).count);
+        assertSame(cylinder, batches.get(1).meshes[0]);
+    }
+
+    @Test
+    void editedMeshMovesToItsOwnBatch() {
+        Mesh cube = new CubeMesh("Cube");
+        Mesh copy = cube.duplicate("Copy");
+        InstanceBatcher batcher = new InstanceBatcher();
+        assertEquals(1, batcher.build(List.of(cube, copy)).size());
+
+        copy.setHeight(3.0f);
+        List<InstanceBatch> batches = batcher.build(List.of(cube, copy));
+        assertEquals(2, batches.size());
+        assertEquals(1, batches.get(0).count);
+        assertEquals(1, batches.get(1).count);
+        assertSame(copy, batches.get(1).meshes[0]);
+        assertEquals(copy.getGeometryKey(), batches.get(1).key);
+
+        // Editing it back joins the shared batch again
+        copy.setHeight(cube.getHeight());
+        batches = batcher.build(List.of(cube, copy));
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).count);
+    }
+
+    @Test
+    void batchesGrowPastInitialCapacity() {
+        Mesh cube = new CubeMesh("Cube");
+        Mesh[] meshes = new Mesh[50];
+        for (int i = 0; i < meshes.length; i++) {
+            meshes[i] = cube.duplicate("Copy" + i);
+            meshes[i].setPositionZ(i);
+        }
+
+        InstanceBatch batch = new InstanceBatcher().build(List.of(meshes)).get(0);
+        assertEquals(50, batch.count);
+        for (int i = 0; i < meshes.length; i++) {
+            assertSame(meshes[i], batch.meshes[i]);
+            assertEquals(i, batch.transforms[i * InstanceBatch.FLOATS_PER_INSTANCE + 14]);
+        }
+    }
+
+    @Test
+    void transformsHoldEachInstanceModelMatrix() {
+        Mesh cube = new CubeMesh("Cube");
+        Mesh copy = cube.duplicate("Copy");
+        copy.setPositionX(1.0f);
+        copy.setPositionY(-2.0f);
+        copy.setPositionZ(3.5f);
+        copy.setRotationX(30.0f);
+        copy.setRotationY(-45.0f);
+        copy.setRotationZ(120.0f);
+
+        InstanceBatch batch = new InstanceBatcher().build(List.of(cube, copy)).get(0);
+        float[] expected = new float[16];
+        for (int i = 0; i < batch.count; i++) {
+            InstanceBatcher.modelMatrix(batch.meshes[i], expected, 0);
+            assertArrayEquals(expected, Arrays.copyOfRange(batch.transforms,
+                    i * InstanceBatch.FLOATS_PER_INSTANCE, (i + 1) * InstanceBatch.FLOATS_PER_INSTANCE));
+        }
+    }
+
+    @Test
+    void modelMatrixIsColumnMajorTranslateRotateXYZ() {
+        float[] m = new float[20];
+        InstanceBatcher.modelMatrix(1.0f, -2.0f, 3.5f, 30.0f, -45.0f, 120.0f, m, 4);
+
+        // glTranslatef followed by glRotatef around x, y and z, as Scene.render applies them
+        double[] expected = multiply(translate(1.0, -2.0, 3.5),
+                multiply(rotateX(30.0), multiply(rotateY(-45.0), rotateZ(120.0))));
+        for (int i = 0; i < 16; i++) {
+            assertEquals(expected[i], m[4 + i], 1e-6, "element " + i);
+        }
+        // Translation in the last column, bottom row (0, 0, 0, 1)
+        assertEquals(1.0f, m[4 + 12]);
+        assertEquals(-2.0f, m[4 + 13]);
+        assertEquals(3.5f, m[4 + 14]);
+        assertEquals(0.0f, m[4 + 3]);
+        assertEquals(0.0f, m[4 + 7]);
+        assertEquals(0.0f, m[4 + 11]);
+        assertEquals(1.0f, m[4 + 15]);
+        // The offset is respected
+        assertEquals(0.0f, m[0]);
+    }
+
+    private static double[] translate(double x, double y, double z) {
+        double[] m = identity();
+        m[12] = x;
+        m[13] = y;
+        m[14] = z;
+        return m;
+    }
+
+    private static double[] rotateX(double degrees) {
+        double c = Math.cos(Math.toRadians(degrees)), s = Math.sin(Math.toRadians(degrees));
+        double[] m = identity();
+        m[5] = c;
+        m[6] = s;
+        m[9] = -s;
+        m[10] = c;
+        return m;
+    }
+
+    private static double[] rotateY(double degrees) {
+        double c = Math.cos(Math.toRadians(degrees)), s = Math.sin(Math.toRadians(degrees));
+        double[] m = identity();
+        m[0] = c;
+        m[2] = -s;
+        m[8] = s;
+        m[10] = c;
+        return m;
+    }
+
+    private static double[] rotateZ(double degrees) {
+        double c = Math.cos(Math.toRadians(degrees)), s = Math.sin(Math.toRadians(degrees));
+        double[] m = identity();
+        m[0] = c;
+        m[1] = s;
+        m[4] = -s;
+        m[5] = c;
+        return m;
+    }
+
+    private static double[] identity() {
+        double[] m = new double[16];
+        m[0] = m[5] = m[10] = m[15] = 1;
+        return m;
+    }
+
+    private static double[] multiply(double[] a, double[] b) {
+        double[] out = new double[16];
+        for (int col = 0; col < 4; col++) {
+            for (int row = 0; row < 4; row++) {
+                for (int k = 0; k < 4; k++) {
+                    out[col * 4 + row] += a[k * 4 + row] * b[col * 4 + k];
+                }
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,137 @@
+package glx.render;
+
+import glx.mesh.CubeMesh;
+import glx.mesh.Mesh;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeshRendererTest {
+    private RecordingRenderBackend backend;
+    private MeshRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        backend = new RecordingRenderBackend();
+        renderer = new MeshRenderer(backend);
+    }
+
+    private void frame(Mesh... meshes) {
+        renderer.beginFrame();
+        for (Mesh mesh : meshes) {
+            renderer.draw(mesh);
+        }
+        renderer.endFrame();
+    }
+
+    @Test
+    void uploadsGeometryOnce() {
+        Mesh cube = new CubeMesh("Cube");
+        for (int i = 0; i < 10; i++) {
+            frame(cube);
+        }
+
+        assertEquals(1, backend.uploads.size());
+        assertEquals(10, backend.draws.size());
+        assertSame(cube.getGeometry(), backend.uploads.get(0));
+        assertEquals(0, backend.immediateDraws);
+    }
+
+    @Test
+    void identicalMeshesShareBuffers() {
+        Mesh cube = new CubeMesh("Cube");
+        Mesh copy = cube.duplicate("Copy");
+        frame(cube, copy);
+
+        assertEquals(1, backend.uploads.size());
+        assertEquals(1, renderer.getResidentMeshCount());
+        assertSame(backend.draws.get(0), backend.draws.get(1));
+    }
+
+    @Test
+    void uploadsAgainAfterSetter() {
+        Mesh cube = new CubeMesh("Cube");
+        frame(cube);
+        cube.setWidth(2.0f);
+        frame(cube);
+        frame(cube);
+
+        assertEquals(2, backend.uploads.size());
+        assertSame(cube.getGeometry(), backend.uploads.get(1));
+        assertNotSame(backend.draws.get(0), backend.draws.get(1));
+    }
+
+    @Test
+    void sameValueSetterDoesNotUpload() {
+        Mesh cube = new CubeMesh("Cube");
+        frame(cube);
+        cube.setWidth(cube.getWidth());
+        frame(cube);
+
+        assertEquals(1, backend.uploads.size());
+    }
+
+    @Test
+    void capsUploadsPerFrame() {
+        List<Mesh> meshes = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Mesh cube = new CubeMesh("Cube" + i);
+            cube.setWidth(1.0f + i * 0.01f);
+            meshes.add(cube);
+        }
+        Mesh[] scene = meshes.toArray(new Mesh[0]);
+
+        frame(scene);
+        assertEquals(256, renderer.getMaxUploadsPerFrame());
+        assertEquals(256, backend.uploads.size());
+        assertEquals(256, renderer.getUploadsThisFrame());
+        assertEquals(44, renderer.getImmediateDrawsThisFrame());
+        assertEquals(44, backend.immediateDraws);
+
+        frame(scene);
+        assertEquals(300, backend.uploads.size());
+        assertEquals(44, renderer.getUploadsThisFrame());
+        assertEquals(0, renderer.getImmediateDrawsThisFrame());
+        assertEquals(300, renderer.getResidentMeshCount());
+    }
+
+    @Test
+    void evictsMeshesUnusedFor120Frames() {
+        Mesh cube = new CubeMesh("Cube");
+        Mesh other = new CubeMesh("Other");
+        other.setWidth(3.0f);
+
+        frame(cube, other);
+        GpuMesh cubeBuffers = backend.draws.get(0);
+        // Keep drawing only the other mesh until just before the cube has been idle for 120 frames
+        for (int i = 0; i < 118; i++) {
+            frame(other);
+        }
+        assertEquals(2, renderer.getResidentMeshCount());
+        assertTrue(backend.deletes.isEmpty());
+
+        for (int i = 0; i < 121; i++) {
+            frame(other);
+        }
+        assertEquals(1, renderer.getResidentMeshCount());
+        assertEquals(List.of(cubeBuffers), backend.deletes);
+
+        // Drawing it again uploads it again
+        frame(cube);
+        assertEquals(3, backend.uploads.size());
+    }
+
+    @Test
+    void disposeDeletesResidentBuffers() {
+        frame(new CubeMesh("Cube"));
+        renderer.dispose();
+
+        assertEquals(1, backend.deletes.size());
+        assertEquals(0, renderer.getResidentMeshCount());
+        assertTrue(backend.disposed);
+    }
+}
@@ -0,0 +1,65 @@
+package glx.render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Backend that records every call instead of talking to OpenGL. Uploads get
+ * made-up buffer names so deletes can be told apart. Public for the scene tests.
+ */
+public class RecordingRenderBackend implements RenderBackend {
+    public final List<MeshGeometry> uploads = new ArrayList<>();
+    public final List<GpuMesh> draws = new ArrayList<>();
+    public final List<GpuMesh> deletes = new ArrayList<>();
+    public int instancedDraws = 0;
+    public int immediateDraws = 0;
+    public int immediateInstances = 0;
+    public boolean disposed = false;
+
+    private int nextBuffer = 1;
+
+    @Override
+    public void upload(GpuMesh mesh, MeshGeometry geometry) {
+        if (mesh.vertexBuffer == 0) {
+            mesh.vertexBuffer = nextBuffer++;
+            mesh.indexBuffer = nextBuffer++;
+        }
+        mesh.geometry = geometry;
+        uploads.add(geometry);
+    }
+
+    @Override
+    public void draw(GpuMesh mesh) {
+        draws.add(mesh);
+    }
+
+    @Override
+    public void drawInstances(GpuMesh mesh, float[] transforms, int count) {
+        instancedDraws++;
+        draws.add(mesh);
+    }
+
+    @Override
+    public void drawImmediate(MeshGeometry geometry) {
+        immediateDraws++;
+    }
+
+    @Override
+    public void drawImmediate(MeshGeometry geometry, float[] transforms, int count) {
+        immediateDraws++;
+        immediateInstances += count;
+    }
+
+    @Override
+    public void delete(GpuMesh mesh) {
+        deletes.add(mesh);
+        mesh.vertexBuffer = 0;
+        mesh.indexBuffer = 0;
+        mesh.geometry = null;
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+    }
+}
@@ -0,0 +1,136 @@
+package glx.render;
+
+import glx.mesh.CubeMesh;
+import glx.mesh.CylinderMesh;
+import glx.mesh.DonutMesh;
+import glx.mesh.Mesh;
+import glx.mesh.TriangleMesh;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TessellatorTest {
+    private static List<Mesh> meshes() {
+        return List.of(new CubeMesh("Cube"), new CylinderMesh("Cylinder"), new DonutMesh("Donut"),
+                new TriangleMesh("Triangle"));
+    }
+
+    @Test
+    void windingEnclosesThePositiveVolume() {
+        for (Mesh mesh : meshes()) {
+            IndexedGeometry geometry = Tessellator.tessellate(mesh);
+            float volume = signedVolume(geometry);
+            assertEquals(mesh.getVolume(), volume, mesh.getVolume() * 0.05f, mesh.getType());
+            assertEquals(mesh.getSurfaceArea(), geometry.getSurfaceArea(), mesh.getSurfaceArea() * 0.05f,
+                    mesh.getType());
+        }
+    }
+
+    @Test
+    void surfacesAreClosedAndConsistentlyWound() {
+        // Welded by position only, every edge is walked once in each direction
+        for (Mesh mesh : meshes()) {
+            IndexedGeometry geometry = new Tessellator(180.0f).build(mesh.getGeometry());
+            Map<Long, Integer> edges = new HashMap<>();
+            int[] indices = geometry.indices;
+            for (int i = 0; i < indices.length; i += 3) {
+                for (int k = 0; k < 3; k++) {
+                    long edge = (long) indices[i + k] << 32 | indices[i + (k + 1) % 3];
+                    edges.merge(edge, 1, Integer::sum);
+                }
+            }
+            for (Map.Entry<Long, Integer> entry : edges.entrySet()) {
+                long edge = entry.getKey();
+                long reverse = (edge & 0xFFFFFFFFL) << 32 | edge >>> 32;
+                assertEquals(1, entry.getValue(), mesh.getType() + " edge walked twice");
+                assertEquals(1, edges.getOrDefault(reverse, 0), mesh.getType() + " open or flipped edge");
+            }
+        }
+    }
+
+    @Test
+    void normalsAreUnitAndFaceOutwards() {
+        for (Mesh mesh : meshes()) {
+            IndexedGeometry geometry = Tessellator.tessellate(mesh);
+            float[] p = geometry.positions;
+            float[] n = geometry.normals;
+            for (int v = 0; v < geometry.getVertexCount() * 3; v += 3) {
+                assertEquals(1.0f, (float) Math.sqrt(n[v] * n[v] + n[v + 1] * n[v + 1] + n[v + 2] * n[v + 2]),
+                        1e-5f, mesh.getType());
+            }
+            // Every vertex normal leans the way of the faces that share it
+            int[] indices = geometry.indices;
+            for (int i = 0; i < indices.length; i += 3) {
+                float[] face = faceNormal(p, indices[i] * 3, indices[i + 1] * 3, indices[i + 2] * 3);
+                for (int k = 0; k < 3; k++) {
+                    int v = indices[i + k] * 3;
+                    assertTrue(face[0] * n[v] + face[1] * n[v + 1] + face[2] * n[v + 2] > 0,
+                            mesh.getType() + " vertex " + indices[i + k]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void cubeKeepsFlatFaces() {
+        IndexedGeometry geometry = Tessellator.tessellate(new CubeMesh("Cube"));
+        assertEquals(24, geometry.getVertexCount());
+        assertEquals(12, geometry.getTriangleCount());
+        float[] n = geometry.normals;
+        for (int v = 0; v < n.length; v += 3) {
+            // Axis aligned: one component is +-1, the others 0
+            float largest = Math.max(Math.abs(n[v]), Math.max(Math.abs(n[v + 1]), Math.abs(n[v + 2])));
+            assertEquals(1.0f, largest, 1e-6f);
+            assertEquals(1.0f, Math.abs(n[v]) + Math.abs(n[v + 1]) + Math.abs(n[v + 2]), 1e-6f);
+        }
+    }
+
+    @Test
+    void donutSharesEveryVertex() {
+        // A smooth closed torus of quads: each vertex is a corner of six triangles
+        IndexedGeometry geometry = Tessellator.tessellate(new DonutMesh("Donut"));
+        assertEquals(geometry.getTriangleCount(), 2 * geometry.getVertexCount());
+        int[] uses = new int[geometry.getVertexCount()];
+        for (int index : geometry.indices) {
+            uses[index]++;
+        }
+        for (int count : uses) {
+            assertEquals(6, count);
+        }
+    }
+
+    @Test
+    void followsTheLevelOfDetail() {
+        DonutMesh donut = new DonutMesh("Donut");
+        IndexedGeometry full = Tessellator.tessellate(donut);
+        donut.setLodLevel(LevelOfDetail.LEVELS - 1);
+        IndexedGeometry coarse = Tessellator.tessellate(donut);
+        assertTrue(coarse.getTriangleCount() < full.getTriangleCount());
+        // Fewer segments inscribe a smaller solid, still wound outwards
+        assertTrue(signedVolume(coarse) > 0);
+        assertTrue(signedVolume(coarse) < signedVolume(full));
+    }
+
+    private static float signedVolume(IndexedGeometry geometry) {
+        float[] p = geometry.positions;
+        int[] indices = geometry.indices;
+        double volume = 0;
+        for (int i = 0; i < indices.length; i += 3) {
+            int a = indices[i] * 3, b = indices[i + 1] * 3, c = indices[i + 2] * 3;
+            volume += p[a] * (p[b + 1] * p[c + 2] - p[b + 2] * p[c + 1])
+                    - p[a + 1] * (p[b] * p[c + 2] - p[b + 2] * p[c])
+                    + p[a + 2] * (p[b] * p[c + 1] - p[b + 1] * p[c]);
+        }
+        return (float) (volume / 6);
+    }
+
+    private static float[] faceNormal(float[] p, int a, int b, int c) {
+        float ux = p[b] - p[a], uy = p[b + 1] - p[a + 1], uz = p[b + 2] - p[a + 2];
+        float vx = p[c] - p[a], vy = p[c + 1] - p[a + 1], vz = p[c + 2] - p[a + 2];
+        return new float[] { uy * vz - uz * vy, uz * vx - ux * vz, ux * vy - uy * vx };
+    }
+}
@@ -0,0 +1,115 @@
+package glx.render;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VertexKernelsTest {
+    private static final float EPSILON = 1e-6f;
+
+    // Not a multiple of any vector length, so the scalar tail loops run too
+    private static final int COUNT = 10007;
+
+    private final VertexKernels scalar = VertexKernels.scalar();
+    private final VertexKernels kernels = VertexKernels.get();
+
+    @Test
+    void vectorKernelsAreSelected() {
+        // The test task starts the JVM with --add-modules jdk.incubator.vector
+        assertNotSame(scalar, kernels, "running on " + kernels);
+    }
+
+    @Test
+    void torusAgrees() {
+        for (int[] segments : new int[][] { { 512, 256 }, { 37, 11 }, { 3, 3 } }) {
+            CircleTable major = CircleTable.of(segments[0]);
+            CircleTable minor = CircleTable.of(segments[1]);
+            int points = (major.segments + 1) * (minor.segments + 1);
+            PointArrays expected = new PointArrays(points);
+            PointArrays actual = new PointArrays(points);
+
+            scalar.torus(0.5f, 0.2f, major, minor, expected);
+            kernels.torus(0.5f, 0.2f, major, minor, actual);
+            assertPointsClose(expected, actual, "torus " + segments[0] + "x" + segments[1]);
+        }
+    }
+
+    @Test
+    void transformAgrees() {
+        PointArrays points = randomPoints(COUNT, 5);
+        float[] model = new float[16];
+        InstanceBatcher.modelMatrix(1, 2, 3, 30, 45, 60, model, 0);
+
+        PointArrays expected = new PointArrays(COUNT);
+        PointArrays actual = new PointArrays(COUNT);
+        scalar.transform(model, points, expected);
+        kernels.transform(model, points, actual);
+        assertPointsClose(expected, actual, "transform");
+
+        // In place, as IndexedGeometry.toWorld calls it
+        kernels.transform(model, points, points);
+        assertPointsClose(expected, points, "transform in place");
+    }
+
+    @Test
+    void projectBoundsAgrees() {
+        Camera camera = new Camera();
+        camera.update(30, 45, 12, 1600, 900);
+        for (int count : new int[] { COUNT, 7, 1 }) {
+            PointArrays points = randomPoints(count, 5);
+            float[] expected = new float[4];
+            float[] actual = new float[4];
+
+            int expectedInFront = scalar.projectBounds(camera.viewProjection, points, 1600, 900, expected);
+            int actualInFront = kernels.projectBounds(camera.viewProjection, points, 1600, 900, actual);
+            assertEquals(expectedInFront, actualInFront);
+            for (int i = 0; i < 4; i++) {
+                assertClose(expected[i], actual[i], "bounds " + i + " of " + count);
+            }
+        }
+    }
+
+    @Test
+    void projectBoundsAgreesWithNothingInFront() {
+        Camera camera = new Camera();
+        camera.update(0, 0, 12, 1600, 900);
+        // Far behind the camera on its own axis
+        PointArrays points = randomPoints(COUNT, 1);
+        for (int i = 0; i < COUNT; i++) {
+            points.z[i] += 1000;
+        }
+        float[] expected = new float[4];
+        float[] actual = new float[4];
+
+        assertEquals(0, scalar.projectBounds(camera.viewProjection, points, 1600, 900, expected));
+        assertEquals(0, kernels.projectBounds(camera.viewProjection, points, 1600, 900, actual));
+        assertArrayEquals(expected, actual);
+    }
+
+    private static PointArrays randomPoints(int count, float extent) {
+        Random random = new Random(1);
+        PointArrays points = new PointArrays(count);
+        points.count = count;
+        for (int i = 0; i < count; i++) {
+            points.x[i] = (random.nextFloat() * 2 - 1) * extent;
+            points.y[i] = (random.nextFloat() * 2 - 1) * extent;
+            points.z[i] = (random.nextFloat() * 2 - 1) * extent;
+        }
+        return points;
+    }
+
+    private static void assertPointsClose(PointArrays expected, PointArrays actual, String name) {
+        assertEquals(expected.count, actual.count, name);
+        for (int i = 0; i < expected.count; i++) {
+            assertClose(expected.x[i], actual.x[i], name + " x" + i);
+            assertClose(expected.y[i], actual.y[i], name + " y" + i);
+            assertClose(expected.z[i], actual.z[i], name + " z" + i);
+        }
+    }
+
+    private static void assertClose(float expected, float actual, String message) {
+        assertEquals(expected, actual, EPSILON * Math.max(1.0f, Math.abs(expected)), message);
+    }
+}
@@ -0,0 +1,153 @@
+package glx.render;
+
+import glx.mesh.CubeMesh;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
+
+class VertexWelderTest {
+    @Test
+    void weldsUpToTheToleranceInclusive() {
+        // Powers of two so the distances are exact in float
+        VertexWelder welder = new VertexWelder(0.25f, 180.0f);
+        int origin = welder.add(0, 0, 0, 0, 0, 1);
+
+        assertEquals(origin, welder.add(0.25f, 0, 0, 0, 0, 1));
+        assertEquals(origin, welder.add(0, -0.25f, 0, 0, 0, 1));
+        assertNotEquals(origin, welder.add(Math.nextUp(0.25f), 0, 0, 0, 0, 1));
+        assertNotEquals(origin, welder.add(0, 0, -Math.nextUp(0.25f), 0, 0, 1));
+        assertEquals(3, welder.getVertexCount());
+    }
+
+    @Test
+    void weldsAcrossCellBorders() {
+        // Cells are 0.5 wide, every pair straddles a border on one or more axes
+        VertexWelder welder = new VertexWelder(0.25f, 180.0f);
+        int a = welder.add(0.49f, 0.49f, 0.49f, 0, 0, 1);
+        assertEquals(a, welder.add(0.51f, 0.51f, 0.51f, 0, 0, 1));
+        assertEquals(a, welder.add(0.51f, 0.49f, 0.51f, 0, 0, 1));
+
+        int b = welder.add(-0.01f, 0.01f, -0.01f, 0, 0, 1);
+        assertEquals(b, welder.add(0.01f, -0.01f, 0.01f, 0, 0, 1));
+        assertEquals(2, welder.getVertexCount());
+    }
+
+    @Test
+    void defaultToleranceWeldsRoundingNoise() {
+        VertexWelder welder = new VertexWelder();
+        int v = welder.add(1.0f, 2.0f, 3.0f, 0, 1, 0);
+        assertEquals(v, welder.add(1.000005f, 1.999995f, 3.0f, 0, 1, 0));
+        assertNotEquals(v, welder.add(1.0001f, 2.0f, 3.0f, 0, 1, 0));
+    }
+
+    @Test
+    void zeroToleranceWeldsIdenticalPositionsOnly() {
+        VertexWelder welder = new VertexWelder(0, 180.0f);
+        int v = welder.add(0.5f, 0, 0, 0, 0, 1);
+        assertEquals(v, welder.add(0.5f, 0, 0, 0, 0, 1));
+        assertNotEquals(v, welder.add(Math.nextUp(0.5f), 0, 0, 0, 0, 1));
+
+        int zero = welder.add(0, 0, 0, 0, 0, 1);
+        assertEquals(zero, welder.add(-0.0f, -0.0f, -0.0f, 0, 0, 1));
+        assertEquals(0.0f, welder.copyPositions()[zero * 3]);
+        assertEquals(0, Float.floatToIntBits(welder.copyPositions()[zero * 3]));
+    }
+
+    @Test
+    void creaseAngleSplitsSharpEdges() {
+        VertexWelder welder = new VertexWelder(VertexWelder.DEFAULT_TOLERANCE, 45.0f);
+        int v = welder.add(0, 0, 0, 0, 0, 1);
+        assertEquals(v, welder.add(0, 0, 0, normal(44)[0], 0, normal(44)[2]));
+        assertNotEquals(v, welder.add(0, 0, 0, normal(46)[0], 0, normal(46)[2]));
+
+        // 180 degrees welds by position whatever the normals
+        VertexWelder positionsOnly = new VertexWelder(VertexWelder.DEFAULT_TOLERANCE, 180.0f);
+        int w = positionsOnly.add(0, 0, 0, 0, 0, 1);
+        assertEquals(w, positionsOnly.add(0, 0, 0, 0, 0, -1));
+    }
+
+    @Test
+    void oldestMatchWinsAndNormalsAreKept() {
+        VertexWelder welder = new VertexWelder(0.25f, 45.0f);
+        int up = welder.add(0, 0, 0, 0, 0, 1);
+        int side = welder.add(0.1f, 0, 0, 1, 0, 0);
+        assertNotEquals(up, side);
+        // Within tolerance and crease of both, the first one added is reused
+        assertEquals(up, welder.add(0.05f, 0, 0, 0, 0, 1));
+        assertEquals(side, welder.add(0.05f, 0, 0, 1, 0, 0));
+
+        float[] normal = new float[3];
+        welder.getNormal(side, normal, 0);
+        assertArrayEquals(new float[] { 1, 0, 0 }, normal);
+    }
+
+    @Test
+    void growsAndResets() {
+        VertexWelder welder = new VertexWelder();
+        int n = 40;
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                for (int z = 0; z < n; z++) {
+                    assertEquals((x * n + y) * n + z, welder.add(x, y, z, 0, 0, 1));
+                }
+            }
+        }
+        assertEquals(n * n * n, welder.getVertexCount());
+        assertEquals(((7 * n + 8) * n + 9), welder.add(7, 8, 9, 0, 0, 1));
+        assertEquals(n * n * n * 3, welder.copyPositions().length);
+
+        welder.reset();
+        assertEquals(0, welder.getVertexCount());
+        assertEquals(0, welder.add(7, 8, 9, 0, 0, 1));
+    }
+
+    @Test
+    void rejectsInvalidTolerance() {
+        assertThrows(IllegalArgumentException.class, () -> new VertexWelder(-1e-5f, 45.0f));
+        assertThrows(IllegalArgumentException.class, () -> new VertexWelder(Float.NaN, 45.0f));
+    }
+
+    @Test
+    void degenerateTrianglesAreSkipped() {
+        GeometryCapture capture = new GeometryCapture();
+        capture.begin(GL_TRIANGLES);
+        capture.vertex(0, 0, 0);
+        capture.vertex(1, 0, 0);
+        capture.vertex(0, 1, 0);
+        // Collinear
+        capture.vertex(0, 0, 0);
+        capture.vertex(1, 0, 0);
+        capture.vertex(2, 0, 0);
+        // A point
+        capture.vertex(1, 0, 0);
+        capture.vertex(1, 0, 0);
+        capture.vertex(1, 0, 0);
+        // Not empty, but every corner welds into the same vertex
+        capture.vertex(5, 5, 5);
+        capture.vertex(5 + 4e-6f, 5, 5);
+        capture.vertex(5, 5 + 4e-6f, 5);
+        capture.end();
+
+        IndexedGeometry geometry = new Tessellator().build(capture.toGeometry());
+        assertEquals(1, geometry.getTriangleCount());
+        assertArrayEquals(new int[] { 0, 1, 2 }, geometry.indices);
+        for (int v = 0; v < geometry.getVertexCount(); v++) {
+            assertEquals(1.0f, geometry.normals[v * 3 + 2], 1e-6f);
+        }
+    }
+
+    @Test
+    void cubeCornersAreSharedByPositionOnly() {
+        CubeMesh cube = new CubeMesh("Cube");
+        assertEquals(24, new Tessellator().build(cube.getGeometry()).getVertexCount());
+        IndexedGeometry welded = new Tessellator(180.0f).build(cube.getGeometry());
+        assertEquals(8, welded.getVertexCount());
+        assertEquals(12, welded.getTriangleCount());
+    }
+
+    private static float[] normal(double degrees) {
+        double radians = Math.toRadians(degrees);
+        return new float[] { (float) Math.sin(radians), 0, (float) Math.cos(radians) };
+    }
+}